@@ -5,6 +5,7 @@ URL: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/data
 """
 
 import csv
+import gzip
 
 import os
 import plotly as py
@@ -28,6 +29,36 @@ typicalSelfish : str
     The typical selfish run to be visualised.
 """
 
+def readRows(path: str) -> List[List[Any]]:
+    """ Reads the rows of a data file without its header, from a .csv file, a GZIP-compressed .csv.gz file or an Arrow IPC file.
+
+    Parameters
+    ---------
+    path : str
+        The absolute path of the data file.
+
+    Returns
+    ---------
+    List[List[Any]]
+        The values of each row, in the order of the columns of the .csv file.
+    """
+    if path.endswith('.arrow'):
+        import pyarrow
+
+        # The Arrow file is memory-mapped, so the columns are read without parsing
+        with pyarrow.memory_map(path) as source:
+            table = pyarrow.ipc.open_file(source).read_all()
+
+        return [list(row) for row in zip(*(column.to_pylist() for column in table.columns))]
+
+    # Compressed files are decompressed while they are read
+    with (gzip.open(path, 'rt') if path.endswith('.gz') else open(path)) as rawData:
+        reader = csv.reader(rawData)
+        next(reader)
+
+        return list(reader)
+
+
 # Get the output folder from command line arguments.
 folderName: str = sys.argv[1]
 
@@ -61,164 +92,157 @@ selfishDays: List[str] = []
 
 # Average consumer satisfactions for each agent type for each day are visualised as a line graph.
 # Hypothetical random and optimum allocations are also visualised.
-with open(dataFile) as rawData:
-
-    # Store calculated graph data
-    data: Any = []
-
-    reader = csv.reader(rawData)
-
-    next(reader)
-    for row in reader:
-        if (float(row[0]) == float(typicalSocial)):
-            socialDays.append(row[1])
-
-    rawData.seek(0)
-    next(reader)
-    for row in reader:
-        if (float(row[0]) == float(typicalSelfish)):
-            selfishDays.append(row[1])
-
-    totalDays: List[int] = []
-    if len(socialDays) > len(selfishDays):
-        totalDays = socialDays
-    else:
-        totalDays = selfishDays
-
-    socialSat: List[float] = []
-    selfishSat: List[float] = []
-
-    rawData.seek(0)
-    next(reader)
-
-    if len(socialDays) > 0:
-        for i in range(len(socialDays)):
-            for row in reader:
-                if (float(row[1]) == float(socialDays[i])) and (float(row[0]) == float(typicalSocial)):
-                    socialSat.append(float(row[4]))
-                    break
-
-        socialSatTrend: List[float] = []
-        for s in range(len(socialSat)):
-            socialSatTemp: List[float] = []
-            socialSatTemp.append(socialSat[s])
-            if s+1 < len(socialSat):
-                socialSatTemp.append(socialSat[s+1])
-            if s+2 < len(socialSat):
-                socialSatTemp.append(socialSat[s+2])
-            if s-1 >= 0:
-                socialSatTemp.append(socialSat[s-1])
-            if s-2 >= 0:
-                socialSatTemp.append(socialSat[s-2])
-            temp = 0
-            for t in range(len(socialSatTemp)):
-                temp = temp + socialSatTemp[t]
-            temp = temp / len(socialSatTemp)
-            socialSatTrend.append(temp)
-
-
-        data.append(
-            py.graph_objs.Scatter(
-                x=socialDays,
-                y=socialSatTrend,
-                name="Social",
-                line=dict(
-                    color="green",
-                    dash="solid",
-                    width=0.8,
-                    shape='spline',
-                    smoothing=1.3,
-                ),
-            )
+# Store calculated graph data
+data: Any = []
+
+rows: List[List[Any]] = readRows(dataFile)
+
+for row in rows:
+    if (float(row[0]) == float(typicalSocial)):
+        socialDays.append(row[1])
+
+for row in rows:
+    if (float(row[0]) == float(typicalSelfish)):
+        selfishDays.append(row[1])
+
+totalDays: List[int] = []
+if len(socialDays) > len(selfishDays):
+    totalDays = socialDays
+else:
+    totalDays = selfishDays
+
+socialSat: List[float] = []
+selfishSat: List[float] = []
+
+reader = iter(rows)
+
+if len(socialDays) > 0:
+    for i in range(len(socialDays)):
+        for row in reader:
+            if (float(row[1]) == float(socialDays[i])) and (float(row[0]) == float(typicalSocial)):
+                socialSat.append(float(row[4]))
+                break
+
+    socialSatTrend: List[float] = []
+    for s in range(len(socialSat)):
+        socialSatTemp: List[float] = []
+        socialSatTemp.append(socialSat[s])
+        if s+1 < len(socialSat):
+            socialSatTemp.append(socialSat[s+1])
+        if s+2 < len(socialSat):
+            socialSatTemp.append(socialSat[s+2])
+        if s-1 >= 0:
+            socialSatTemp.append(socialSat[s-1])
+        if s-2 >= 0:
+            socialSatTemp.append(socialSat[s-2])
+        temp = 0
+        for t in range(len(socialSatTemp)):
+            temp = temp + socialSatTemp[t]
+        temp = temp / len(socialSatTemp)
+        socialSatTrend.append(temp)
+
+
+    data.append(
+        py.graph_objs.Scatter(
+            x=socialDays,
+            y=socialSatTrend,
+            name="Social",
+            line=dict(
+                color="green",
+                dash="solid",
+                width=0.8,
+                shape='spline',
+                smoothing=1.3,
+            ),
         )
-    rawData.seek(0)
-    next(reader)
-
-    if len(selfishDays) > 0:
-        for i in range(len(selfishDays)):
-            for row in reader:
-                if (float(row[1]) == float(selfishDays[i])) and (float(row[0]) == float(typicalSelfish)):
-                    selfishSat.append(float(row[5]))
-                    break
-
-        selfishSatTrend: List[float] = []
-        for s in range(len(selfishSat)):
-            selfishSatTemp: List[float] = []
-            selfishSatTemp.append(selfishSat[s])
-            if s+1 < len(selfishSat):
-                selfishSatTemp.append(selfishSat[s+1])
-            if s+2 < len(selfishSat):
-                selfishSatTemp.append(selfishSat[s+2])
-            if s-1 >= 0:
-                selfishSatTemp.append(selfishSat[s-1])
-            if s-2 >= 0:
-                selfishSatTemp.append(selfishSat[s-2])
-            temp = 0
-            for t in range(len(selfishSatTemp)):
-                temp = temp + selfishSatTemp[t]
-            temp = temp / len(selfishSatTemp)
-            selfishSatTrend.append(temp)
-
-        data.append(
-            py.graph_objs.Scatter(
-                x=selfishDays,
-                y=selfishSatTrend,
-                name="Selfish",
-                line=dict(
-                    color="purple",
-                    dash="solid",
-                    width=0.8,
-                    shape='spline',
-                    smoothing=1.3,
-                ),
-            )
+    )
+reader = iter(rows)
+
+if len(selfishDays) > 0:
+    for i in range(len(selfishDays)):
+        for row in reader:
+            if (float(row[1]) == float(selfishDays[i])) and (float(row[0]) == float(typicalSelfish)):
+                selfishSat.append(float(row[5]))
+                break
+
+    selfishSatTrend: List[float] = []
+    for s in range(len(selfishSat)):
+        selfishSatTemp: List[float] = []
+        selfishSatTemp.append(selfishSat[s])
+        if s+1 < len(selfishSat):
+            selfishSatTemp.append(selfishSat[s+1])
+        if s+2 < len(selfishSat):
+            selfishSatTemp.append(selfishSat[s+2])
+        if s-1 >= 0:
+            selfishSatTemp.append(selfishSat[s-1])
+        if s-2 >= 0:
+            selfishSatTemp.append(selfishSat[s-2])
+        temp = 0
+        for t in range(len(selfishSatTemp)):
+            temp = temp + selfishSatTemp[t]
+        temp = temp / len(selfishSatTemp)
+        selfishSatTrend.append(temp)
+
+    data.append(
+        py.graph_objs.Scatter(
+            x=selfishDays,
+            y=selfishSatTrend,
+            name="Selfish",
+            line=dict(
+                color="purple",
+                dash="solid",
+                width=0.8,
+                shape='spline',
+                smoothing=1.3,
+            ),
         )
-            
-    # Style the graph layout
-    layout: any = dict(
-        title=dict(
-            text='Typical Simulation Runs',
-            xanchor='center',
-            x=0.5,
-        ),
-        xaxis=dict(
-            title='Day',
-            showline=True,
-            linecolor='black',
-            linewidth=1,
-            gridcolor='rgb(225, 225, 225)',
-            gridwidth=1,
-            range=[totalDays[0], totalDays[-1]],
-            tickmode='linear',
-            tick0=-1,
-            dtick=50,
-        ),
-        yaxis=dict(
-            title='Average consumer satisfaction',
-            showline=True,
-            linecolor='black',
-            linewidth=1,
-            gridcolor='rgb(225, 225, 225)',
-            gridwidth=1,
-            range=[0, 1],
-            tickmode='linear',
-            tick0=0,
-            dtick=0.2,
-        ),
-        margin=dict(
-            l=40,
-            r=30,
-            b=80,
-            t=100,
-        ),
-        paper_bgcolor='rgb(255, 255, 255)',
-        plot_bgcolor='rgb(255, 255, 255)',
-        font=dict(
-            size=16
-        ),
     )
-
-    # Create the graph and save the file
-    fig: Dict[any, any] = dict(data=data, layout=layout)
-    fullPath: str = os.path.join(baseOutputDirectory, convertedBaseFileName)
-    py.io.write_image(fig, fullPath, format="png")
+        
+# Style the graph layout
+layout: any = dict(
+    title=dict(
+        text='Typical Simulation Runs',
+        xanchor='center',
+        x=0.5,
+    ),
+    xaxis=dict(
+        title='Day',
+        showline=True,
+        linecolor='black',
+        linewidth=1,
+        gridcolor='rgb(225, 225, 225)',
+        gridwidth=1,
+        range=[totalDays[0], totalDays[-1]],
+        tickmode='linear',
+        tick0=-1,
+        dtick=50,
+    ),
+    yaxis=dict(
+        title='Average consumer satisfaction',
+        showline=True,
+        linecolor='black',
+        linewidth=1,
+        gridcolor='rgb(225, 225, 225)',
+        gridwidth=1,
+        range=[0, 1],
+        tickmode='linear',
+        tick0=0,
+        dtick=0.2,
+    ),
+    margin=dict(
+        l=40,
+        r=30,
+        b=80,
+        t=100,
+    ),
+    paper_bgcolor='rgb(255, 255, 255)',
+    plot_bgcolor='rgb(255, 255, 255)',
+    font=dict(
+        size=16
+    ),
+)
+
+# Create the graph and save the file
+fig: Dict[any, any] = dict(data=data, layout=layout)
+fullPath: str = os.path.join(baseOutputDirectory, convertedBaseFileName)
+py.io.write_image(fig, fullPath, format="png")
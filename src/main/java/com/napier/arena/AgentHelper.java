@@ -1,9 +1,10 @@
 package com.napier.arena;
 
 import com.napier.arena.concepts.TimeSlot;
-import com.napier.arena.concepts.TimeSlotSatisfactionPair;
+import com.napier.arena.structures.TimeSlotHistogram;
 import com.napier.arena.singletons.SimulationConfigurationSingleton;
 import com.napier.arena.concepts.AgentContact;
+import com.napier.arena.concepts.SimulationConfiguration;
 import com.napier.arena.types.AgentStrategyType;
 import jade.core.AID;
 import jade.core.Agent;
@@ -19,9 +20,6 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-
-import static java.lang.Math.sqrt;
 
 /**
  * Contains static helper methods for agent activities.
@@ -94,6 +92,7 @@ public class AgentHelper {
         */
 
         ArrayList<AgentContact> agentContacts = new ArrayList<>();
+        SimulationConfiguration config = SimulationConfigurationSingleton.getInstance().getConfiguration();
 
         DFAgentDescription agentDescription = new DFAgentDescription();
         ServiceDescription serviceDescription = new ServiceDescription();
@@ -107,7 +106,7 @@ public class AgentHelper {
                 String nickname = foundAgent.getName().getLocalName();
 
                 if (nickname.contains("Household") && !foundAgent.getName().equals(agent.getAID())) {
-                    agentContacts.add(new AgentContact(foundAgent.getName(), determineAgentType(nickname)));
+                    agentContacts.add(new AgentContact(foundAgent.getName(), getHouseholdAgentIndex(nickname), determineAgentType(nickname, config)));
                 } else {
                     agentContacts.add(new AgentContact(foundAgent.getName()));
                 }
@@ -406,10 +405,10 @@ public class AgentHelper {
      * Provides a strategy type based on the Household agent's nickname.
      *
      * @param householdNickname The localName of a Household agent.
+     * @param config The configuration snapshot of the current simulation run.
      * @return (AgentStrategyType or null) The enum value based on the agent's nickname or null if the Household agent's number is too high or if a non-Household agent is provided.
      */
-    public static AgentStrategyType determineAgentType(String householdNickname) {
-        SimulationConfigurationSingleton config = SimulationConfigurationSingleton.getInstance();
+    public static AgentStrategyType determineAgentType(String householdNickname, SimulationConfiguration config) {
         AgentStrategyType agentType;
 
         // Check if only one agent type is supposed to be used
@@ -430,16 +429,62 @@ public class AgentHelper {
         return agentType;
     }
 
+    /**
+     * Gets the configuration snapshot that the agent was created with.
+     * If the agent was created without one, the snapshot that is currently published is used.
+     *
+     * @param agent The agent that is being set up.
+     * @return (SimulationConfiguration) The configuration snapshot to use until the next simulation run starts.
+     */
+    public static SimulationConfiguration getInitialConfiguration(Agent agent) {
+        Object[] arguments = agent.getArguments();
+
+        if (arguments != null && arguments.length > 0 && arguments[0] instanceof SimulationConfiguration configuration) {
+            return configuration;
+        }
+
+        return SimulationConfigurationSingleton.getInstance().getConfiguration();
+    }
+
     /**
      * Finds the Household number in the agent's nickname.
      *
      * @param agentNickname The localName of the Household agent.
      * @return (int) The number assigned to the provided Household agent.
      */
-    private static int getHouseholdAgentNumber(String agentNickname) {
+    public static int getHouseholdAgentNumber(String agentNickname) {
         return Integer.parseInt(agentNickname.substring("Household-".length()));
     }
 
+    /**
+     * Finds the household index of a Household agent, which is the position of the agent in the arrays indexed by Household agents.
+     *
+     * @param agentNickname The localName of the Household agent.
+     * @return (int) The household index of the provided Household agent, starting from 0.
+     */
+    public static int getHouseholdAgentIndex(String agentNickname) {
+        return getHouseholdAgentNumber(agentNickname) - 1;
+    }
+
+    /**
+     * Builds the directory that resolves household indices to AIDs at the point where a message is sent.
+     *
+     * @param householdAgentContacts The Household agent contacts to put in the directory.
+     * @param populationCount The number of Household agents in the simulation.
+     * @return (AID[]) The AID of each Household agent at the position of its household index. Positions of unknown agents are null.
+     */
+    public static AID[] createHouseholdAgentDirectory(ArrayList<AgentContact> householdAgentContacts, int populationCount) {
+        AID[] householdAgentIdentifiers = new AID[populationCount];
+
+        for (AgentContact contact : householdAgentContacts) {
+            if (contact.getHouseholdIndex() != AgentContact.NO_HOUSEHOLD_INDEX) {
+                householdAgentIdentifiers[contact.getHouseholdIndex()] = contact.getAgentIdentifier();
+            }
+        }
+
+        return householdAgentIdentifiers;
+    }
+
     /**
      * Checks if a given integer is a FIPA performative.
      *
@@ -453,57 +498,30 @@ public class AgentHelper {
     /**
      * Calculates the Agents satisfaction with a given list of time-slots by comparing the list with the time-slots
      * requested by this Agent.
+     * Only exact matches add to the satisfaction, the satisfaction curve of the configuration is not applied.
      *
      * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Agent.java">ResourceExchangeArena</a>
      *
      * @param timeSlotsToConsider The set of time-slots to consider.
      * @param requestedTimeSlots  The set of time-slots requested.
+     * @param config The configuration snapshot of the current simulation run.
      * @return Double The Agents satisfaction with the time-slots given.
      */
-    public static double calculateSatisfaction(ArrayList<TimeSlot> timeSlotsToConsider, ArrayList<TimeSlot> requestedTimeSlots) {
-        double[] satisfactionCurve = SimulationConfigurationSingleton.getInstance().getSatisfactionCurve();
+    public static double calculateSatisfaction(ArrayList<TimeSlot> timeSlotsToConsider, ArrayList<TimeSlot> requestedTimeSlots, SimulationConfiguration config) {
         ArrayList<TimeSlot> tempRequestedTimeSlots = new ArrayList<>(requestedTimeSlots);
-        ArrayList<TimeSlot> nonRequestedTimeSlots = new ArrayList<>();
 
         // Count the number of the given time-slots that match the Agents requested time-slots.
+        // Only the held and the requested time-slots are compared, so the cost does not depend on the number of unique time-slots in a day.
         double satisfaction = 0;
 
         for (TimeSlot timeSlot : timeSlotsToConsider) {
-            if (tempRequestedTimeSlots.contains(timeSlot)) {
-                tempRequestedTimeSlots.remove(timeSlot);
+            if (tempRequestedTimeSlots.remove(timeSlot)) {
                 satisfaction++;
-            } else {
-                nonRequestedTimeSlots.add(timeSlot);
-            }
-        }
-
-        List<TimeSlotSatisfactionPair> tempTimeSlotSatisfactions = calculateSatisfactionPerSlot(tempRequestedTimeSlots);
-
-        for (int i = 1; i < satisfactionCurve.length; i++) {
-            for (TimeSlot timeSlot: nonRequestedTimeSlots) {
-                for (TimeSlotSatisfactionPair pair: tempTimeSlotSatisfactions) {
-                    if (pair.getTimeSlot() == timeSlot) {
-                        if (pair.getSatisfaction() == satisfactionCurve[i]) {
-                            satisfaction += pair.getSatisfaction();
-                            TimeSlot timeSlotOver = new TimeSlot(timeSlot.getStartHour() + i);
-                            TimeSlot timeSlotUnder = new TimeSlot(timeSlot.getStartHour() - i);
-
-                            if (tempRequestedTimeSlots.contains(timeSlotOver)) {
-                                tempRequestedTimeSlots.remove(timeSlotOver);
-                                tempTimeSlotSatisfactions = calculateSatisfactionPerSlot(tempRequestedTimeSlots);
-                            } else if (tempRequestedTimeSlots.contains(timeSlotUnder)) {
-                                tempRequestedTimeSlots.remove(timeSlotUnder);
-                                tempTimeSlotSatisfactions = calculateSatisfactionPerSlot(tempRequestedTimeSlots);
-                            }
-                        }
-                        break;
-                    }
-                }
             }
         }
 
         // Return the Agents satisfaction with the given time-slots, between 1 and 0.
-        return satisfaction / SimulationConfigurationSingleton.getInstance().getNumOfSlotsPerAgent();
+        return satisfaction / config.getNumOfSlotsPerAgent();
     }
 
     /**
@@ -525,126 +543,26 @@ public class AgentHelper {
         return agentSatisfactions.stream().mapToDouble(val -> val).average().orElse(0.0);
     }
 
-    /**
-     * Takes all Agents of a given types individual satisfactions and calculates the average satisfaction of the Agents
-     * of that type.
-     *
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/CalculateSatisfaction.java">ResourceExchangeArena</a>
-     *
-     * @param householdAgentContacts Array List of all the agents that exist in the current simulation.
-     * @param agentStrategyType The type for which to calculate the average satisfaction of all Agents of that type.
-     * @return Double Returns the average satisfaction between 0 and 1 of all agents of the given type.
-     */
-    public static double averageAgentSatisfaction(ArrayList<AgentContact> householdAgentContacts, AgentStrategyType agentStrategyType) {
-        ArrayList<Double> agentSatisfactions = new ArrayList<>();
-
-        for (AgentContact householdAgentContact : householdAgentContacts) {
-            if (householdAgentContact.getType() == agentStrategyType) {
-                agentSatisfactions.add(householdAgentContact.getCurrentSatisfaction());
-            }
-        }
-
-        return agentSatisfactions.stream().mapToDouble(val -> val).average().orElse(0.0);
-    }
-
     /**
      * Returns the optimum average satisfaction possible for all agents given the current requests and allocations in
      * the simulation.
+     * A request can be fulfilled with perfect trading if a timeslot starting at the same hour has been allocated to any agent,
+     * and no allocated slot can fulfil two requests, so the fulfilled requests of each hour are the smaller of the two counts.
      *
      * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/CalculateSatisfaction.java">ResourceExchangeArena</a>
      *
-     * @param allAllocatedTimeSlots The timeslots that were distributed at the start of the day.
-     * @param allRequestedTimeSlots All timeslots that were requested by all Household agents at the start of the day.
+     * @param allocatedTimeSlotCounts The timeslots that were distributed at the start of the day, counted by start hour.
+     * @param requestedTimeSlotCounts All timeslots that were requested by all Household agents at the start of the day, counted by start hour.
      *
      * @return Double Returns the highest possible average satisfaction between 0 and 1 of all agents in the simulation.
      */
-    public static double calculateOptimumPossibleSatisfaction(ArrayList<TimeSlot> allAllocatedTimeSlots, ArrayList<TimeSlot> allRequestedTimeSlots) {
+    public static double calculateOptimumPossibleSatisfaction(TimeSlotHistogram allocatedTimeSlotCounts, TimeSlotHistogram requestedTimeSlotCounts) {
         // Stores the number of slots that could potentially be fulfilled with perfect trading.
-        double satisfiedSlots = 0;
+        double satisfiedSlots = requestedTimeSlotCounts.countMatches(allocatedTimeSlotCounts);
 
         // Stores the total number of slots requested by all Agents.
-        double totalSlots = allRequestedTimeSlots.size();
-
-        for (TimeSlot timeSlot : allRequestedTimeSlots) {
-            if (allAllocatedTimeSlots.contains(timeSlot)) {
-                // For each request, if it has been allocated to any agent, increase the number of satisfied slots.
-                satisfiedSlots++;
-
-                // Remove the slot from the list of all allocated slots so no slots can be allocated twice.
-                allAllocatedTimeSlots.remove(timeSlot);
-            }
-        }
+        double totalSlots = requestedTimeSlotCounts.getTotalCount();
 
         return satisfiedSlots / totalSlots;
     }
-
-    /**
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Agent.java">ResourceExchangeArena</a>
-     *
-     * @param requestedTimeSlots The desired timeslots of a given Household agent.
-     * @return (ArrayList of TimeSlotSatisfactionPairs) A list of tuples with the Household agent's desired timeslot and its corresponding satisfaction based on the agent's demand curve.
-     */
-    public static ArrayList<TimeSlotSatisfactionPair> calculateSatisfactionPerSlot(ArrayList<TimeSlot> requestedTimeSlots) {
-        ArrayList<TimeSlotSatisfactionPair> timeSlotSatisfactionPairs = new ArrayList<>();
-        double[] satisfactionCurve = SimulationConfigurationSingleton.getInstance().getSatisfactionCurve();
-
-        // Calculate the potential satisfaction that each time-slot could give based on their proximity to requested time-slots.
-        Double[] slotSatisfaction = new Double[SimulationConfigurationSingleton.getInstance().getNumOfUniqueTimeSlots()];
-        Arrays.fill(slotSatisfaction, 0.0);
-
-        for (TimeSlot requestedTimeSlot : requestedTimeSlots) {
-            int slotSatisfactionIndex = requestedTimeSlot.getStartHour() - 1;
-            slotSatisfaction[slotSatisfactionIndex] = satisfactionCurve[0];
-
-            // Apply the adjustment values to neighboring elements
-            for (int i = 1; i < satisfactionCurve.length; i++) {
-                int leftIndex = slotSatisfactionIndex - i;
-                int rightIndex = slotSatisfactionIndex + i;
-
-                if (leftIndex < 0) {leftIndex += slotSatisfaction.length;}
-                if (rightIndex >= slotSatisfaction.length) {rightIndex -= slotSatisfaction.length;}
-
-                slotSatisfaction[leftIndex] = Math.max(slotSatisfaction[leftIndex], satisfactionCurve[i]);
-                slotSatisfaction[rightIndex] = Math.max(slotSatisfaction[rightIndex], satisfactionCurve[i]);
-            }
-        }
-
-        for (int i = 0; i < slotSatisfaction.length; i++) {
-            timeSlotSatisfactionPairs.add(new TimeSlotSatisfactionPair(new TimeSlot(i + 1), slotSatisfaction[i]));
-        }
-
-        return timeSlotSatisfactionPairs;
-    }
-
-    /**
-     * Takes all Agents of a given types individual satisfactions and calculates the variance between the average
-     * satisfaction of the Agents of that type.
-     *
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/CalculateSatisfaction.java">ResourceExchangeArena</a>
-     *
-     * @param agentContacts Array List of all the agents that exist in the current simulation.
-     * @param agentType The type for which to calculate the variance between the average satisfactions of all Agents of
-     *                  that type.
-     * @param averageOverallSatisfaction The average satisfaction of all Household agents.
-     * @return Double Returns the variance between the average satisfactions of all agents of the given type.
-     */
-    public static double averageSatisfactionStandardDeviation(ArrayList<AgentContact> agentContacts, AgentStrategyType agentType, double averageOverallSatisfaction) {
-        double sumDiffsSquared = 0.0;
-        int groupSize = 0;
-
-        for (AgentContact agentContact : agentContacts) {
-            if (agentContact.getType() == agentType) {
-                double diff = agentContact.getCurrentSatisfaction() - averageOverallSatisfaction;
-                diff *= diff;
-                sumDiffsSquared += diff;
-                groupSize++;
-            }
-        }
-
-        if (groupSize == 0) {
-            return 0.0;
-        }
-
-        return sqrt(sumDiffsSquared / (double)(groupSize));
-    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.napier.arena;
 import com.napier.arena.agents.AdvertisingBoardAgent;
 import com.napier.arena.agents.HouseholdAgent;
 import com.napier.arena.agents.TickerAgent;
+import com.napier.arena.concepts.SimulationConfiguration;
 import com.napier.arena.singletons.SimulationConfigurationSingleton;
 import com.napier.arena.types.ExchangeType;
 import jade.core.Profile;
@@ -64,7 +65,10 @@ public class Main {
 
     private static void initEnvironment() {
         // Create the first instance of the configuration singleton before the agent threads can access it
-        SimulationConfigurationSingleton config = SimulationConfigurationSingleton.getInstance();
+        SimulationConfiguration config = SimulationConfigurationSingleton.getInstance().getConfiguration();
+
+        // Every agent is created with the initial configuration snapshot
+        Object[] agentArguments = new Object[]{config};
 
         /*
         The source for creating and initialising the agents participating in the simulation:
@@ -92,14 +96,14 @@ public class Main {
             container.createNewAgent(
                     "Ticker",
                     TickerAgent.class.getCanonicalName(),
-                    null
+                    agentArguments
             ).start();
 
             // Create and start the Advertising Board agent
             container.createNewAgent(
                     "Board",
                     AdvertisingBoardAgent.class.getCanonicalName(),
-                    null
+                    agentArguments
             ).start();
 
             // Create as many Household agents as defined in the config.properties file (population.size)
@@ -108,7 +112,7 @@ public class Main {
                 container.createNewAgent(
                         "Household-" + i,
                         HouseholdAgent.class.getCanonicalName(),
-                        null
+                        agentArguments
                 ).start();
             }
         } catch (StaleProxyException e) {
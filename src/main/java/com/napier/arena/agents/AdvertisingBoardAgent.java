@@ -3,6 +3,7 @@ package com.napier.arena.agents;
 import com.napier.arena.AgentHelper;
 
 import com.napier.arena.concepts.AgentContact;
+import com.napier.arena.concepts.SimulationConfiguration;
 import com.napier.arena.concepts.dataholders.AgentStatisticalValuesPerStrategyType;
 import com.napier.arena.concepts.dataholders.EndOfDayAdvertisingBoardDataHolder;
 import com.napier.arena.concepts.dataholders.EndOfDayHouseholdAgentDataHolder;
@@ -13,7 +14,11 @@ import com.napier.arena.concepts.TradeOffer;
 import com.napier.arena.singletons.SimulationConfigurationSingleton;
 import com.napier.arena.singletons.DataOutputSingleton;
 import com.napier.arena.singletons.TickerTrackerSingleton;
+import com.napier.arena.structures.CumulativeFrequencyTree;
+import com.napier.arena.structures.HouseholdRegistry;
+import com.napier.arena.structures.TimeSlotHistogram;
 import com.napier.arena.types.AgentStrategyType;
+import com.napier.arena.types.OutputLevelType;
 import jade.core.AID;
 import jade.core.Agent;
 import jade.core.behaviours.Behaviour;
@@ -27,7 +32,8 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.SplittableRandom;
 
 /**
  * An agent of the advertiser archetype. Its main purpose is to help Household agents advertise their timeslots
@@ -38,10 +44,14 @@ import java.util.HashMap;
  */
 public class AdvertisingBoardAgent extends Agent {
     // Generated attributes
+    // The per-household attributes are indexed by the household index of the Household agents
     private ArrayList<TimeSlot> availableTimeSlots;
-    private HashMap<AID, ArrayList<TimeSlot>> initialRandomAllocatedTimeSlots;
-    private HashMap<AID, ArrayList<TimeSlot>> requestedTimeSlots;
-    private HashMap<AID, ArrayList<TimeSlot>> adverts;
+    private TimeSlot[][] initialRandomAllocatedTimeSlots;
+    private TimeSlot[][] requestedTimeSlots;
+    private TimeSlotHistogram allocatedTimeSlotCounts;
+    private TimeSlotHistogram requestedTimeSlotCounts;
+    private ArrayList<ArrayList<TimeSlot>> adverts;
+    private int numOfAdvertsPosted;
 
     // Calculated attributes
     private double initialRandomAllocationAverageSatisfaction;
@@ -50,7 +60,6 @@ public class AdvertisingBoardAgent extends Agent {
     // Exchange Statistics/Tracker attributes
     private int numOfTradesStarted;
     private int numOfSuccessfulExchanges;
-    private ArrayList<AID> agentsToNotify;
 
     // Daily Statistics/Tracker attributes
     private int numOfAgentsSelectedForSocialLearning;
@@ -60,15 +69,20 @@ public class AdvertisingBoardAgent extends Agent {
     // Agent contact attributes
     private AID tickerAgent;
     private ArrayList<AgentContact> householdAgentContacts;
-    private HashMap<AID, Boolean> householdAgentsInteractions;
+    private HouseholdRegistry householdRegistry;
+    private boolean[] householdAgentsInteractions;
+
+    // Configuration snapshot of the current simulation run
+    private SimulationConfiguration config;
 
     // Singletons
-    private SimulationConfigurationSingleton config;
     private TickerTrackerSingleton timeTracker;
     private DataOutputSingleton outputInstance;
+    private SplittableRandom random;
 
     @Override
     protected void setup() {
+        this.config = AgentHelper.getInitialConfiguration(this);
         this.initialAgentSetup();
 
         AgentHelper.registerAgent(this, "Advertising-board");
@@ -112,6 +126,13 @@ public class AdvertisingBoardAgent extends Agent {
         public void action() {
             // Populate the contact collection
             householdAgentContacts = AgentHelper.saveAgentContacts(myAgent, "Household");
+
+            // Index the contacts by household index, so that they can be looked up without searching
+            householdRegistry = new HouseholdRegistry(config.getPopulationCount());
+
+            for (AgentContact contact : householdAgentContacts) {
+                householdRegistry.register(contact);
+            }
         }
     }
 
@@ -135,6 +156,8 @@ public class AdvertisingBoardAgent extends Agent {
                 if (!tick.getConversationId().equals("Terminate")) {
                     // Do a reset on all agent attributes on each new simulation run
                     if (tick.getConversationId().equals("New Run")) {
+                        // Switch to the configuration snapshot that the Ticker agent published for the new run
+                        config = SimulationConfigurationSingleton.getInstance().getConfiguration();
                         initialAgentSetup();
 
                         if (config.isDebugMode()) {
@@ -174,11 +197,13 @@ public class AdvertisingBoardAgent extends Agent {
 
             // Daily reset
             availableTimeSlots.clear();
-            initialRandomAllocatedTimeSlots.clear();
-            requestedTimeSlots.clear();
+            Arrays.fill(initialRandomAllocatedTimeSlots, null);
+            Arrays.fill(requestedTimeSlots, null);
+            allocatedTimeSlotCounts.clear();
+            requestedTimeSlotCounts.clear();
             initialRandomAllocationAverageSatisfaction = 0;
             optimumAveragePossibleSatisfaction = 0;
-            adverts.clear();
+            clearAdverts();
             currentExchangeRound = 1;
             exchangeTimeout = 0;
             numOfAgentsSelectedForSocialLearning = 0;
@@ -206,16 +231,10 @@ public class AdvertisingBoardAgent extends Agent {
 
             for (int i = 1; i <= numOfRequiredTimeSlots; i++) {
                 // Selects a time-slot based on the demand curve.
-                int wheelSelector = config.getRandom().nextInt(config.getTotalAvailableEnergy());
-                int wheelCalculator = 1; // if we start at 0, there will be 25 potential time slots in a day instead of 24
-                int timeSlotStart = 0;
-
-                while (wheelCalculator < wheelSelector) {
-                    wheelCalculator = wheelCalculator + (config.getBucketedAvailabilityCurve()[timeSlotStart]);
-                    timeSlotStart++;
-                }
+                int wheelSelector = random.nextInt(config.getTotalAvailableEnergy());
+                int timeSlotStart = config.getAvailabilityWheel().selectTimeSlot(wheelSelector);
 
-                availableTimeSlots.add(new TimeSlot(timeSlotStart));
+                availableTimeSlots.add(new TimeSlot(timeSlotStart, config.getNumOfUnitsPerSlot()));
             }
 
             if (config.isDebugMode()) {
@@ -235,7 +254,17 @@ public class AdvertisingBoardAgent extends Agent {
 
         @Override
         public void action() {
-            Collections.shuffle(householdAgentContacts, config.getRandom());
+            Collections.shuffle(householdAgentContacts, random);
+
+            // Pick the timeslots out of the generated list without shifting the elements of the list after every pick
+            int numOfRemainingTimeSlots = availableTimeSlots.size();
+            CumulativeFrequencyTree remainingPositions = null;
+
+            if (!config.isFastInitialAllocationUsed()) {
+                int[] positionWeights = new int[numOfRemainingTimeSlots];
+                Arrays.fill(positionWeights, 1);
+                remainingPositions = new CumulativeFrequencyTree(positionWeights);
+            }
 
             for (AgentContact contact : householdAgentContacts) {
                 /*
@@ -247,12 +276,22 @@ public class AdvertisingBoardAgent extends Agent {
 
                 for (int i = 0; i < config.getNumOfSlotsPerAgent(); i++) {
                     // Only allocate time-slots if there are slots available to allocate.
-                    if (!availableTimeSlots.isEmpty()) {
-                        int selector = config.getRandom().nextInt(availableTimeSlots.size());
-                        TimeSlot timeSlot = availableTimeSlots.get(selector);
+                    if (numOfRemainingTimeSlots > 0) {
+                        int selector = random.nextInt(numOfRemainingTimeSlots);
+
+                        if (remainingPositions != null) {
+                            // Find the position of the selector-th timeslot that has not been allocated yet, as if the allocated ones were removed from the list
+                            int position = remainingPositions.findPosition(selector);
+
+                            initialTimeSlots[i] = availableTimeSlots.get(position);
+                            remainingPositions.removeWeight(position);
+                        } else {
+                            // Fast mode: move the last unallocated timeslot into the place of the allocated one
+                            initialTimeSlots[i] = availableTimeSlots.get(selector);
+                            availableTimeSlots.set(selector, availableTimeSlots.get(numOfRemainingTimeSlots - 1));
+                        }
 
-                        initialTimeSlots[i] = timeSlot;
-                        availableTimeSlots.remove(selector);
+                        numOfRemainingTimeSlots--;
                     } else {
                         AgentHelper.printAgentError(myAgent.getLocalName(), "Error: No Time-Slots Available");
                     }
@@ -268,7 +307,24 @@ public class AdvertisingBoardAgent extends Agent {
                 );
 
                 // Store the initially allocated timeslots for each agent
-                initialRandomAllocatedTimeSlots.put(contact.getAgentIdentifier(), new ArrayList<>(Arrays.asList(initialTimeSlots)));
+                allocatedTimeSlotCounts.remove(initialRandomAllocatedTimeSlots[contact.getHouseholdIndex()]);
+                allocatedTimeSlotCounts.add(initialTimeSlots);
+                initialRandomAllocatedTimeSlots[contact.getHouseholdIndex()] = initialTimeSlots;
+            }
+
+            // Only keep the timeslots that have not been allocated
+            if (remainingPositions != null) {
+                ArrayList<TimeSlot> unallocatedTimeSlots = new ArrayList<>(numOfRemainingTimeSlots);
+
+                for (int i = 0; i < availableTimeSlots.size() && unallocatedTimeSlots.size() < numOfRemainingTimeSlots; i++) {
+                    if (remainingPositions.getWeight(i) > 0) {
+                        unallocatedTimeSlots.add(availableTimeSlots.get(i));
+                    }
+                }
+
+                availableTimeSlots = unallocatedTimeSlots;
+            } else {
+                availableTimeSlots.subList(numOfRemainingTimeSlots, availableTimeSlots.size()).clear();
             }
         }
     }
@@ -299,7 +355,7 @@ public class AdvertisingBoardAgent extends Agent {
             // Broadcast the start of the exchange round to all Household agents
             AgentHelper.sendMessage(
                     myAgent,
-                    getHouseholdAgentAIDList(),
+                    householdRegistry.getAgentIdentifiers(),
                     "Exchange Initiated",
                     ACLMessage.REQUEST
             );
@@ -336,10 +392,13 @@ public class AdvertisingBoardAgent extends Agent {
                 // Make sure the incoming object is of the expected type and the advert is not empty
                 if (receivedObject instanceof SerializableTimeSlotArray unwantedTimeSlotsHolder) {
                     // Register (or update) the advert
-                    adverts.put(
-                            advertisingMessage.getSender(),
-                            new ArrayList<>(Arrays.asList(unwantedTimeSlotsHolder.timeSlots()))
-                    );
+                    int advertPosterIndex = AgentHelper.getHouseholdAgentIndex(advertisingMessage.getSender().getLocalName());
+
+                    if (adverts.get(advertPosterIndex) == null) {
+                        numOfAdvertsPosted++;
+                    }
+
+                    adverts.set(advertPosterIndex, new ArrayList<>(Arrays.asList(unwantedTimeSlotsHolder.timeSlots())));
 
                     numOfAdvertsReceived++;
                 } else {
@@ -350,12 +409,12 @@ public class AdvertisingBoardAgent extends Agent {
                 if (numOfAdvertsReceived == config.getPopulationCount() && householdAgentContacts.size() == numOfAdvertsReceived) {
                     // Shuffle the agent contact list before broadcasting the exchange open message
                     // This determines the order in which agents participate in the exchange
-                    Collections.shuffle(householdAgentContacts, config.getRandom());
+                    Collections.shuffle(householdAgentContacts, random);
 
                     // Broadcast the opening of the exchange to all Household agents
                     AgentHelper.sendMessage(
                             myAgent,
-                            getHouseholdAgentAIDList(),
+                            householdRegistry.getAgentIdentifiers(),
                             "Exchange is Open",
                             ACLMessage.CONFIRM
                     );
@@ -387,7 +446,7 @@ public class AdvertisingBoardAgent extends Agent {
      */
     public class InquiryListenerBehaviour extends Behaviour {
         private int numOfRequestsProcessed = 0;
-        private final ArrayList<AID> agentsToReceiveATradeOffer = new ArrayList<>();
+        private final boolean[] agentsToReceiveATradeOffer = new boolean[config.getPopulationCount()];
 
         public InquiryListenerBehaviour(Agent a) {
             super(a);
@@ -399,8 +458,9 @@ public class AdvertisingBoardAgent extends Agent {
             ACLMessage inquiryMessage = AgentHelper.receiveMessage(myAgent, ACLMessage.CFP);
 
             // Wait until all agents had posted an advert
-            if (inquiryMessage != null && adverts.size() == config.getPopulationCount()) {
+            if (inquiryMessage != null && numOfAdvertsPosted == config.getPopulationCount()) {
                 AID requesterAgent = inquiryMessage.getSender();
+                int requesterIndex = AgentHelper.getHouseholdAgentIndex(requesterAgent.getLocalName());
                 boolean refuseRequest = true;
 
                 // Make sure the incoming object is readable
@@ -409,38 +469,38 @@ public class AdvertisingBoardAgent extends Agent {
                 // Make sure the incoming object is of the expected type and the advert is not empty
                 if (receivedObject instanceof SerializableTimeSlotArray requestedTimeSlotsHolder) {
                     // Store the requested timeslots
-                    AdvertisingBoardAgent.this.requestedTimeSlots.put(requesterAgent, new ArrayList<>(Arrays.asList(requestedTimeSlotsHolder.timeSlots())));
+                    storeRequestedTimeSlots(requesterIndex, requestedTimeSlotsHolder.timeSlots());
 
                     // Prepare a trade offer to the owner of the desired timeslot if that timeslot is available for trade
-                    ArrayList<TimeSlot> requestersAdvertisedTimeSlots = adverts.get(requesterAgent);
+                    ArrayList<TimeSlot> requestersAdvertisedTimeSlots = adverts.get(requesterIndex);
 
                     // Check if the household agent has made interaction with another household agent in the current exchange round
                     // Find out if the requester has any timeslots available to trade
-                    if (!householdAgentsInteractions.get(requesterAgent) && !requestersAdvertisedTimeSlots.isEmpty()) {
+                    if (!householdAgentsInteractions[requesterIndex] && !requestersAdvertisedTimeSlots.isEmpty()) {
                         // Flip the "made interaction" flag
-                        householdAgentsInteractions.replace(requesterAgent, true);
+                        householdAgentsInteractions[requesterIndex] = true;
 
                         // Browse the advertised timeslots and try to find a requested timeslot
-                        Pair<TimeSlot, AID> timeSlotOwnerPair = findRequestedTimeSlotInAdverts(
+                        Pair<TimeSlot, Integer> timeSlotOwnerPair = findRequestedTimeSlotInAdverts(
                                 requestedTimeSlotsHolder.timeSlots(),
-                                requesterAgent,
+                                requesterIndex,
                                 agentsToReceiveATradeOffer
                         );
 
                         // Check if the requester has any timeslots to offer in return and if a desired timeslot was found
                         if (timeSlotOwnerPair != null) {
-                            AID receiverAgent = timeSlotOwnerPair.second();
+                            int receiverIndex = timeSlotOwnerPair.second();
 
                             // Offer the requester's least wanted timeslot - the first element of the advert
                             // Send the trade offer to the agent that has the desired timeslot, with the
                             // requester's nickname as the text content
                             AgentHelper.sendMessage(
                                     myAgent,
-                                    receiverAgent,
+                                    householdRegistry.getAgentIdentifier(receiverIndex),
                                     "New Offer",
                                     new TradeOffer(
-                                            requesterAgent,
-                                            receiverAgent,
+                                            requesterIndex,
+                                            receiverIndex,
                                             requestersAdvertisedTimeSlots.getFirst(),
                                             timeSlotOwnerPair.first()
                                     ),
@@ -461,11 +521,15 @@ public class AdvertisingBoardAgent extends Agent {
                 final int populationCount = config.getPopulationCount();
 
                 // Check if all calls for proposal had been processed
-                if (numOfRequestsProcessed == populationCount && agentsToReceiveATradeOffer.size() <= populationCount) {
-                    // By subtracting the arraylist of agents from the list of all agents, get the agents who did not
-                    // receive a trade request in the current exchange round and notify them.
-                    agentsToNotify = new ArrayList<>(getHouseholdAgentAIDList());
-                    agentsToNotify.removeAll(agentsToReceiveATradeOffer);
+                if (numOfRequestsProcessed == populationCount) {
+                    // Get the agents who did not receive a trade request in the current exchange round and notify them.
+                    ArrayList<AID> agentsToNotify = new ArrayList<>();
+
+                    for (int i = 0; i < populationCount; i++) {
+                        if (!agentsToReceiveATradeOffer[i] && householdRegistry.getAgentIdentifier(i) != null) {
+                            agentsToNotify.add(householdRegistry.getAgentIdentifier(i));
+                        }
+                    }
 
                     // Broadcast the "no offers" message to the agents who did not receive a trade offer for various reasons
                     AgentHelper.sendMessage(
@@ -503,8 +567,8 @@ public class AdvertisingBoardAgent extends Agent {
 
         @Override
         public int onEnd() {
-            // At the first exchange of each day, calculate the initial and optimum agent satisfactions
-            if (currentExchangeRound == 1) {
+            // At the first exchange of each day, calculate the initial and optimum agent satisfactions for the daily data file
+            if (currentExchangeRound == 1 && config.getOutputLevel().includes(OutputLevelType.DAILY)) {
                 calculateInitialAndOptimumSatisfactions();
             }
 
@@ -545,13 +609,13 @@ public class AdvertisingBoardAgent extends Agent {
                         if (tradeOfferResponseMessage.getPerformative() == ACLMessage.ACCEPT_PROPOSAL) {
                             // Handle the accepted trade offer
                             // Remove the traded timeslots from the adverts
-                            adverts.get(tradeOfferResponseMessage.getSender()).remove(tradeOfferResponse.timeSlotRequested());
-                            adverts.get(((TradeOffer) receivedObject).requesterAgent()).remove(tradeOfferResponse.timeSlotOffered());
+                            adverts.get(tradeOfferResponse.receiverIndex()).remove(tradeOfferResponse.timeSlotRequested());
+                            adverts.get(tradeOfferResponse.requesterIndex()).remove(tradeOfferResponse.timeSlotOffered());
 
                             // Notify the agent who initiated the inquiry (the requester)
                             AgentHelper.sendMessage(
                                     myAgent,
-                                    ((TradeOffer) receivedObject).requesterAgent(),
+                                    householdRegistry.getAgentIdentifier(tradeOfferResponse.requesterIndex()),
                                     tradeOfferResponseMessage.getConversationId(),
                                     receivedObject,
                                     ACLMessage.AGREE
@@ -562,13 +626,10 @@ public class AdvertisingBoardAgent extends Agent {
                             // Notify the agent who initiated the inquiry (the requester)
                             AgentHelper.sendMessage(
                                     myAgent,
-                                    ((TradeOffer) receivedObject).requesterAgent(),
+                                    householdRegistry.getAgentIdentifier(tradeOfferResponse.requesterIndex()),
                                     "Trade Rejected",
                                     ACLMessage.CANCEL
                             );
-
-                            // Append the receiver agent to the list of agents to be notified in a different behaviour of the exchange
-                            agentsToNotify.add(tradeOfferResponseMessage.getSender());
                         }
                     } else {
                         AgentHelper.printAgentError(myAgent.getLocalName(), "Trade offer response cannot be acted upon: the received object has an incorrect type or is null.");
@@ -627,14 +688,14 @@ public class AdvertisingBoardAgent extends Agent {
                     // If not, there is no reason to forward this message
                     if (!incomingSyncMessage.getConversationId().equals("No Syncing Necessary")) {
                         // Make sure the incoming object is readable
-                        Serializable receivedObject = AgentHelper.readReceivedContentObject(incomingSyncMessage, myAgent.getLocalName(), AID.class);
+                        Serializable receivedObject = AgentHelper.readReceivedContentObject(incomingSyncMessage, myAgent.getLocalName(), Integer.class);
 
                         // Make sure the incoming object is of the expected type
-                        if (receivedObject instanceof AID receiverAgentIdentifier) {
+                        if (receivedObject instanceof Integer receiverIndex) {
                             // Notify the receiver about the gained social capita
                             AgentHelper.sendMessage(
                                     myAgent,
-                                    receiverAgentIdentifier,
+                                    householdRegistry.getAgentIdentifier(receiverIndex),
                                     incomingSyncMessage.getConversationId(),
                                     ACLMessage.INFORM_IF
                             );
@@ -694,7 +755,7 @@ public class AdvertisingBoardAgent extends Agent {
             // Broadcast the start of the exchange round to all household agents
             AgentHelper.sendMessage(
                     myAgent,
-                    getHouseholdAgentAIDList(),
+                    householdRegistry.getAgentIdentifiers(),
                     "Exchange Initiated",
                     ACLMessage.REQUEST
             );
@@ -715,7 +776,7 @@ public class AdvertisingBoardAgent extends Agent {
      */
     public class InquiryListenerSCBehaviour extends Behaviour {
         private int numOfRequestsProcessed = 0;
-        private final ArrayList<AID> agentsToReceiveATradeOffer = new ArrayList<>();
+        private final boolean[] agentsToReceiveATradeOffer = new boolean[config.getPopulationCount()];
 
         public InquiryListenerSCBehaviour(Agent a) {
             super(a);
@@ -726,8 +787,9 @@ public class AdvertisingBoardAgent extends Agent {
             // Listen for calls for proposal from Household agents
             ACLMessage inquiryMessage = AgentHelper.receiveMessage(myAgent, ACLMessage.CFP);
 
-            if (inquiryMessage != null && adverts.size() == config.getPopulationCount()) {
+            if (inquiryMessage != null && numOfAdvertsPosted == config.getPopulationCount()) {
                 AID requesterAgent = inquiryMessage.getSender();
+                int requesterIndex = AgentHelper.getHouseholdAgentIndex(requesterAgent.getLocalName());
                 boolean refuseRequest = true;
 
                 // Make sure the incoming object is readable
@@ -735,27 +797,27 @@ public class AdvertisingBoardAgent extends Agent {
 
                 // Make sure the incoming object is of the expected type and the advert is not empty
                 if (receivedObject instanceof SerializableTimeSlotArray requestedTimeSlotsHolder) {
-                    requestedTimeSlots.put(requesterAgent, new ArrayList<>(Arrays.asList(requestedTimeSlotsHolder.timeSlots())));
+                    storeRequestedTimeSlots(requesterIndex, requestedTimeSlotsHolder.timeSlots());
 
                     // Prepare a trade offer to the owner of the desired timeslot if that timeslot is available for trade
-                    ArrayList<TimeSlot> requestersAdvertisedTimeSlots = adverts.get(requesterAgent);
+                    ArrayList<TimeSlot> requestersAdvertisedTimeSlots = adverts.get(requesterIndex);
 
                     // Check if the household agent has made interaction with another household agent in the current exchange round
                     // Find out if the requester has any timeslots available to trade
-                    if (!householdAgentsInteractions.get(requesterAgent) && !requestersAdvertisedTimeSlots.isEmpty()) {
+                    if (!householdAgentsInteractions[requesterIndex] && !requestersAdvertisedTimeSlots.isEmpty()) {
                         // Flip the "made interaction" flag
-                        householdAgentsInteractions.replace(requesterAgent, true);
+                        householdAgentsInteractions[requesterIndex] = true;
 
                         // Browse the advertised timeslots and try to find a requested timeslot
-                        Pair<TimeSlot, AID> timeSlotOwnerPair = findRequestedTimeSlotInAdverts(
+                        Pair<TimeSlot, Integer> timeSlotOwnerPair = findRequestedTimeSlotInAdverts(
                                 requestedTimeSlotsHolder.timeSlots(),
-                                requesterAgent,
+                                requesterIndex,
                                 agentsToReceiveATradeOffer
                         );
 
                         // Check if the requester has any timeslots to offer in return and if a desired timeslot was found
                         if (timeSlotOwnerPair != null) {
-                            AID receiverAgent = timeSlotOwnerPair.second();
+                            int receiverIndex = timeSlotOwnerPair.second();
 
                             // Offer the requester's least wanted timeslot - the first element of the advert
                             // Send the created trade offer object to the requester agent so that it can forward
@@ -765,8 +827,8 @@ public class AdvertisingBoardAgent extends Agent {
                                     requesterAgent,
                                     "Offer Created",
                                     new TradeOffer(
-                                            requesterAgent,
-                                            receiverAgent,
+                                            requesterIndex,
+                                            receiverIndex,
                                             requestersAdvertisedTimeSlots.getFirst(),
                                             timeSlotOwnerPair.first()
                                     ),
@@ -787,11 +849,15 @@ public class AdvertisingBoardAgent extends Agent {
                 final int populationCount = config.getPopulationCount();
 
                 // Check if all calls for proposal had been processed
-                if (numOfRequestsProcessed == populationCount && agentsToReceiveATradeOffer.size() <= populationCount) {
-                    // By subtracting the arraylist of agents from the list of all agents, get the agents who did not
-                    // receive a trade request in the current exchange round and notify them.
-                    agentsToNotify = new ArrayList<>(getHouseholdAgentAIDList());
-                    agentsToNotify.removeAll(agentsToReceiveATradeOffer);
+                if (numOfRequestsProcessed == populationCount) {
+                    // Get the agents who did not receive a trade request in the current exchange round and notify them.
+                    ArrayList<AID> agentsToNotify = new ArrayList<>();
+
+                    for (int i = 0; i < populationCount; i++) {
+                        if (!agentsToReceiveATradeOffer[i] && householdRegistry.getAgentIdentifier(i) != null) {
+                            agentsToNotify.add(householdRegistry.getAgentIdentifier(i));
+                        }
+                    }
 
                     // Broadcast the "no offers" message to the agents who did not receive a trade offer for various reasons
                     AgentHelper.sendMessage(
@@ -829,8 +895,8 @@ public class AdvertisingBoardAgent extends Agent {
 
         @Override
         public int onEnd() {
-            // At the first exchange of each day, calculate the initial and optimum agent satisfactions
-            if (currentExchangeRound == 1) {
+            // At the first exchange of each day, calculate the initial and optimum agent satisfactions for the daily data file
+            if (currentExchangeRound == 1 && config.getOutputLevel().includes(OutputLevelType.DAILY)) {
                 calculateInitialAndOptimumSatisfactions();
             }
 
@@ -871,8 +937,8 @@ public class AdvertisingBoardAgent extends Agent {
                         if (receivedObject instanceof TradeOffer acceptedTradeOffer) {
                             // Handle the accepted trade offer
                             // Remove the traded timeslots from the adverts
-                            adverts.get(tradeOutcomeMessage.getSender()).remove(acceptedTradeOffer.timeSlotOffered());
-                            adverts.get(acceptedTradeOffer.receiverAgent()).remove(acceptedTradeOffer.timeSlotRequested());
+                            adverts.get(acceptedTradeOffer.requesterIndex()).remove(acceptedTradeOffer.timeSlotOffered());
+                            adverts.get(acceptedTradeOffer.receiverIndex()).remove(acceptedTradeOffer.timeSlotRequested());
 
                             numOfSuccessfulExchanges++;
                         } else {
@@ -907,10 +973,10 @@ public class AdvertisingBoardAgent extends Agent {
      * A reusable behaviour of AdvertisingBoardAgent.
      */
     public class ExchangeRoundOverListener extends Behaviour {
-        private final HashMap<AID, EndOfExchangeHouseholdDataHolder> dataHolders = new HashMap<>();
-
         public ExchangeRoundOverListener(Agent a) {
             super(a);
+
+            householdRegistry.clearExchangeRoundData();
         }
 
         @Override
@@ -924,15 +990,10 @@ public class AdvertisingBoardAgent extends Agent {
 
                 // Make sure the incoming object is of the expected type
                 if (receivedObject instanceof EndOfExchangeHouseholdDataHolder householdAgentDataHolder) {
-                    // Update the agent contact details with its current values
-                    for (AgentContact contact : householdAgentContacts) {
-                        if (contact.getAgentIdentifier().equals(doneWithExchangeMessage.getSender())) {
-                            contact.setCurrentSatisfaction(householdAgentDataHolder.satisfaction());
-                        }
+                    // Update the agent contact details with its current values and store the statistical values from the Household agent's exchange round
+                    if (!householdRegistry.recordExchangeRoundData(doneWithExchangeMessage.getSender(), householdAgentDataHolder)) {
+                        AgentHelper.printAgentError(myAgent.getLocalName(), "The exchange round data cannot be stored: household agent was not found in the contacts.");
                     }
-
-                    // Store the statistical values from the Household agent's exchange round
-                    this.dataHolders.put(doneWithExchangeMessage.getSender(), householdAgentDataHolder);
                 } else {
                     AgentHelper.printAgentError(myAgent.getLocalName(), "The exchange round cannot be cannot be ended: the received object has an incorrect type or is null.");
                 }
@@ -943,7 +1004,7 @@ public class AdvertisingBoardAgent extends Agent {
 
         @Override
         public boolean done() {
-            return dataHolders.size() == config.getPopulationCount();
+            return householdRegistry.isExchangeRoundDataComplete();
         }
 
         @Override
@@ -968,47 +1029,27 @@ public class AdvertisingBoardAgent extends Agent {
                 exchangeTimeout = 0;
             }
 
-            // Write exchange data to file
-            for (AgentStrategyType agentStrategyType : AgentStrategyType.values()) {
-                long exchangeRoundPerformanceSumByType = 0L;
-                long exchangeRoundRequesterPerformanceSum = 0L;
-                long exchangeRoundReceiverPerformanceSum = 0L;
-                long exchangeRoundNoTradePerformanceSum = 0L;
-                int numOfRequesters = 0;
-                int numOfReceivers = 0;
-                int numOfNoTraders = 0;
-
-                // Find the overall performance of a Household in an exchange for calculating the average
-                for (AgentContact householdAgentContact : householdAgentContacts) {
-                    EndOfExchangeHouseholdDataHolder exchangeData = this.dataHolders.get(householdAgentContact.getAgentIdentifier());
-
-                    if (householdAgentContact.getType() == agentStrategyType) {
-                        exchangeRoundPerformanceSumByType += exchangeData.exchangeRoundHouseholdCPUTime();
-
-                        if (exchangeData.isTradeOfferRequester()) {
-                            exchangeRoundRequesterPerformanceSum += exchangeData.exchangeRoundHouseholdCPUTime();
-                            numOfRequesters++;
-                        } else if (exchangeData.isTradeOfferReceiver()) {
-                            exchangeRoundReceiverPerformanceSum += exchangeData.exchangeRoundHouseholdCPUTime();
-                            numOfReceivers++;
-                        } else {
-                            exchangeRoundNoTradePerformanceSum += exchangeData.exchangeRoundHouseholdCPUTime();
-                            numOfNoTraders++;
-                        }
-                    }
+            // The exchange round data is only totalled if it is written
+            if (config.getOutputLevel().includes(OutputLevelType.PER_ROUND)) {
+                // Find the overall performance of the Households in the exchange for calculating the averages, in a single pass
+                EnumMap<AgentStrategyType, HouseholdRegistry.StrategyTypeTotals> exchangeRoundTotals = householdRegistry.calculateTotals(false);
+
+                // Write exchange data to file
+                for (AgentStrategyType agentStrategyType : AgentStrategyType.values()) {
+                    HouseholdRegistry.StrategyTypeTotals totals = exchangeRoundTotals.get(agentStrategyType);
+
+                    outputInstance.appendExchangeData(
+                            timeTracker.getCurrentSimulationRun(),
+                            timeTracker.getCurrentDay(),
+                            currentExchangeRound,
+                            agentStrategyType,
+                            totals.averageSatisfaction(),
+                            (float)totals.cpuTimeSum() / (totals.numOfRequesters() + totals.numOfReceivers() + totals.numOfNoTraders()),
+                            (float)totals.requesterCPUTimeSum() / (float)totals.numOfRequesters(),
+                            (float)totals.receiverCPUTimeSum() / (float)totals.numOfReceivers(),
+                            (float)totals.noTradeCPUTimeSum() / (float)totals.numOfNoTraders()
+                    );
                 }
-
-                outputInstance.appendExchangeData(
-                        timeTracker.getCurrentSimulationRun(),
-                        timeTracker.getCurrentDay(),
-                        currentExchangeRound,
-                        agentStrategyType,
-                        AgentHelper.averageAgentSatisfaction(householdAgentContacts, agentStrategyType),
-                        (float)exchangeRoundPerformanceSumByType / (numOfRequesters + numOfReceivers + numOfNoTraders),
-                        (float)exchangeRoundRequesterPerformanceSum / (float)numOfRequesters,
-                        (float)exchangeRoundReceiverPerformanceSum / (float)numOfReceivers,
-                        (float)exchangeRoundNoTradePerformanceSum / (float)numOfNoTraders
-                );
             }
 
             // Check if there have been 10 exchange rounds without any successful trades
@@ -1053,7 +1094,7 @@ public class AdvertisingBoardAgent extends Agent {
             */
 
             // Copy agents to store all agents that haven't yet been selected for social learning.
-            ArrayList<AID> unselectedAgents = new ArrayList<>(getHouseholdAgentAIDList());
+            ArrayList<AID> unselectedAgents = householdRegistry.getAgentIdentifiers();
 
             // Agents who mutated can't do social learning.
             int learningSize = config.getNumOfAgentsToEvolve();
@@ -1062,23 +1103,27 @@ public class AdvertisingBoardAgent extends Agent {
                 learningSize = unselectedAgents.size();
             }
 
-            Collections.shuffle(unselectedAgents, config.getRandom());
+            Collections.shuffle(unselectedAgents, random);
 
             for (int i = 0; i < learningSize; i++) {
+                // The learners are the first agents of the shuffled list, so any household can be selected
+                AID learningAgent = unselectedAgents.get(i);
+                int learningAgentIndex = householdRegistry.getContact(learningAgent).getHouseholdIndex();
+
                 // Assign the selected agent another agents performance to 'retrospectively' observe.
-                int observedPerformanceIndex = config.getRandom().nextInt(config.getPopulationCount());
+                int observedPerformanceIndex = random.nextInt(config.getPopulationCount());
 
                 // Ensure the agent altering its strategy doesn't copy itself.
-                while (i == observedPerformanceIndex) {
-                    observedPerformanceIndex = config.getRandom().nextInt(config.getPopulationCount());
+                while (learningAgentIndex == observedPerformanceIndex) {
+                    observedPerformanceIndex = random.nextInt(config.getPopulationCount());
                 }
 
                 // Send the observed agent's contact to the agent selected to learn
                 AgentHelper.sendMessage(
                         myAgent,
-                        getHouseholdAgentAIDList().get(i),
+                        learningAgent,
                         "Selected for Social Learning",
-                        householdAgentContacts.get(observedPerformanceIndex),
+                        householdRegistry.getContact(observedPerformanceIndex),
                         ACLMessage.QUERY_IF
                 );
 
@@ -1119,13 +1164,8 @@ public class AdvertisingBoardAgent extends Agent {
                 // Make sure the incoming object is of the expected type
                 if (receivedObject instanceof AgentContact agentContactAfterSocialLearning) {
                     // Update the Household agent contacts following the social learning
-                    for (AgentContact contact : householdAgentContacts) {
-                        if (contact.getAgentIdentifier().equals(agentContactAfterSocialLearning.getAgentIdentifier())) {
-                            contact.setType(agentContactAfterSocialLearning.getType());
-                            contact.setCurrentSatisfaction(agentContactAfterSocialLearning.getCurrentSatisfaction());
-
-                            break;
-                        }
+                    if (!householdRegistry.updateContact(agentContactAfterSocialLearning)) {
+                        AgentHelper.printAgentError(myAgent.getLocalName(), "The changes after social learning cannot be reflected: household agent was not found in the contacts.");
                     }
                 } else {
                     AgentHelper.printAgentError(myAgent.getLocalName(), "The changes after social learning cannot be reflected: the received object has an incorrect type or is null.");
@@ -1157,10 +1197,10 @@ public class AdvertisingBoardAgent extends Agent {
      * A reusable behaviour of AdvertisingBoardAgent.
      */
     public class CallItADayBehaviour extends Behaviour {
-        private final HashMap<AgentContact, EndOfDayHouseholdAgentDataHolder> householdAgentsEndOfDayData = new HashMap<>();
-
         public CallItADayBehaviour(Agent a) {
             super(a);
+
+            householdRegistry.clearEndOfDayData();
         }
 
         @Override
@@ -1169,27 +1209,22 @@ public class AdvertisingBoardAgent extends Agent {
             ACLMessage householdDoneMessage = AgentHelper.receiveMessage(myAgent, "Done");
 
             if (householdDoneMessage != null) {
-                // Make sure the incoming object is readable
-                Serializable receivedObject = AgentHelper.readReceivedContentObject(householdDoneMessage, myAgent.getLocalName(), EndOfDayHouseholdAgentDataHolder.class);
-
-                // Make sure the incoming object is of the expected type
-                if (receivedObject instanceof EndOfDayHouseholdAgentDataHolder householdAgentDataHolder) {
-                    AgentContact doneHouseholdContact = null;
+                if (config.getOutputLevel().includes(OutputLevelType.PER_AGENT)) {
+                    // Make sure the incoming object is readable
+                    Serializable receivedObject = AgentHelper.readReceivedContentObject(householdDoneMessage, myAgent.getLocalName(), EndOfDayHouseholdAgentDataHolder.class);
 
-                    // Update the Household agent contacts at the end of the day
-                    for (AgentContact householdAgentContact : householdAgentContacts) {
-                        if (householdAgentContact.getAgentIdentifier().equals(householdDoneMessage.getSender())) {
-                            doneHouseholdContact = householdAgentContact;
+                    // Make sure the incoming object is of the expected type
+                    if (receivedObject instanceof EndOfDayHouseholdAgentDataHolder householdAgentDataHolder) {
+                        // Store the end of day data of the Household agent
+                        if (!householdRegistry.recordEndOfDayData(householdDoneMessage.getSender(), householdAgentDataHolder)) {
+                            AgentHelper.printAgentError(myAgent.getLocalName(), "Could not append household agent data to the data file: household agent was not found in the contacts.");
                         }
-                    }
-
-                    if (doneHouseholdContact != null) {
-                        householdAgentsEndOfDayData.put(doneHouseholdContact, householdAgentDataHolder);
                     } else {
-                        AgentHelper.printAgentError(myAgent.getLocalName(), "Could not append household agent data to the data file: household agent was not found in the contacts.");
+                        AgentHelper.printAgentError(myAgent.getLocalName(), "The end of day household agent data cannot be processed: the received object has an incorrect type or is null.");
                     }
-                } else {
-                    AgentHelper.printAgentError(myAgent.getLocalName(), "The end of day household agent data cannot be processed: the received object has an incorrect type or is null.");
+                } else if (!householdRegistry.recordEndOfDayData(householdDoneMessage.getSender(), null)) {
+                    // The Household agents do not send their data if the agent data file is not written
+                    AgentHelper.printAgentError(myAgent.getLocalName(), "The end of day of the household agent cannot be recorded: household agent was not found in the contacts.");
                 }
             } else {
                 block();
@@ -1198,66 +1233,71 @@ public class AdvertisingBoardAgent extends Agent {
 
         @Override
         public boolean done() {
-            return householdAgentsEndOfDayData.size() == config.getPopulationCount();
+            return householdRegistry.isEndOfDayDataComplete();
         }
 
         @Override
         public int onEnd() {
             // End the day of the Advertising agent
-            double overallRunSatisfactionSum = 0;
-            double socialAgentsRunSatisfactionSum = 0;
-            int numOfSocialAgents = 0;
-
-            // Calculate the sums of overall and type respective Household agent satisfaction
-            for (AgentContact householdAgentContact : householdAgentContacts) {
-                if (householdAgentContact.getType() == AgentStrategyType.SOCIAL) {
-                    socialAgentsRunSatisfactionSum += householdAgentContact.getCurrentSatisfaction();
-                    numOfSocialAgents++;
-                }
+            boolean isDailyDataWritten = config.getOutputLevel().includes(OutputLevelType.DAILY);
 
-                overallRunSatisfactionSum += householdAgentContact.getCurrentSatisfaction();
-            }
+            // Calculate the sums of overall and type respective Household agent satisfaction in a single pass
+            // The satisfaction of each agent is listed for the standard deviations and the statistical values of the daily data file
+            EnumMap<AgentStrategyType, HouseholdRegistry.StrategyTypeTotals> dailyTotals = householdRegistry.calculateTotals(true);
+            HouseholdRegistry.StrategyTypeTotals socialTotals = dailyTotals.get(AgentStrategyType.SOCIAL);
+            HouseholdRegistry.StrategyTypeTotals selfishTotals = dailyTotals.get(AgentStrategyType.SELFISH);
+            double overallRunSatisfactionSum = socialTotals.satisfactionSum() + selfishTotals.satisfactionSum();
+            int numOfSocialAgents = socialTotals.numOfAgents();
 
             // Calculate statistical values related to agent satisfaction
-            double averageSocialSatisfaction = socialAgentsRunSatisfactionSum / (double)config.getPopulationCount();
-            double averageSelfishSatisfaction = (overallRunSatisfactionSum - socialAgentsRunSatisfactionSum) / (double)config.getPopulationCount();
-            double averageSocialSatisfactionStandardDeviation = AgentHelper.averageSatisfactionStandardDeviation(householdAgentContacts, AgentStrategyType.SOCIAL, overallRunSatisfactionSum / (double)config.getPopulationCount());
-            double averageSelfishSatisfactionStandardDeviation = AgentHelper.averageSatisfactionStandardDeviation(householdAgentContacts, AgentStrategyType.SELFISH, overallRunSatisfactionSum / (double)config.getPopulationCount());
-            AgentStatisticalValuesPerStrategyType socialStatisticalValues = new AgentStatisticalValuesPerStrategyType(householdAgentContacts, AgentStrategyType.SOCIAL);
-            AgentStatisticalValuesPerStrategyType selfishStatisticalValues = new AgentStatisticalValuesPerStrategyType(householdAgentContacts, AgentStrategyType.SELFISH);
-
-            // Write daily data to file
-            outputInstance.appendDailyData(
-                    timeTracker.getCurrentSimulationRun(),
-                    timeTracker.getCurrentDay(),
-                    numOfSocialAgents,
-                    config.getPopulationCount() - numOfSocialAgents,
-                    averageSocialSatisfaction,
-                    averageSelfishSatisfaction,
-                    averageSocialSatisfactionStandardDeviation,
-                    averageSelfishSatisfactionStandardDeviation,
-                    socialStatisticalValues,
-                    selfishStatisticalValues,
-                    initialRandomAllocationAverageSatisfaction,
-                    optimumAveragePossibleSatisfaction
-            );
-
-            // Write agent data to file
-            for (AgentContact householdAgentContact : householdAgentContacts) {
-                outputInstance.appendAgentData(
+            double averageSocialSatisfaction = socialTotals.satisfactionSum() / (double)config.getPopulationCount();
+            double averageSelfishSatisfaction = selfishTotals.satisfactionSum() / (double)config.getPopulationCount();
+            double averageSocialSatisfactionStandardDeviation = socialTotals.satisfactionStandardDeviation(overallRunSatisfactionSum / (double)config.getPopulationCount());
+            double averageSelfishSatisfactionStandardDeviation = selfishTotals.satisfactionStandardDeviation(overallRunSatisfactionSum / (double)config.getPopulationCount());
+            AgentStatisticalValuesPerStrategyType socialStatisticalValues = null;
+            AgentStatisticalValuesPerStrategyType selfishStatisticalValues = null;
+
+            if (isDailyDataWritten) {
+                socialStatisticalValues = new AgentStatisticalValuesPerStrategyType(socialTotals.satisfactions());
+                selfishStatisticalValues = new AgentStatisticalValuesPerStrategyType(selfishTotals.satisfactions());
+
+                // Write daily data to file
+                outputInstance.appendDailyData(
                         timeTracker.getCurrentSimulationRun(),
                         timeTracker.getCurrentDay(),
-                        householdAgentContact.getType(),
-                        householdAgentContact.getCurrentSatisfaction(),
-                        householdAgentsEndOfDayData.get(householdAgentContact).numOfDailyRejectedReceivedExchanges(),
-                        householdAgentsEndOfDayData.get(householdAgentContact).numOfDailyRejectedRequestedExchanges(),
-                        householdAgentsEndOfDayData.get(householdAgentContact).numOfDailyAcceptedRequestedExchanges(),
-                        householdAgentsEndOfDayData.get(householdAgentContact).numOfDailyAcceptedReceivedExchangesWithSocialCapita(),
-                        householdAgentsEndOfDayData.get(householdAgentContact).numOfDailyAcceptedReceivedExchangesWithoutSocialCapita(),
-                        householdAgentsEndOfDayData.get(householdAgentContact).totalSocialCapita()
+                        numOfSocialAgents,
+                        config.getPopulationCount() - numOfSocialAgents,
+                        averageSocialSatisfaction,
+                        averageSelfishSatisfaction,
+                        averageSocialSatisfactionStandardDeviation,
+                        averageSelfishSatisfactionStandardDeviation,
+                        socialStatisticalValues,
+                        selfishStatisticalValues,
+                        initialRandomAllocationAverageSatisfaction,
+                        optimumAveragePossibleSatisfaction
                 );
             }
 
+            if (config.getOutputLevel().includes(OutputLevelType.PER_AGENT)) {
+                // Write agent data to file
+                for (AgentContact householdAgentContact : householdAgentContacts) {
+                    EndOfDayHouseholdAgentDataHolder householdAgentData = householdRegistry.getEndOfDayData(householdAgentContact.getHouseholdIndex());
+
+                    outputInstance.appendAgentData(
+                            timeTracker.getCurrentSimulationRun(),
+                            timeTracker.getCurrentDay(),
+                            householdAgentContact.getType(),
+                            householdAgentContact.getCurrentSatisfaction(),
+                            householdAgentData.numOfDailyRejectedReceivedExchanges(),
+                            householdAgentData.numOfDailyRejectedRequestedExchanges(),
+                            householdAgentData.numOfDailyAcceptedRequestedExchanges(),
+                            householdAgentData.numOfDailyAcceptedReceivedExchangesWithSocialCapita(),
+                            householdAgentData.numOfDailyAcceptedReceivedExchangesWithoutSocialCapita(),
+                            householdAgentData.totalSocialCapita()
+                    );
+                }
+            }
+
             // Create a data holder containing daily satisfaction data
             EndOfDayAdvertisingBoardDataHolder endOfDayData = new EndOfDayAdvertisingBoardDataHolder(
                     householdAgentContacts,
@@ -1291,81 +1331,96 @@ public class AdvertisingBoardAgent extends Agent {
      */
     private void initialAgentSetup() {
         this.availableTimeSlots = new ArrayList<>();
-        this.initialRandomAllocatedTimeSlots = new HashMap<>();
+        this.initialRandomAllocatedTimeSlots = new TimeSlot[config.getPopulationCount()][];
 
-        this.adverts = new HashMap<>();
-        this.requestedTimeSlots = new HashMap<>();
+        this.adverts = new ArrayList<>(Collections.nCopies(config.getPopulationCount(), null));
+        this.numOfAdvertsPosted = 0;
+        this.requestedTimeSlots = new TimeSlot[config.getPopulationCount()][];
+        this.allocatedTimeSlotCounts = new TimeSlotHistogram(config.getNumOfUniqueTimeSlots());
+        this.requestedTimeSlotCounts = new TimeSlotHistogram(config.getNumOfUniqueTimeSlots());
         this.numOfTradesStarted = 0;
         this.numOfSuccessfulExchanges = 0;
-        this.agentsToNotify = new ArrayList<>();
         this.exchangeTimeout = 0;
 
         this.householdAgentContacts = new ArrayList<>();
-        this.householdAgentsInteractions = new HashMap<>();
+        this.householdRegistry = new HouseholdRegistry(config.getPopulationCount());
+        this.householdAgentsInteractions = new boolean[config.getPopulationCount()];
 
-        this.config = SimulationConfigurationSingleton.getInstance();
         this.timeTracker = TickerTrackerSingleton.getInstance();
         this.outputInstance = DataOutputSingleton.getInstance();
+
+        // Draw from a random number stream of its own in each simulation run
+        this.random = config.createRandomStream(SimulationConfiguration.ADVERTISING_BOARD_RANDOM_STREAM_INDEX);
     }
 
     /**
-     * Extracts the list of AID objects from the interaction storage map.
-     *
-     * @return (ArrayList of Agent Identifiers) A list of all known Household agent contacts.
+     * Removes all adverts, while keeping a place for the advert of each Household agent.
      */
-    private ArrayList<AID> getHouseholdAgentAIDList() {
-        return new ArrayList<>(this.householdAgentsInteractions.keySet());
+    private void clearAdverts() {
+        Collections.fill(this.adverts, null);
+        this.numOfAdvertsPosted = 0;
     }
 
     /**
      * Sets the state of the agent to the same as before the first exchange started.
      */
     private void resetExchange() {
-        this.adverts.clear();
+        this.clearAdverts();
         this.numOfTradesStarted = 0;
         this.numOfSuccessfulExchanges = 0;
-        this.agentsToNotify.clear();
-        this.householdAgentsInteractions.clear();
 
         // Shuffle the list of household agents before every exchange
-        Collections.shuffle(this.householdAgentContacts, config.getRandom());
+        Collections.shuffle(this.householdAgentContacts, random);
 
         // Reset each household agent's "made interaction" flag to false
-        // By recreating the hashmap that holds the (AID, Boolean) pairs
-        for (AgentContact contact : this.householdAgentContacts) {
-            this.householdAgentsInteractions.put(contact.getAgentIdentifier(), false);
-        }
+        Arrays.fill(this.householdAgentsInteractions, false);
     }
 
     /**
      * Seeks out a one of the requester Household agent's desired timeslots.
      *
      * @param requestedTimeSlots The Household agent's desired timeslots.
-     * @param requesterHouseholdAgent The AID of the requester Household agent.
-     * @param agentsToReceiveATradeOffer The storage of Household agents who are receiving a trade offer in the current exchange round.
-     * @return (Pair(Timeslot, AID)) The pair containing the desired timeslot and its current owner, or null if no desired timeslots were found or the requester has no advertised timeslots of its own.
+     * @param requesterIndex The household index of the requester Household agent.
+     * @param agentsToReceiveATradeOffer The flags of the Household agents who are receiving a trade offer in the current exchange round, indexed by household index.
+     * @return (Pair(Timeslot, Integer)) The pair containing the desired timeslot and the household index of its current owner, or null if no desired timeslots were found or the requester has no advertised timeslots of its own.
      */
-    private Pair<TimeSlot, AID> findRequestedTimeSlotInAdverts(TimeSlot[] requestedTimeSlots, AID requesterHouseholdAgent, ArrayList<AID> agentsToReceiveATradeOffer) {
+    private Pair<TimeSlot, Integer> findRequestedTimeSlotInAdverts(TimeSlot[] requestedTimeSlots, int requesterIndex, boolean[] agentsToReceiveATradeOffer) {
         TimeSlot targetTimeSlot = null;
-        AID targetReceiver = null;
+        int targetReceiver = AgentContact.NO_HOUSEHOLD_INDEX;
 
         /*
         The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
         See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/SocialLearning.java
         */
 
-        ArrayList<AID> shuffledAdvertPosters = new ArrayList<>(adverts.keySet());
+        // Leave the requesting agent out of the temp advert catalogue to avoid an unnecessary check
+        int[] shuffledAdvertPosters = new int[numOfAdvertsPosted];
+        int numOfAdvertPosters = 0;
+
+        for (int i = 0; i < adverts.size(); i++) {
+            if (i != requesterIndex && adverts.get(i) != null) {
+                shuffledAdvertPosters[numOfAdvertPosters] = i;
+                numOfAdvertPosters++;
+            }
+        }
+
+        // Fisher-Yates shuffle, drawing the same numbers as Collections.shuffle would
+        for (int i = numOfAdvertPosters; i > 1; i--) {
+            int swapIndex = random.nextInt(i);
+            int swappedAdvertPoster = shuffledAdvertPosters[i - 1];
 
-        // Remove the requesting agent from the temp advert catalogue to avoid an unnecessary check
-        shuffledAdvertPosters.remove(requesterHouseholdAgent);
-        Collections.shuffle(shuffledAdvertPosters, config.getRandom());
+            shuffledAdvertPosters[i - 1] = shuffledAdvertPosters[swapIndex];
+            shuffledAdvertPosters[swapIndex] = swappedAdvertPoster;
+        }
 
         // Find a desired timeslot in the published adverts
         browsingTimeSlots:
         for (TimeSlot desiredTimeSlot : requestedTimeSlots) {
-            for (AID advertPoster : shuffledAdvertPosters) {
+            for (int i = 0; i < numOfAdvertPosters; i++) {
+                int advertPoster = shuffledAdvertPosters[i];
+
                 // Check if the potential receiving household agent has made an interaction in the current exchange round
-                if (!this.householdAgentsInteractions.get(advertPoster)) {
+                if (!this.householdAgentsInteractions[advertPoster]) {
                     ArrayList<TimeSlot> timeSlotsForTrade = adverts.get(advertPoster);
 
                     for (TimeSlot timeSlotForTrade : timeSlotsForTrade) {
@@ -1376,10 +1431,10 @@ public class AdvertisingBoardAgent extends Agent {
                             targetReceiver = advertPoster;
 
                             // Add the target agent to the list of agents to receive a trade offer
-                            agentsToReceiveATradeOffer.add(advertPoster);
+                            agentsToReceiveATradeOffer[advertPoster] = true;
                             // Flip the target agent's "made interaction" flag to true so that
                             // it does not get paired up with other agents this round
-                            this.householdAgentsInteractions.replace(advertPoster, true);
+                            this.householdAgentsInteractions[advertPoster] = true;
 
                             break browsingTimeSlots;
                         }
@@ -1399,15 +1454,19 @@ public class AdvertisingBoardAgent extends Agent {
      * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/CalculateSatisfaction.java">ResourceExchangeArena</a>
      */
     private void calculateInitialAndOptimumSatisfactions() {
-        ArrayList<TimeSlot> allAllocatedTimeSlots = new ArrayList<>();
-        ArrayList<TimeSlot> allRequestedTimeSlots = new ArrayList<>();
-
-        for (AgentContact householdAgentContact : this.householdAgentContacts) {
-            allAllocatedTimeSlots.addAll(this.initialRandomAllocatedTimeSlots.get(householdAgentContact.getAgentIdentifier()));
-            allRequestedTimeSlots.addAll(this.requestedTimeSlots.get(householdAgentContact.getAgentIdentifier()));
-        }
-
         this.initialRandomAllocationAverageSatisfaction = AgentHelper.calculateCurrentAverageAgentSatisfaction(this.householdAgentContacts);
-        this.optimumAveragePossibleSatisfaction = AgentHelper.calculateOptimumPossibleSatisfaction(allAllocatedTimeSlots, allRequestedTimeSlots);
+        this.optimumAveragePossibleSatisfaction = AgentHelper.calculateOptimumPossibleSatisfaction(this.allocatedTimeSlotCounts, this.requestedTimeSlotCounts);
+    }
+
+    /**
+     * Stores the timeslots requested by a Household agent and keeps the count of all requested timeslots up to date.
+     *
+     * @param requesterIndex The household index of the requester Household agent.
+     * @param requestedTimeSlotsOfRequester The timeslots the Household agent requested, replacing the ones it requested before on the same day.
+     */
+    private void storeRequestedTimeSlots(int requesterIndex, TimeSlot[] requestedTimeSlotsOfRequester) {
+        this.requestedTimeSlotCounts.remove(this.requestedTimeSlots[requesterIndex]);
+        this.requestedTimeSlotCounts.add(requestedTimeSlotsOfRequester);
+        this.requestedTimeSlots[requesterIndex] = requestedTimeSlotsOfRequester;
     }
 }
\ No newline at end of file
@@ -2,16 +2,20 @@ package com.napier.arena.agents;
 
 import com.napier.arena.AgentHelper;
 import com.napier.arena.concepts.AgentContact;
+import com.napier.arena.concepts.SimulationConfiguration;
 import com.napier.arena.concepts.dataholders.EndOfExchangeHouseholdDataHolder;
 import com.napier.arena.concepts.dataholders.EndOfDayHouseholdAgentDataHolder;
 import com.napier.arena.concepts.dataholders.SerializableTimeSlotArray;
 import com.napier.arena.concepts.TimeSlot;
-import com.napier.arena.concepts.TimeSlotSatisfactionPair;
 import com.napier.arena.concepts.TradeOffer;
 import com.napier.arena.singletons.SimulationConfigurationSingleton;
 import com.napier.arena.singletons.SmartContract;
+import com.napier.arena.structures.FavoursLedger;
+import com.napier.arena.structures.RouletteWheel;
+import com.napier.arena.structures.SparseFavoursLedger;
 import com.napier.arena.types.AgentStrategyType;
 import com.napier.arena.types.ExchangeType;
+import com.napier.arena.types.OutputLevelType;
 import jade.core.AID;
 import jade.core.Agent;
 import jade.core.behaviours.Behaviour;
@@ -21,9 +25,10 @@ import jade.core.behaviours.SequentialBehaviour;
 import jade.lang.acl.ACLMessage;
 
 import java.io.Serializable;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.SplittableRandom;
 
 /**
  * An agent representing a Household in an isolated smart power grid community.
@@ -38,10 +43,11 @@ public class HouseholdAgent extends Agent {
     private AgentStrategyType agentType;
     private ArrayList<TimeSlot> requestedTimeSlots;
     private ArrayList<TimeSlot> allocatedTimeSlots;
-    private ArrayList<TimeSlotSatisfactionPair> timeSlotSatisfactionPairs;
-    private HashMap<String, Integer> favours;
-    private double[] dailyDemandCurve;
+    private int householdIndex;
+    private FavoursLedger favours;
+    private DoubleBuffer dailyDemandCurve;
     private double dailyDemandValue;
+    private RouletteWheel dailyDemandWheel;
 
     // Statistical attributes
     private int numOfDailyRejectedReceivedExchanges;
@@ -64,12 +70,19 @@ public class HouseholdAgent extends Agent {
     // Agent contact attributes
     private AID tickerAgent;
     private AID advertisingAgent;
+    private AID[] householdAgentIdentifiers;
+
+    // Configuration snapshot of the current simulation run
+    private SimulationConfiguration config;
 
     // Singleton
-    private SimulationConfigurationSingleton config;
+    private SimulationConfigurationSingleton configInstance;
+    private SplittableRandom random;
 
     @Override
     protected void setup() {
+        this.configInstance = SimulationConfigurationSingleton.getInstance();
+        this.config = AgentHelper.getInitialConfiguration(this);
         this.initialAgentSetup();
 
         AgentHelper.registerAgent(this, "Household");
@@ -128,9 +141,9 @@ public class HouseholdAgent extends Agent {
 
         @Override
         public void action() {
-            // Don't store the other Household agent contacts
+            // Only the AIDs of the other Household agents are stored, to resolve household indices when sending messages
             // This is only required for P2P trading in the Smart Contract exchange type
-            AgentHelper.saveAgentContacts(myAgent, "Household");
+            householdAgentIdentifiers = AgentHelper.createHouseholdAgentDirectory(AgentHelper.saveAgentContacts(myAgent, "Household"), config.getPopulationCount());
 
             areHouseholdsFound = true;
         }
@@ -155,6 +168,8 @@ public class HouseholdAgent extends Agent {
                 if (!tick.getConversationId().equals("Terminate")) {
                     // Do a reset on all agent attributes on each new simulation run
                     if (tick.getConversationId().equals("New Run")) {
+                        // Switch to the configuration snapshot that the Ticker agent published for the new run
+                        config = configInstance.getConfiguration();
                         initialAgentSetup();
 
                         if (config.isDebugMode()) {
@@ -174,7 +189,6 @@ public class HouseholdAgent extends Agent {
                     SequentialBehaviour dailyTasks = new SequentialBehaviour();
                     dailyTasks.addSubBehaviour(new DetermineDailyDemandBehaviour(myAgent));
                     dailyTasks.addSubBehaviour(new DetermineTimeSlotPreferenceBehaviour(myAgent));
-                    dailyTasks.addSubBehaviour(new CalculateSlotSatisfactionBehaviour(myAgent));
                     dailyTasks.addSubBehaviour(new ReceiveRandomInitialTimeSlotAllocationBehaviour(myAgent));
                     myAgent.addBehaviour(dailyTasks);
 
@@ -210,7 +224,6 @@ public class HouseholdAgent extends Agent {
             numOfDailyAcceptedReceivedExchangesWithoutSocialCapita = 0;
             requestedTimeSlots.clear();
             allocatedTimeSlots.clear();
-            timeSlotSatisfactionPairs.clear();
         }
     }
 
@@ -218,30 +231,20 @@ public class HouseholdAgent extends Agent {
      * Receives its daily demand curve for timeslots randomly.
      * A reusable behaviour of HouseholdAgent.
      */
-    public class DetermineDailyDemandBehaviour extends Behaviour {
-        private boolean wasDailyDemandDetermined = false;
-
+    public class DetermineDailyDemandBehaviour extends OneShotBehaviour {
         public DetermineDailyDemandBehaviour(Agent a) {
             super(a);
         }
 
         @Override
         public void action() {
-            // Wait until the demand indices are generated
-            if (!config.getDemandCurveIndices().isEmpty()) {
-                // Get the first index from the shuffled list of indices to determine the daily demand curves and values
-                int randomDemandIndex = config.popFirstDemandCurveIndex();
+            // Read its own entry of the daily demand curve assignment that the Ticker agent made before the start of the day
+            int randomDemandIndex = configInstance.getDailyDemandCurveIndex(AgentHelper.getHouseholdAgentNumber(myAgent.getLocalName()));
 
-                dailyDemandCurve = config.getBucketedDemandCurves()[randomDemandIndex];
-                dailyDemandValue = config.getTotalDemandValues()[randomDemandIndex];
-
-                wasDailyDemandDetermined = true;
-            }
-        }
-
-        @Override
-        public boolean done() {
-            return wasDailyDemandDetermined;
+            // Curves in a demand curve library are read from the mapped file without being copied
+            dailyDemandCurve = config.getDemandCurve(randomDemandIndex);
+            dailyDemandValue = config.getTotalDemandValue(randomDemandIndex);
+            dailyDemandWheel = config.getDemandWheel(randomDemandIndex);
         }
     }
 
@@ -265,40 +268,16 @@ public class HouseholdAgent extends Agent {
                 requestedTimeSlots.clear();
             }
 
-            for (int i = 1; i <= config.getNumOfSlotsPerAgent(); i++) {
-                // Selects a time-slot based on the demand curve.
-                int wheelSelector = config.getRandom().nextInt((int)(dailyDemandValue * 10)) + 1;
-                int wheelCalculator = 0;
-                int timeSlotStart = 0;
-
-                while (wheelCalculator < wheelSelector) {
-                    wheelCalculator = wheelCalculator + ((int)(dailyDemandCurve[timeSlotStart] * 10));
-                    timeSlotStart++;
-                }
-
-                TimeSlot timeSlotToAdd = new TimeSlot(timeSlotStart);
+            // Select distinct time-slots based on the demand curve
+            int[] preferredTimeSlots = dailyDemandWheel.selectDistinctTimeSlots(config.getNumOfSlotsPerAgent(), random);
 
-                if (requestedTimeSlots.contains(timeSlotToAdd)) {
-                    i--;
-                } else {
-                    requestedTimeSlots.add(timeSlotToAdd);
-                }
+            if (preferredTimeSlots.length < config.getNumOfSlotsPerAgent()) {
+                AgentHelper.printAgentError(myAgent.getLocalName(), "The daily demand curve only has " + preferredTimeSlots.length + " time-slots with demand.");
             }
-        }
-    }
-
-    /**
-     * Measures how satisfied the agent is with each of its requested/desired timeslots.
-     * A reusable behaviour of HouseholdAgent.
-     */
-    public class CalculateSlotSatisfactionBehaviour extends OneShotBehaviour {
-        public CalculateSlotSatisfactionBehaviour(Agent a) {
-            super(a);
-        }
 
-        @Override
-        public void action() {
-            timeSlotSatisfactionPairs = AgentHelper.calculateSatisfactionPerSlot(requestedTimeSlots);
+            for (int timeSlotStart : preferredTimeSlots) {
+                requestedTimeSlots.add(new TimeSlot(timeSlotStart, config.getNumOfUnitsPerSlot()));
+            }
         }
     }
 
@@ -360,8 +339,10 @@ public class HouseholdAgent extends Agent {
             if (newExchangeMessage != null || isExchangeTypeBeingSwitched) {
                 // Check what the currently used exchange type is and use that for the next exchange
                 if (config.getExchangeType() == ExchangeType.MessagePassing) {
-                    // Start the performance measurement for the current exchange round
-                    exchangeRoundStartTime = System.nanoTime();
+                    // Start the performance measurement for the current exchange round, if it is written to the exchange data file
+                    if (config.getOutputLevel().includes(OutputLevelType.PER_ROUND)) {
+                        exchangeRoundStartTime = System.nanoTime();
+                    }
 
                     if (config.isDebugMode()) {
                         AgentHelper.printAgentLog(myAgent.getLocalName(), "joining the exchange");
@@ -550,7 +531,7 @@ public class HouseholdAgent extends Agent {
                                     myAgent,
                                     advertisingAgent,
                                     Boolean.toString(doesReceiverGainSocialCapita),
-                                    ((TradeOffer) receivedObject).receiverAgent(),
+                                    ((TradeOffer) receivedObject).receiverIndex(),
                                     ACLMessage.PROPAGATE
                             );
                         } else {
@@ -739,8 +720,10 @@ public class HouseholdAgent extends Agent {
             if (newExchangeMessage != null || isExchangeTypeBeingSwitched) {
                 // Check what the currently used exchange type is and use that for the next exchange
                 if (config.getExchangeType() == ExchangeType.SmartContract) {
-                    // Start the performance measurement for the current exchange round
-                    exchangeRoundStartTime = System.nanoTime();
+                    // Start the performance measurement for the current exchange round, if it is written to the exchange data file
+                    if (config.getOutputLevel().includes(OutputLevelType.PER_ROUND)) {
+                        exchangeRoundStartTime = System.nanoTime();
+                    }
 
                     if (config.isDebugMode()) {
                         AgentHelper.printAgentLog(myAgent.getLocalName(), "joining the exchange");
@@ -816,7 +799,7 @@ public class HouseholdAgent extends Agent {
                         // Send the trade offer directly to the target agent
                         AgentHelper.sendMessage(
                                 myAgent,
-                                ((TradeOffer) receivedObject).receiverAgent(),
+                                householdAgentIdentifiers[((TradeOffer) receivedObject).receiverIndex()],
                                 "New Offer",
                                 receivedObject,
                                 ACLMessage.PROPOSE
@@ -974,7 +957,7 @@ public class HouseholdAgent extends Agent {
                         // Notify the receiver regarding the social capita adjustment as a result of the trade
                         AgentHelper.sendMessage(
                                 myAgent,
-                                processedTradeOffer.receiverAgent(),
+                                householdAgentIdentifiers[processedTradeOffer.receiverIndex()],
                                 Boolean.toString(doesReceiverGainSocialCapita),
                                 processedTradeOffer,
                                 ACLMessage.INFORM_IF
@@ -1039,10 +1022,14 @@ public class HouseholdAgent extends Agent {
             }
 
             // Calculate the satisfaction of the agent at the end of the exchange round
-            currentSatisfaction = AgentHelper.calculateSatisfaction(allocatedTimeSlots, requestedTimeSlots);
+            currentSatisfaction = AgentHelper.calculateSatisfaction(allocatedTimeSlots, requestedTimeSlots, config);
 
             // Stop the performance measurement for this exchange round
-            long exchangeRoundEndTime = System.nanoTime();
+            long exchangeRoundCPUTime = 0;
+
+            if (config.getOutputLevel().includes(OutputLevelType.PER_ROUND)) {
+                exchangeRoundCPUTime = System.nanoTime() - exchangeRoundStartTime;
+            }
 
             // Notify the Advertising agent about the current exchange round being finished
             AgentHelper.sendMessage(
@@ -1053,7 +1040,7 @@ public class HouseholdAgent extends Agent {
                             currentSatisfaction,
                             isRequestingTradeOffer,
                             isReceivingTradeOffer,
-                            exchangeRoundEndTime - exchangeRoundStartTime
+                            exchangeRoundCPUTime
                     ),
                     ACLMessage.INFORM
             );
@@ -1106,7 +1093,7 @@ public class HouseholdAgent extends Agent {
                                 double learningChance = 1 / (1 + (Math.exp(-config.getBeta() * difference)));
                                 double normalisedLearningChance = (learningChance * 2) - 1;
 
-                                double threshold = config.getRandom().nextDouble();
+                                double threshold = random.nextDouble();
 
                                 if (normalisedLearningChance > threshold) {
                                     agentType = advertisingAgentsHouseholdContact.getType();
@@ -1140,7 +1127,7 @@ public class HouseholdAgent extends Agent {
                     myAgent,
                     advertisingAgent,
                     "Social Learning Done",
-                    new AgentContact(myAgent.getAID(), agentType, currentSatisfaction),
+                    new AgentContact(myAgent.getAID(), householdIndex, agentType, currentSatisfaction),
                     ACLMessage.INFORM
             );
 
@@ -1162,21 +1149,26 @@ public class HouseholdAgent extends Agent {
 
         @Override
         public void action() {
-            // Send a message to the Advertising agent containing the data collected throughout the day
-            AgentHelper.sendMessage(
-                    myAgent,
-                    advertisingAgent,
-                    "Done",
-                    new EndOfDayHouseholdAgentDataHolder(
-                            numOfDailyRejectedReceivedExchanges,
-                            numOfDailyRejectedRequestedExchanges,
-                            numOfDailyAcceptedRequestedExchanges,
-                            numOfDailyAcceptedReceivedExchangesWithSocialCapita,
-                            numOfDailyAcceptedReceivedExchangesWithoutSocialCapita,
-                            totalSocialCapita
-                    ),
-                    ACLMessage.INFORM
-            );
+            if (config.getOutputLevel().includes(OutputLevelType.PER_AGENT)) {
+                // Send a message to the Advertising agent containing the data collected throughout the day
+                AgentHelper.sendMessage(
+                        myAgent,
+                        advertisingAgent,
+                        "Done",
+                        new EndOfDayHouseholdAgentDataHolder(
+                                numOfDailyRejectedReceivedExchanges,
+                                numOfDailyRejectedRequestedExchanges,
+                                numOfDailyAcceptedRequestedExchanges,
+                                numOfDailyAcceptedReceivedExchangesWithSocialCapita,
+                                numOfDailyAcceptedReceivedExchangesWithoutSocialCapita,
+                                totalSocialCapita
+                        ),
+                        ACLMessage.INFORM
+                );
+            } else {
+                // Only notify the Advertising agent, as the agent data file is not written
+                AgentHelper.sendMessage(myAgent, advertisingAgent, "Done", ACLMessage.INFORM);
+            }
         }
     }
 
@@ -1184,21 +1176,21 @@ public class HouseholdAgent extends Agent {
      * Sets the initial state of the agent.
      */
     private void initialAgentSetup() {
-        // Assign the singleton first
-        this.config = SimulationConfigurationSingleton.getInstance();
-
         // Add the behaviour that finds other Household agents if P2P trading will take place
         if (!this.areHouseholdsFound && config.getExchangeType() == ExchangeType.SmartContract) {
             addBehaviour(new FindHouseholdsBehaviour(this));
         }
 
-        this.agentType = AgentHelper.determineAgentType(this.getLocalName());
+        this.householdIndex = AgentHelper.getHouseholdAgentIndex(this.getLocalName());
+        this.agentType = AgentHelper.determineAgentType(this.getLocalName(), config);
+
+        // Draw from a random number stream of its own in each simulation run
+        this.random = config.createRandomStream(AgentHelper.getHouseholdAgentNumber(this.getLocalName()));
 
         // Initialise local attributes
         this.requestedTimeSlots = new ArrayList<>();
         this.allocatedTimeSlots = new ArrayList<>();
-        this.timeSlotSatisfactionPairs = new ArrayList<>();
-        this.favours = new HashMap<>();
+        this.favours = new SparseFavoursLedger();
         this.numOfDailyRejectedReceivedExchanges = 0;
         this.numOfDailyRejectedRequestedExchanges = 0;
         this.numOfDailyAcceptedRequestedExchanges = 0;
@@ -1209,25 +1201,15 @@ public class HouseholdAgent extends Agent {
     }
 
     /**
-     * Identifies all other Agents in the ExchangeArena and initialises counts of favours given to and received from
-     * each other Agent.
+     * Initialises counts of favours given to and received from other Agents.
+     * Only the Agents that are actually traded with are kept in the ledger, every other Agent has a balance of 0.
      *
      * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Agent.java">ResourceExchangeArena</a>
      */
     private void initializeFavoursStore() {
         if (config.doesUtiliseSocialCapita()) {
-            if (!this.favours.isEmpty()) {
-                this.favours.clear();
-            }
-
-            for (int i = 1; i <= config.getPopulationCount(); i++) {
-                // Prevent the household agent from being registered in the favours storage
-                if (!this.getLocalName().equals("Household-" + i)) {
-                    // Initially, no favours are owed or have been given to any other agent.
-                    // The key is the other agent's nickname (or local name).
-                    this.favours.put("Household-" + i, 0);
-                }
-            }
+            // Initially, no favours are owed or have been given to any other agent.
+            this.favours.clear();
         }
     }
 
@@ -1241,7 +1223,7 @@ public class HouseholdAgent extends Agent {
      */
     private boolean considerRequest(TradeOffer offer) {
         boolean exchangeRequestApproved = false;
-        double currentSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots);
+        double currentSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots, config);
         // Create a new local list of time-slots in order to test how the Agents satisfaction would change after the
         // potential exchange.
         ArrayList<TimeSlot> potentialAllocatedTimeSlots = new ArrayList<>(allocatedTimeSlots);
@@ -1251,7 +1233,7 @@ public class HouseholdAgent extends Agent {
             // Replace the requested slot with the requesting agents unwanted time-slot.
             potentialAllocatedTimeSlots.add(offer.timeSlotOffered());
 
-            double potentialSatisfaction = AgentHelper.calculateSatisfaction(potentialAllocatedTimeSlots, this.requestedTimeSlots);
+            double potentialSatisfaction = AgentHelper.calculateSatisfaction(potentialAllocatedTimeSlots, this.requestedTimeSlots, config);
 
             if (this.agentType == AgentStrategyType.SOCIAL) {
                 // Social Agents accept offers that improve their satisfaction or if they have negative social capital
@@ -1261,7 +1243,7 @@ public class HouseholdAgent extends Agent {
                     this.numOfDailyAcceptedReceivedExchangesWithoutSocialCapita++;
                 } else if (Double.compare(potentialSatisfaction, currentSatisfaction) == 0) {
                     if (config.doesUtiliseSocialCapita()) {
-                        if (favours.get(offer.requesterAgent().getLocalName()) < 0) {
+                        if (favours.getBalance(offer.requesterIndex()) < 0) {
                             exchangeRequestApproved = true;
                             this.numOfDailyAcceptedReceivedExchangesWithSocialCapita++;
                         }
@@ -1300,19 +1282,17 @@ public class HouseholdAgent extends Agent {
     public boolean completeReceivedExchange(TradeOffer offer) {
         boolean otherAgentSCLoss = false;
 
-        double previousSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots);
+        double previousSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots, config);
         // Update the Agents allocated time-slots.
         this.allocatedTimeSlots.remove(offer.timeSlotRequested());
         this.allocatedTimeSlots.add(offer.timeSlotOffered());
 
-        double newSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots);
+        double newSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots, config);
 
         // Update the Agents relationship with the other Agent involved in the exchange.
         if (config.doesUtiliseSocialCapita()) {
             if (Double.compare(newSatisfaction, previousSatisfaction) <= 0 && this.agentType == AgentStrategyType.SOCIAL) {
-                int currentNumberOfFavours = this.favours.get(offer.requesterAgent().getLocalName());
-
-                this.favours.replace(offer.requesterAgent().getLocalName(), currentNumberOfFavours + 1);
+                this.favours.increment(offer.requesterIndex());
 
                 otherAgentSCLoss = true;
             }
@@ -1333,19 +1313,17 @@ public class HouseholdAgent extends Agent {
     private boolean completeRequestedExchange(TradeOffer offer) {
         boolean otherAgentSCGain = false;
 
-        double previousSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots);
+        double previousSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots, config);
         // Update the Agents allocated time-slots.
         this.allocatedTimeSlots.remove(offer.timeSlotOffered());
         this.allocatedTimeSlots.add(offer.timeSlotRequested());
 
-        double newSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots);
+        double newSatisfaction = AgentHelper.calculateSatisfaction(this.allocatedTimeSlots, this.requestedTimeSlots, config);
 
         // Update the Agents relationship with the other Agent involved in the exchange.
         if (config.doesUtiliseSocialCapita()) {
             if (Double.compare(newSatisfaction, previousSatisfaction) > 0 && this.agentType == AgentStrategyType.SOCIAL) {
-                int currentNumberOfFavours = this.favours.get(offer.receiverAgent().getLocalName());
-
-                this.favours.replace(offer.receiverAgent().getLocalName(), currentNumberOfFavours - 1);
+                this.favours.decrement(offer.receiverIndex());
 
                 otherAgentSCGain = true;
             }
@@ -1356,6 +1334,16 @@ public class HouseholdAgent extends Agent {
         return otherAgentSCGain;
     }
 
+    /**
+     * Resolves the household index of another Household agent to its AID, so that a message can be sent to it.
+     *
+     * @param householdIndex The household index of the other Household agent.
+     * @return (AID) The agent identifier of the Household agent.
+     */
+    public AID getHouseholdAgentIdentifier(int householdIndex) {
+        return this.householdAgentIdentifiers[householdIndex];
+    }
+
     public void incrementTotalSocialCapita() {
         this.totalSocialCapita++;
     }
@@ -2,6 +2,8 @@ package com.napier.arena.agents;
 
 import com.napier.arena.AgentHelper;
 import com.napier.arena.concepts.AgentContact;
+import com.napier.arena.concepts.SimulationConfiguration;
+import com.napier.arena.concepts.dataholders.CompletedRunDataHolder;
 import com.napier.arena.concepts.dataholders.EndOfDayAdvertisingBoardDataHolder;
 import com.napier.arena.concepts.dataholders.PopulationEndOfDayDataHolder;
 import com.napier.arena.singletons.BlockchainSingleton;
@@ -10,6 +12,7 @@ import com.napier.arena.singletons.DataOutputSingleton;
 import com.napier.arena.singletons.TickerTrackerSingleton;
 import com.napier.arena.types.AgentStrategyType;
 import com.napier.arena.types.ExchangeType;
+import com.napier.arena.types.OutputLevelType;
 import jade.core.AID;
 import jade.core.Agent;
 import jade.core.behaviours.Behaviour;
@@ -20,6 +23,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.SplittableRandom;
 
 /**
  * An agent that keeps track of the time passed in the application and synchronises the communication between other agents.
@@ -42,17 +46,25 @@ public class TickerAgent extends Agent {
     private ArrayList<PopulationEndOfDayDataHolder> selfishFinalDayDataHolders;
     private int numOfSocialTakeoverRuns;
     private int numOfSelfishTakeoverRuns;
+    private AgentStrategyType runTakeoverType;
+    private PopulationEndOfDayDataHolder runTakeoverDayData;
+    private AgentStrategyType runFinalDayType;
+    private PopulationEndOfDayDataHolder runFinalDayData;
 
     // Agent contact attributes
     private ArrayList<AID> allAgentIdentifiers;
     private ArrayList<AgentContact> householdAgentContacts;
     private AID advertisingAgent;
 
+    // Configuration snapshot of the current simulation run
+    private SimulationConfiguration config;
+
     // Singletons
-    private SimulationConfigurationSingleton config;
+    private SimulationConfigurationSingleton configInstance;
     private TickerTrackerSingleton timeTracker;
     private DataOutputSingleton outputInstance;
     private BlockchainSingleton blockchainReference;
+    private SplittableRandom random;
 
     @Override
     protected void setup() {
@@ -76,6 +88,9 @@ public class TickerAgent extends Agent {
 
         outputInstance.closeAllDataWriters();
 
+        // The visualisation scripts of the last simulation sets may still be running in the background
+        outputInstance.awaitVisualisations();
+
         System.exit(0);
     }
 
@@ -117,6 +132,7 @@ public class TickerAgent extends Agent {
     public class DailySyncBehaviour extends Behaviour {
         private int step = 1;
         private EndOfDayAdvertisingBoardDataHolder endOfDayData = null;
+        private boolean isSimulationSetSkipped = false;
 
         public DailySyncBehaviour(Agent a) {
             super(a);
@@ -132,9 +148,6 @@ public class TickerAgent extends Agent {
             switch (step) {
                 // Step 1: Let all other agents know that the new day (or a new simulation run) has started
                 case 1:
-                    // Reshuffle the daily demand curve allocation
-                    config.recreateDemandCurveIndices();
-
                     // Collect all receivers
                     if (allAgentIdentifiers.size() <= config.getPopulationCount()) {
                         allAgentIdentifiers.clear();
@@ -152,12 +165,25 @@ public class TickerAgent extends Agent {
 
                         // Set up the simulation set on the first day of the
                         if (currentSimulationRun == 1) {
-                            setupSimulationSet();
+                            // Skip the simulation set if there are no runs left to simulate
+                            if (setupSimulationSet()) {
+                                isSimulationSetSkipped = true;
+                                step = 3;
+
+                                break;
+                            }
 
-                            // Reset information singletons to their default state
+                            // Reset information singletons to their default state, after the runs that were completed before
                             timeTracker.resetTracking();
+                            timeTracker.skipSimulationRuns(currentSimulationRun - 1);
                         }
 
+                        // Draw from a random number stream of its own in each simulation run
+                        random = config.createRandomStream(SimulationConfiguration.TICKER_RANDOM_STREAM_INDEX);
+
+                        // Reshuffle the daily demand curve allocation
+                        configInstance.assignDailyDemandCurves(random);
+
                         AgentHelper.printAgentLog(
                                 myAgent.getLocalName(),
                                 "\nStarted Run " + currentSimulationRun + "/" + config.getNumOfSimulationRuns()
@@ -176,6 +202,9 @@ public class TickerAgent extends Agent {
                         timeTracker.incrementCurrentSimulationRun();
                         timeTracker.resetDayTracking();
                     } else {
+                        // Reshuffle the daily demand curve allocation
+                        configInstance.assignDailyDemandCurves(random);
+
                         // Broadcast the start of the new day to all other agents
                         AgentHelper.sendMessage(
                                 myAgent,
@@ -230,6 +259,13 @@ public class TickerAgent extends Agent {
 
         @Override
         public int onEnd() {
+            // A skipped simulation set has no days to end
+            if (isSimulationSetSkipped) {
+                finishSimulationSet();
+
+                return 0;
+            }
+
             if (config.isDebugMode()) {
                 AgentHelper.printAgentLog(myAgent.getLocalName(), "End of day " + currentDay);
             }
@@ -267,42 +303,20 @@ public class TickerAgent extends Agent {
                                     + "\n"
                     );
 
+                    // Record the finished run as completed, and close its partition if the data files are partitioned by run
+                    outputInstance.finishSimulationRun(new CompletedRunDataHolder(currentSimulationRun, runTakeoverType, runTakeoverDayData, runFinalDayType, runFinalDayData));
+
                     // Check if the current run is the last run in the current simulation set, based on the configuration file
                     if (currentSimulationRun == config.getNumOfSimulationRuns()) {
                         writeSimulationData();
-
-                        // Determine if the program should continue with another simulation set or if it should exit
-                        if (shouldShutEnvironmentDown()) {
-                            // Broadcast the Terminate message to all other agents
-                            AgentHelper.sendMessage(
-                                    myAgent,
-                                    allAgentIdentifiers,
-                                    "Terminate",
-                                    ACLMessage.INFORM
-                            );
-
-                            // Terminate the ticker agent itself
-                            myAgent.doDelete();
-                        } else {
-                            // Progress the program by setting up and executing the next simulation set
-                            simulationReset();
-                            currentSimulationSet++;
-
-                            // Flush the transactions from the blockchain's ledger
-                            blockchainReference.resetBlockchain();
-
-                            // Update the Household agent contacts
-                            myAgent.addBehaviour(new FindHouseholdsBehaviour(myAgent));
-
-                            // Recreate this behaviour by adding it to the agent's behaviour queue
-                            myAgent.addBehaviour(new DailySyncBehaviour(myAgent));
-                        }
+                        finishSimulationSet();
                     } else {
                         // Progress the simulation set by setting up the next run
                         currentSimulationRun++;
                         runReset();
+                        outputInstance.startSimulationRun(currentSimulationRun);
 
-                        config.incrementRandomSeed();
+                        config = configInstance.incrementRandomSeed();
 
                         // Flush the transactions from the blockchain's ledger
                         blockchainReference.resetBlockchain();
@@ -340,7 +354,8 @@ public class TickerAgent extends Agent {
      * Sets the initial state of the agent.
      */
     private void initialAgentSetup() {
-        this.config = SimulationConfigurationSingleton.getInstance();
+        this.configInstance = SimulationConfigurationSingleton.getInstance();
+        this.config = AgentHelper.getInitialConfiguration(this);
         this.timeTracker = TickerTrackerSingleton.getInstance();
         this.outputInstance = DataOutputSingleton.getInstance();
         this.blockchainReference = BlockchainSingleton.getInstance();
@@ -354,8 +369,11 @@ public class TickerAgent extends Agent {
 
     /**
      * Marks the start of a simulation set and modifies the configuration according to the comparison level.
+     * If the simulation is resumed, the simulation set continues from the first run that has not been completed before.
+     *
+     * @return (boolean) True if the simulation set does not have to be simulated, because its results were restored from the result cache or all of its runs were completed before.
      */
-    private void setupSimulationSet() {
+    private boolean setupSimulationSet() {
         this.simulationReset();
 
         // Modify the simulation configuration based on the defined comparison level and current simulation set
@@ -363,7 +381,7 @@ public class TickerAgent extends Agent {
             case 1:
                 switch (this.currentSimulationSet) {
                     case 1:
-                        config.modifyConfiguration(false, config.getSelectedSingleAgentType(), true, ExchangeType.MessagePassing);
+                        config = configInstance.modifyConfiguration(false, config.getSelectedSingleAgentType(), true, ExchangeType.MessagePassing);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -374,7 +392,7 @@ public class TickerAgent extends Agent {
 
                         break;
                     case 2:
-                        config.modifyConfiguration(false, config.getSelectedSingleAgentType(), false, ExchangeType.MessagePassing);
+                        config = configInstance.modifyConfiguration(false, config.getSelectedSingleAgentType(), false, ExchangeType.MessagePassing);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -390,7 +408,7 @@ public class TickerAgent extends Agent {
             case 2:
                 switch (this.currentSimulationSet) {
                     case 1:
-                        config.modifyConfiguration(true, AgentStrategyType.SELFISH, false, ExchangeType.MessagePassing);
+                        config = configInstance.modifyConfiguration(true, AgentStrategyType.SELFISH, false, ExchangeType.MessagePassing);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -401,7 +419,7 @@ public class TickerAgent extends Agent {
 
                         break;
                     case 2:
-                        config.modifyConfiguration(true, AgentStrategyType.SOCIAL, false, ExchangeType.MessagePassing);
+                        config = configInstance.modifyConfiguration(true, AgentStrategyType.SOCIAL, false, ExchangeType.MessagePassing);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -412,7 +430,7 @@ public class TickerAgent extends Agent {
 
                         break;
                     case 3:
-                        config.modifyConfiguration(true, AgentStrategyType.SOCIAL, true, ExchangeType.MessagePassing);
+                        config = configInstance.modifyConfiguration(true, AgentStrategyType.SOCIAL, true, ExchangeType.MessagePassing);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -423,7 +441,7 @@ public class TickerAgent extends Agent {
 
                         break;
                     case 4:
-                        config.modifyConfiguration(false, config.getSelectedSingleAgentType(), true, ExchangeType.MessagePassing);
+                        config = configInstance.modifyConfiguration(false, config.getSelectedSingleAgentType(), true, ExchangeType.MessagePassing);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -434,7 +452,7 @@ public class TickerAgent extends Agent {
 
                         break;
                     case 5:
-                        config.modifyConfiguration(false, config.getSelectedSingleAgentType(), true, ExchangeType.MessagePassing);
+                        config = configInstance.modifyConfiguration(false, config.getSelectedSingleAgentType(), true, ExchangeType.MessagePassing);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -450,7 +468,7 @@ public class TickerAgent extends Agent {
             case 3:
                 switch (this.currentSimulationSet) {
                     case 1:
-                        config.modifyConfiguration(config.doesUtiliseSingleAgentType(), config.getSelectedSingleAgentType(), config.doesUtiliseSocialCapita(), ExchangeType.MessagePassing);
+                        config = configInstance.modifyConfiguration(config.doesUtiliseSingleAgentType(), config.getSelectedSingleAgentType(), config.doesUtiliseSocialCapita(), ExchangeType.MessagePassing);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -461,7 +479,7 @@ public class TickerAgent extends Agent {
 
                         break;
                     case 2:
-                        config.modifyConfiguration(config.doesUtiliseSingleAgentType(), config.getSelectedSingleAgentType(), config.doesUtiliseSocialCapita(), ExchangeType.SmartContract);
+                        config = configInstance.modifyConfiguration(config.doesUtiliseSingleAgentType(), config.getSelectedSingleAgentType(), config.doesUtiliseSocialCapita(), ExchangeType.SmartContract);
 
                         AgentHelper.printAgentLog(
                                 getLocalName(),
@@ -485,12 +503,60 @@ public class TickerAgent extends Agent {
                 break;
         }
 
+        // Restore the results instead of simulating the set again if the same simulation set has been cached
+        if (outputInstance.restoreCachedSimulationSet(config.doesUtiliseSocialCapita(), config.doesUtiliseSingleAgentType(), config.getSelectedSingleAgentType())) {
+            return true;
+        }
+
         // Create the output folder and files to store the resulting data in
-        outputInstance.prepareSimulationDataOutput(
+        ArrayList<CompletedRunDataHolder> completedRuns = outputInstance.prepareSimulationDataOutput(
                 config.doesUtiliseSocialCapita(),
                 config.doesUtiliseSingleAgentType(),
                 config.getSelectedSingleAgentType()
         );
+
+        this.resumeSimulationSet(completedRuns);
+
+        // Only the summary has to be written if every run was completed before
+        if (this.currentSimulationRun > config.getNumOfSimulationRuns()) {
+            this.writeSimulationData();
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Continues with the next simulation set, or shuts the environment down if all the simulation sets have finished.
+     */
+    private void finishSimulationSet() {
+        // Determine if the program should continue with another simulation set or if it should exit
+        if (shouldShutEnvironmentDown()) {
+            // Broadcast the Terminate message to all other agents
+            AgentHelper.sendMessage(
+                    this,
+                    allAgentIdentifiers,
+                    "Terminate",
+                    ACLMessage.INFORM
+            );
+
+            // Terminate the ticker agent itself
+            doDelete();
+        } else {
+            // Progress the program by setting up and executing the next simulation set
+            simulationReset();
+            currentSimulationSet++;
+
+            // Flush the transactions from the blockchain's ledger
+            blockchainReference.resetBlockchain();
+
+            // Update the Household agent contacts
+            addBehaviour(new FindHouseholdsBehaviour(this));
+
+            // Recreate this behaviour by adding it to the agent's behaviour queue
+            addBehaviour(new DailySyncBehaviour(this));
+        }
     }
 
     /**
@@ -515,6 +581,10 @@ public class TickerAgent extends Agent {
         this.currentDay = 1;
         this.currentDayAfterTakeover = 0;
         this.takeover = false;
+        this.runTakeoverType = null;
+        this.runTakeoverDayData = null;
+        this.runFinalDayType = null;
+        this.runFinalDayData = null;
     }
 
     /**
@@ -526,45 +596,75 @@ public class TickerAgent extends Agent {
      * @param isFinalDayOfRun Whether the current day is the final day of the simulation run or not.
      */
     private void extractTakeoverData(EndOfDayAdvertisingBoardDataHolder endOfDayData, boolean isFinalDayOfRun) {
+        AgentStrategyType populationType;
+        PopulationEndOfDayDataHolder populationData;
+
+        if (endOfDayData.numOfSelfishAgents() == 0.0) {
+            populationType = AgentStrategyType.SOCIAL;
+            populationData = new PopulationEndOfDayDataHolder(
+                    this.currentSimulationRun,
+                    this.currentDay,
+                    endOfDayData.averageSocialSatisfaction(),
+                    endOfDayData.averageSocialSatisfactionStandardDeviation()
+            );
+        } else {
+            populationType = AgentStrategyType.SELFISH;
+            populationData = new PopulationEndOfDayDataHolder(
+                    this.currentSimulationRun,
+                    this.currentDay,
+                    endOfDayData.averageSelfishSatisfaction(),
+                    endOfDayData.averageSelfishSatisfactionStandardDeviation()
+            );
+        }
+
+        // Keep the data of the current run, so that the run can be recorded as completed once it finishes
         if (!isFinalDayOfRun) {
-            if (endOfDayData.numOfSelfishAgents() == 0.0) {
-                this.socialPopulationEndOfDayDataHolders.add(new PopulationEndOfDayDataHolder(
-                        this.currentSimulationRun,
-                        this.currentDay,
-                        endOfDayData.averageSocialSatisfaction(),
-                        endOfDayData.averageSocialSatisfactionStandardDeviation()
-                ));
-
-                this.numOfSocialTakeoverRuns++;
-            } else {
-                this.selfishPopulationEndOfDayDataHolders.add(new PopulationEndOfDayDataHolder(
-                        this.currentSimulationRun,
-                        this.currentDay,
-                        endOfDayData.averageSelfishSatisfaction(),
-                        endOfDayData.averageSelfishSatisfactionStandardDeviation()
-                ));
-
-                this.numOfSelfishTakeoverRuns++;
-            }
+            this.runTakeoverType = populationType;
+            this.runTakeoverDayData = populationData;
+            this.addTakeoverDayData(populationType, populationData);
         } else {
-            if (endOfDayData.numOfSelfishAgents() == 0.0) {
-                this.socialFinalDayDataHolders.add(new PopulationEndOfDayDataHolder(
-                        this.currentSimulationRun,
-                        this.currentDay,
-                        endOfDayData.averageSocialSatisfaction(),
-                        endOfDayData.averageSocialSatisfactionStandardDeviation()
-                ));
-            } else {
-                this.selfishFinalDayDataHolders.add(new PopulationEndOfDayDataHolder(
-                        this.currentSimulationRun,
-                        this.currentDay,
-                        endOfDayData.averageSelfishSatisfaction(),
-                        endOfDayData.averageSelfishSatisfactionStandardDeviation()
-                ));
+            this.runFinalDayType = populationType;
+            this.runFinalDayData = populationData;
+            this.addFinalDayData(populationType, populationData);
+        }
+    }
+
+    /**
+     * Adds the takeover data of the runs that were completed before the simulation set was resumed, and continues with the first run that has not been completed.
+     *
+     * @param completedRuns The completed runs in the order of the simulation runs.
+     */
+    private void resumeSimulationSet(ArrayList<CompletedRunDataHolder> completedRuns) {
+        for (CompletedRunDataHolder completedRun : completedRuns) {
+            this.addTakeoverDayData(completedRun.takeoverType(), completedRun.takeoverDayData());
+            this.addFinalDayData(completedRun.finalDayType(), completedRun.finalDayData());
+            this.currentSimulationRun++;
+
+            // Each run is seeded with the seed of the previous run incremented, the same as if the completed runs were simulated again
+            if (this.currentSimulationRun <= config.getNumOfSimulationRuns()) {
+                config = configInstance.incrementRandomSeed();
             }
         }
     }
 
+    private void addTakeoverDayData(AgentStrategyType takeoverType, PopulationEndOfDayDataHolder takeoverDayData) {
+        if (takeoverType == AgentStrategyType.SOCIAL) {
+            this.socialPopulationEndOfDayDataHolders.add(takeoverDayData);
+            this.numOfSocialTakeoverRuns++;
+        } else {
+            this.selfishPopulationEndOfDayDataHolders.add(takeoverDayData);
+            this.numOfSelfishTakeoverRuns++;
+        }
+    }
+
+    private void addFinalDayData(AgentStrategyType finalDayType, PopulationEndOfDayDataHolder finalDayData) {
+        if (finalDayType == AgentStrategyType.SOCIAL) {
+            this.socialFinalDayDataHolders.add(finalDayData);
+        } else {
+            this.selfishFinalDayDataHolders.add(finalDayData);
+        }
+    }
+
     /**
      * Outputs overall simulation data for each strategy type takeover.
      *
@@ -583,17 +683,32 @@ public class TickerAgent extends Agent {
                 middleSelfishRun = processTakeoverDataByType(AgentStrategyType.SELFISH);
             }
 
-            try {
-                outputInstance.initiateSimulationVisualiser(middleSocialRun, middleSelfishRun);
-            } catch (IOException e) {
-                AgentHelper.printAgentError(getLocalName(), "A problem occurred while trying to run the data visualisation scripts.");
-                e.printStackTrace();
+            // The visualisation scripts plot the daily data file
+            if (config.getOutputLevel().includes(OutputLevelType.DAILY)) {
+                try {
+                    outputInstance.initiateSimulationVisualiser(middleSocialRun, middleSelfishRun);
+                } catch (IOException e) {
+                    AgentHelper.printAgentError(getLocalName(), "A problem occurred while trying to run the data visualisation scripts.");
+                    e.printStackTrace();
+                }
             }
         } else {
             AgentHelper.printAgentError(getLocalName(), "No takeovers have occurred or they have not been recorded.");
         }
 
         outputInstance.flushAllDataWriters();
+
+        if (config.isDebugMode()) {
+            AgentHelper.printAgentLog(
+                    getLocalName(),
+                    "Data output writer | Lag: " + outputInstance.getOutputWriterLag() +
+                            " | Blocked appends: " + outputInstance.getNumOfBlockedOutputAppends() +
+                            " | Dropped records: " + outputInstance.getNumOfDroppedOutputRows()
+            );
+        }
+
+        // Store the results so that the same simulation set can be restored instead of simulated next time
+        outputInstance.cacheSimulationSet();
     }
 
     /**
@@ -8,11 +8,16 @@ import java.util.Objects;
 
 /**
  * Contains the contact information of a Household agent.
+ * Household agents are identified by their dense household index inside the simulation, the AID is only used to send messages.
  *
  * @author László Tárkányi
  */
 public class AgentContact implements Serializable {
+    // The household index of contacts that are not Household agents
+    public static final int NO_HOUSEHOLD_INDEX = -1;
+
     private final AID agentIdentifier;
+    private final int householdIndex;
     private AgentStrategyType type;
     private double currentSatisfaction;
 
@@ -20,15 +25,18 @@ public class AgentContact implements Serializable {
 
     public AgentContact(AID agentIdentifier) {
         this.agentIdentifier = agentIdentifier;
+        this.householdIndex = NO_HOUSEHOLD_INDEX;
     }
 
-    public AgentContact(AID agentIdentifier, AgentStrategyType type) {
+    public AgentContact(AID agentIdentifier, int householdIndex, AgentStrategyType type) {
         this.agentIdentifier = agentIdentifier;
+        this.householdIndex = householdIndex;
         this.type = type;
     }
 
-    public AgentContact(AID agentIdentifier, AgentStrategyType type, double currentSatisfaction) {
+    public AgentContact(AID agentIdentifier, int householdIndex, AgentStrategyType type, double currentSatisfaction) {
         this.agentIdentifier = agentIdentifier;
+        this.householdIndex = householdIndex;
         this.type = type;
         this.currentSatisfaction = currentSatisfaction;
     }
@@ -39,6 +47,13 @@ public class AgentContact implements Serializable {
         return agentIdentifier;
     }
 
+    /**
+     * @return (int) The position of the Household agent in the arrays indexed by Household agents, or NO_HOUSEHOLD_INDEX if the contact is not a Household agent.
+     */
+    public int getHouseholdIndex() {
+        return householdIndex;
+    }
+
     public AgentStrategyType getType() {
         return type;
     }
@@ -0,0 +1,937 @@
+package com.napier.arena.concepts;
+
+import com.napier.arena.structures.DemandCurveLibrary;
+import com.napier.arena.structures.RouletteWheel;
+import com.napier.arena.types.AgentStrategyType;
+import com.napier.arena.types.ExchangeType;
+import com.napier.arena.types.OutputFormatType;
+import com.napier.arena.types.OutputLevelType;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * An immutable snapshot of the user defined settings and the values calculated from them,
+ * as they apply to a single simulation run of a simulation set.
+ * A new snapshot is created whenever a simulation set or a simulation run starts, the existing snapshots never change.
+ * The arrays returned by the accessors are shared between the snapshots and must not be modified.
+ * Snapshots are serializable, so that the compiled form of a configuration file can be cached on disk.
+ * If the demand curves are read from a demand curve library, only the location of the library is part of the snapshot, the library itself is mapped into memory when it is first used.
+ *
+ * @author László Tárkányi
+ */
+public final class SimulationConfiguration implements Serializable {
+    // Indices of the random number streams of the agents that are not Household agents (Household agents use their number)
+    public static final int TICKER_RANDOM_STREAM_INDEX = -1;
+    public static final int ADVERTISING_BOARD_RANDOM_STREAM_INDEX = 0;
+
+    private final boolean debugMode;
+    private final ExchangeType exchangeType;
+
+    /* Configuration Properties */
+    private final long startingSeed; // seed
+    private final String resultsFolderPath; // results.folder
+    private final String pythonExePath; // python.executable
+    private final String pythonScriptsPath; // python.scripts
+    private final int populationCount; // population.size
+    private final int numOfSlotsPerAgent; // agent.time-slots
+    private final int numOfUnitsPerSlot; // agent.unitsPerSlot
+    private final int numOfUniqueTimeSlots; // simulation.uniqueTime-slots
+    private final int numOfAdditionalDaysAfterTakeover; // simulation.additionalDays
+    private final int numOfSimulationRuns; // simulation.runs
+    private final boolean doesUtiliseSingleAgentType; // agent.singleType
+    private final AgentStrategyType selectedSingleAgentType; // agent.selectedSingleType
+    private final boolean doesUtiliseSocialCapita; // agent.useSocialCapital
+    private final double beta; // agent.beta
+    private final int comparisonLevel; // simulation.comparisonLevel
+    private final double evolutionPercentage; // agents.evolvePercentage
+    private final String agentTypeRatioInputString; // agent.typeRatio
+    private final double[] satisfactionCurve; // agent.satisfactionCurve
+    private final boolean isFastInitialAllocationUsed; // simulation.fastInitialAllocation
+    private final String demandCurveLibraryPath; // demand.curveLibrary
+    private final boolean isSimulationResumed; // simulation.resume
+    private final EnumSet<OutputFormatType> outputFormats; // output.formats
+    private final boolean isOutputCompressed; // output.gzip
+    private final OutputLevelType outputLevel; // output.level
+    private final boolean isOutputPartitionedByRun; // output.partitionByRun
+    private final String resultCacheFolderPath; // results.cache
+    private final int maxNumOfVisualisationProcesses; // visualisation.processes
+    private final boolean isVisualisationDeferred; // visualisation.deferred
+
+    /* Calculated Values */
+    private final long currentSeed;
+    private final double[][] bucketedDemandCurves; // demand.curves
+    private final double[] totalDemandValues;
+    private final RouletteWheel[] demandWheels;
+    private final int[] bucketedAvailabilityCurve; // availability.curve
+    private final int totalAvailableEnergy;
+    private final RouletteWheel availabilityWheel;
+    private final int numOfAgentsToEvolve;
+    private final int selfishPopulationCount;
+    private transient volatile DemandCurveLibrary demandCurveLibrary;
+
+    /**
+     * Reads the configuration variables from the config properties and calculates the values based on them.
+     *
+     * @param properties The settings loaded from the configuration file.
+     * @param debugMode Whether the application is running in Debug Mode or not.
+     * @param exchangeType The exchange type to use until a simulation set overwrites it.
+     */
+    public SimulationConfiguration(Properties properties, boolean debugMode, ExchangeType exchangeType) {
+        this.debugMode = debugMode;
+        this.exchangeType = exchangeType;
+
+        // Read the configuration variables from the config properties and store them in the attributes
+        this.startingSeed = Long.parseLong(properties.getProperty("seed"));
+        this.resultsFolderPath = properties.getProperty("results.folder");
+        this.pythonExePath = properties.getProperty("python.executable");
+        this.pythonScriptsPath = properties.getProperty("python.scripts");
+        this.populationCount = Integer.parseInt(properties.getProperty("population.size"));
+        this.numOfSlotsPerAgent = Integer.parseInt(properties.getProperty("agent.time-slots"));
+        this.numOfUnitsPerSlot = inputToOptionalInt(properties.getProperty("agent.unitsPerSlot"), 1);
+        this.numOfUniqueTimeSlots = Integer.parseInt(properties.getProperty("simulation.uniqueTime-slots"));
+        this.numOfAdditionalDaysAfterTakeover = Integer.parseInt(properties.getProperty("simulation.additionalDays"));
+        this.numOfSimulationRuns = Integer.parseInt(properties.getProperty("simulation.runs"));
+        this.doesUtiliseSingleAgentType = Boolean.parseBoolean(properties.getProperty("agent.singleType"));
+        this.selectedSingleAgentType = inputToStrategyEnum(properties.getProperty("agent.selectedSingleType"));
+        this.doesUtiliseSocialCapita = Boolean.parseBoolean(properties.getProperty("agent.useSocialCapital"));
+        this.beta = Double.parseDouble(properties.getProperty("agent.beta"));
+        this.comparisonLevel = Integer.parseInt(properties.getProperty("simulation.comparisonLevel"));
+        this.evolutionPercentage = Double.parseDouble(properties.getProperty("agents.evolvePercentage"));
+        this.agentTypeRatioInputString = properties.getProperty("agent.typeRatio");
+        this.satisfactionCurve = inputToDoubleArray(properties.getProperty("agent.satisfactionCurve"));
+        this.isFastInitialAllocationUsed = Boolean.parseBoolean(properties.getProperty("simulation.fastInitialAllocation", "false"));
+        this.demandCurveLibraryPath = properties.getProperty("demand.curveLibrary", "").trim();
+        this.isSimulationResumed = Boolean.parseBoolean(properties.getProperty("simulation.resume", "false"));
+        this.outputFormats = inputToOutputFormats(properties.getProperty("output.formats"));
+        this.isOutputCompressed = Boolean.parseBoolean(properties.getProperty("output.gzip", "false"));
+        this.outputLevel = inputToOutputLevel(properties.getProperty("output.level"));
+        this.isOutputPartitionedByRun = Boolean.parseBoolean(properties.getProperty("output.partitionByRun", "false"));
+        this.resultCacheFolderPath = properties.getProperty("results.cache", "").trim();
+        this.maxNumOfVisualisationProcesses = inputToOptionalInt(properties.getProperty("visualisation.processes"), 1);
+        this.isVisualisationDeferred = Boolean.parseBoolean(properties.getProperty("visualisation.deferred", "false"));
+
+        // The raw curves are only needed until they are bucketed, and are not needed at all if a demand curve library is used
+        double[][] demandCurves = this.demandCurveLibraryPath.isEmpty() ? inputToDouble2DArray(properties.getProperty("demand.curves")) : new double[0][];
+        int[] availabilityCurve = inputToIntArray(properties.getProperty("availability.curve"));
+
+        // Calculate values based on the configuration properties
+        this.currentSeed = this.startingSeed;
+        this.bucketedDemandCurves = this.bucketSortDemandCurves(demandCurves);
+        this.totalDemandValues = this.calculateTotalDemandValues();
+        this.demandWheels = this.compileDemandWheels();
+        this.bucketedAvailabilityCurve = this.bucketSortAvailabilityCurve(availabilityCurve);
+        this.totalAvailableEnergy = this.calculateTotalAvailableEnergy(availabilityCurve);
+        this.availabilityWheel = this.compileAvailabilityWheel();
+        this.numOfAgentsToEvolve = this.calculateNumberOfAgentsToEvolve();
+        this.selfishPopulationCount = this.calculateSelfishPopulationCount();
+    }
+
+    /**
+     * Copies an existing snapshot and overwrites the settings that can change between simulation sets and runs.
+     * The values calculated from the configuration file are shared with the original snapshot.
+     */
+    private SimulationConfiguration(SimulationConfiguration original, long currentSeed, boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType, boolean doesUtiliseSocialCapita, ExchangeType exchangeType) {
+        this.debugMode = original.debugMode;
+        this.exchangeType = exchangeType;
+
+        this.startingSeed = original.startingSeed;
+        this.resultsFolderPath = original.resultsFolderPath;
+        this.pythonExePath = original.pythonExePath;
+        this.pythonScriptsPath = original.pythonScriptsPath;
+        this.populationCount = original.populationCount;
+        this.numOfSlotsPerAgent = original.numOfSlotsPerAgent;
+        this.numOfUnitsPerSlot = original.numOfUnitsPerSlot;
+        this.numOfUniqueTimeSlots = original.numOfUniqueTimeSlots;
+        this.numOfAdditionalDaysAfterTakeover = original.numOfAdditionalDaysAfterTakeover;
+        this.numOfSimulationRuns = original.numOfSimulationRuns;
+        this.doesUtiliseSingleAgentType = doesUtiliseSingleAgentType;
+        this.selectedSingleAgentType = selectedSingleAgentType;
+        this.doesUtiliseSocialCapita = doesUtiliseSocialCapita;
+        this.beta = original.beta;
+        this.comparisonLevel = original.comparisonLevel;
+        this.evolutionPercentage = original.evolutionPercentage;
+        this.agentTypeRatioInputString = original.agentTypeRatioInputString;
+        this.satisfactionCurve = original.satisfactionCurve;
+        this.isFastInitialAllocationUsed = original.isFastInitialAllocationUsed;
+        this.demandCurveLibraryPath = original.demandCurveLibraryPath;
+        this.isSimulationResumed = original.isSimulationResumed;
+        this.outputFormats = original.outputFormats;
+        this.isOutputCompressed = original.isOutputCompressed;
+        this.outputLevel = original.outputLevel;
+        this.isOutputPartitionedByRun = original.isOutputPartitionedByRun;
+        this.resultCacheFolderPath = original.resultCacheFolderPath;
+        this.maxNumOfVisualisationProcesses = original.maxNumOfVisualisationProcesses;
+        this.isVisualisationDeferred = original.isVisualisationDeferred;
+
+        this.currentSeed = currentSeed;
+        this.bucketedDemandCurves = original.bucketedDemandCurves;
+        this.totalDemandValues = original.totalDemandValues;
+        this.demandWheels = original.demandWheels;
+        this.bucketedAvailabilityCurve = original.bucketedAvailabilityCurve;
+        this.totalAvailableEnergy = original.totalAvailableEnergy;
+        this.availabilityWheel = original.availabilityWheel;
+        this.numOfAgentsToEvolve = original.numOfAgentsToEvolve;
+        this.selfishPopulationCount = this.calculateSelfishPopulationCount();
+        this.demandCurveLibrary = original.demandCurveLibrary;
+    }
+
+    /* Accessors */
+
+    public boolean isDebugMode() {
+        return this.debugMode;
+    }
+
+    public ExchangeType getExchangeType() {
+        return this.exchangeType;
+    }
+
+    public long getStartingSeed() {
+        return this.startingSeed;
+    }
+
+    public String getResultsFolderPath() {
+        return this.resultsFolderPath;
+    }
+
+    public String getPythonExePath() {
+        return pythonExePath;
+    }
+
+    public String getPythonScriptsPath() {
+        return pythonScriptsPath;
+    }
+
+    public int getPopulationCount() {
+        return this.populationCount;
+    }
+
+    public int getNumOfSlotsPerAgent() {
+        return this.numOfSlotsPerAgent;
+    }
+
+    public int getNumOfUnitsPerSlot() {
+        return this.numOfUnitsPerSlot;
+    }
+
+    public int getNumOfUniqueTimeSlots() {
+        return this.numOfUniqueTimeSlots;
+    }
+
+    public int getNumOfAdditionalDaysAfterTakeover() {
+        return this.numOfAdditionalDaysAfterTakeover;
+    }
+
+    public int getNumOfSimulationRuns() {
+        return this.numOfSimulationRuns;
+    }
+
+    public boolean doesUtiliseSingleAgentType() {
+        return this.doesUtiliseSingleAgentType;
+    }
+
+    public AgentStrategyType getSelectedSingleAgentType() {
+        return this.selectedSingleAgentType;
+    }
+
+    public boolean doesUtiliseSocialCapita() {
+        return this.doesUtiliseSocialCapita;
+    }
+
+    public double getBeta() {
+        return this.beta;
+    }
+
+    public int getComparisonLevel() {
+        return this.comparisonLevel;
+    }
+
+    public int getNumOfAgentsToEvolve() {
+        return this.numOfAgentsToEvolve;
+    }
+
+    public int getSelfishPopulationCount() {
+        return this.selfishPopulationCount;
+    }
+
+    /**
+     * @return (double[]) The satisfaction curve of the configuration file. It is not applied, the satisfaction of the agents only counts exact matches.
+     */
+    public double[] getSatisfactionCurve() {
+        return this.satisfactionCurve;
+    }
+
+    public boolean isFastInitialAllocationUsed() {
+        return this.isFastInitialAllocationUsed;
+    }
+
+    /**
+     * @return (EnumSet of OutputFormatType) The file formats to write the agent, daily and exchange data in. Must not be modified.
+     */
+    public EnumSet<OutputFormatType> getOutputFormats() {
+        return this.outputFormats;
+    }
+
+    /**
+     * @return (boolean) Whether the .csv data files are written as GZIP-compressed .csv.gz files.
+     */
+    public boolean isOutputCompressed() {
+        return this.isOutputCompressed;
+    }
+
+    /**
+     * @return (OutputLevelType) The level of detail of the data files. Data below this level is neither collected nor calculated.
+     */
+    public OutputLevelType getOutputLevel() {
+        return this.outputLevel;
+    }
+
+    /**
+     * @return (boolean) Whether the data files of each simulation run are written into a separate partition folder.
+     */
+    public boolean isOutputPartitionedByRun() {
+        return this.isOutputPartitionedByRun;
+    }
+
+    /**
+     * @return (String) The folder of the cached results of earlier simulation sets, or an empty String if the results are not cached.
+     */
+    public String getResultCacheFolderPath() {
+        return this.resultCacheFolderPath;
+    }
+
+    public boolean isResultCacheUsed() {
+        return !this.resultCacheFolderPath.isEmpty();
+    }
+
+    /**
+     * @return (int) The most visualisation scripts that run in the background at the same time.
+     */
+    public int getMaxNumOfVisualisationProcesses() {
+        return this.maxNumOfVisualisationProcesses;
+    }
+
+    /**
+     * @return (boolean) Whether the visualisation scripts only start after the final simulation set is finished.
+     */
+    public boolean isVisualisationDeferred() {
+        return this.isVisualisationDeferred;
+    }
+
+    public long getCurrentSeed() {
+        return this.currentSeed;
+    }
+
+    public double[][] getBucketedDemandCurves() {
+        return this.bucketedDemandCurves;
+    }
+
+    public double[] getTotalDemandValues() {
+        return this.totalDemandValues;
+    }
+
+    public RouletteWheel[] getDemandWheels() {
+        return this.demandWheels;
+    }
+
+    public boolean isDemandCurveLibraryUsed() {
+        return !this.demandCurveLibraryPath.isEmpty();
+    }
+
+    public String getDemandCurveLibraryPath() {
+        return this.demandCurveLibraryPath;
+    }
+
+    /**
+     * @return (boolean) Whether the simulation sets continue from the first run that has not been completed in their results folder, instead of starting from the first run.
+     */
+    public boolean isSimulationResumed() {
+        return this.isSimulationResumed;
+    }
+
+    /**
+     * Maps the demand curve library into memory the first time it is needed.
+     *
+     * @return (DemandCurveLibrary or null) The demand curve library, or null if the demand curves are defined in the configuration file.
+     * @throws UncheckedIOException If the library cannot be read or does not fit the number of unique timeslots.
+     */
+    public DemandCurveLibrary getDemandCurveLibrary() throws UncheckedIOException {
+        if (!this.isDemandCurveLibraryUsed()) {
+            return null;
+        }
+
+        if (this.demandCurveLibrary == null) {
+            synchronized (this) {
+                if (this.demandCurveLibrary == null) {
+                    this.demandCurveLibrary = this.openDemandCurveLibrary();
+                }
+            }
+        }
+
+        return this.demandCurveLibrary;
+    }
+
+    /**
+     * @return (int) The number of demand curves that can be assigned to the Household agents.
+     */
+    public int getNumOfDemandCurves() {
+        if (this.isDemandCurveLibraryUsed()) {
+            return this.getDemandCurveLibrary().getNumOfCurves();
+        }
+
+        return this.bucketedDemandCurves.length;
+    }
+
+    /**
+     * @param curveId The index of the demand curve, either in the demand curve library or in the demand curves of the configuration file.
+     * @return (DoubleBuffer) A read-only view of the bucketed demand curve. Curves in a demand curve library are not copied.
+     */
+    public DoubleBuffer getDemandCurve(int curveId) {
+        if (this.isDemandCurveLibraryUsed()) {
+            return this.getDemandCurveLibrary().getCurve(curveId);
+        }
+
+        return DoubleBuffer.wrap(this.bucketedDemandCurves[curveId]).asReadOnlyBuffer();
+    }
+
+    /**
+     * @param curveId The index of the demand curve, either in the demand curve library or in the demand curves of the configuration file.
+     * @return (double) The total demand value of the demand curve.
+     */
+    public double getTotalDemandValue(int curveId) {
+        if (this.isDemandCurveLibraryUsed()) {
+            return this.getDemandCurveLibrary().getTotalDemandValue(curveId);
+        }
+
+        return this.totalDemandValues[curveId];
+    }
+
+    /**
+     * Gets the roulette wheel of a demand curve.
+     * The wheels of the curves in the configuration file are precompiled, while the wheels of the curves in a demand curve library are compiled on demand,
+     * as a library can contain more curves than it would be worth keeping on the heap.
+     *
+     * @param curveId The index of the demand curve, either in the demand curve library or in the demand curves of the configuration file.
+     * @return (RouletteWheel) The roulette wheel of the demand curve.
+     */
+    public RouletteWheel getDemandWheel(int curveId) {
+        if (this.isDemandCurveLibraryUsed()) {
+            return RouletteWheel.compileDemandWheel(this.getDemandCurveLibrary().getCurve(curveId));
+        }
+
+        return this.demandWheels[curveId];
+    }
+
+    public int[] getBucketedAvailabilityCurve() {
+        return this.bucketedAvailabilityCurve;
+    }
+
+    public int getTotalAvailableEnergy() {
+        return this.totalAvailableEnergy;
+    }
+
+    public RouletteWheel getAvailabilityWheel() {
+        return this.availabilityWheel;
+    }
+
+    /**
+     * Creates an independent random number stream for an agent in the simulation run of this snapshot.
+     * The stream only depends on the seed of the configuration file, the number of the run in the simulation set and the index of the agent,
+     * so the numbers an agent draws do not depend on how the agents' threads are interleaved.
+     *
+     * @param streamIndex The number of a Household agent, or one of the stream index constants of this class for the other agents.
+     * @return (SplittableRandom) A new random number generator that only the given agent should use.
+     */
+    public SplittableRandom createRandomStream(int streamIndex) {
+        long runSeed = mixSeed(mixSeed(this.startingSeed) + (this.currentSeed - this.startingSeed));
+
+        return new SplittableRandom(mixSeed(runSeed + streamIndex));
+    }
+
+    /**
+     * Writes the settings and the calculated values of this snapshot that the results of a simulation set depend on, such as for hashing them.
+     * The settings that only change how the simulation set is run or where its results are written are left out:
+     * debug mode, the results and cache folders, the Python paths, resuming, visualisation and the comparison level.
+     * The values that are calculated from the written ones by the code alone, such as the roulette wheels, are left out as well.
+     *
+     * @param output The output to write the values into.
+     * @throws IOException If the output cannot be written.
+     */
+    public void writeResultSettings(DataOutput output) throws IOException {
+        output.writeUTF(String.valueOf(this.exchangeType));
+        output.writeLong(this.startingSeed);
+        output.writeLong(this.currentSeed);
+        output.writeInt(this.populationCount);
+        output.writeInt(this.numOfSlotsPerAgent);
+        output.writeInt(this.numOfUnitsPerSlot);
+        output.writeInt(this.numOfUniqueTimeSlots);
+        output.writeInt(this.numOfAdditionalDaysAfterTakeover);
+        output.writeInt(this.numOfSimulationRuns);
+        output.writeBoolean(this.doesUtiliseSingleAgentType);
+
+        // Only the setting of the active mode decides the initial strategy types, the other one is ignored by the simulation set
+        if (this.doesUtiliseSingleAgentType) {
+            output.writeUTF(String.valueOf(this.selectedSingleAgentType));
+        } else {
+            output.writeUTF(String.valueOf(this.agentTypeRatioInputString));
+        }
+
+        output.writeBoolean(this.doesUtiliseSocialCapita);
+        output.writeDouble(this.beta);
+        // The comparison level is left out: it only selects which simulation sets run, so the same simulation set of different levels has the same results
+        output.writeDouble(this.evolutionPercentage);
+        output.writeUTF(Arrays.toString(this.satisfactionCurve));
+        output.writeBoolean(this.isFastInitialAllocationUsed);
+        output.writeUTF(this.demandCurveLibraryPath);
+        output.writeUTF(this.outputFormats.toString());
+        output.writeBoolean(this.isOutputCompressed);
+        output.writeUTF(String.valueOf(this.outputLevel));
+        output.writeBoolean(this.isOutputPartitionedByRun);
+
+        // The curves are only part of the snapshot in their bucketed form
+        output.writeInt(this.bucketedDemandCurves.length);
+
+        for (double[] bucketedDemandCurve : this.bucketedDemandCurves) {
+            output.writeInt(bucketedDemandCurve.length);
+
+            for (double demand : bucketedDemandCurve) {
+                output.writeDouble(demand);
+            }
+        }
+
+        output.writeInt(this.bucketedAvailabilityCurve.length);
+
+        for (int availability : this.bucketedAvailabilityCurve) {
+            output.writeInt(availability);
+        }
+    }
+
+    /* Snapshot Creators */
+
+    /**
+     * At the start of a simulation set, this overwrites some of the user defined configuration settings.
+     * The seed is restored to the seed defined in the configuration file.
+     *
+     * @param doesUtiliseSingleAgentType Whether the Household agents in the next simulation set should be allowed to choose between 1 or 2 strategy types.
+     * @param selectedSingleAgentType The strategy type that the Household agents can use, if they can only use one. (If they can be either selfish or social, call getSelectedSingleAgentType().)
+     * @param doesUtiliseSocialCapita Whether social capita should be used in the exchanges of the next simulation set.
+     * @param exchangeType The exchange type used in the next simulation set.
+     * @return (SimulationConfiguration) The snapshot of the first run of the simulation set.
+     */
+    public SimulationConfiguration withSimulationSet(boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType, boolean doesUtiliseSocialCapita, ExchangeType exchangeType) {
+        return new SimulationConfiguration(this, this.startingSeed, doesUtiliseSingleAgentType, selectedSingleAgentType, doesUtiliseSocialCapita, exchangeType);
+    }
+
+    /**
+     * @return (SimulationConfiguration) The snapshot of the next run in the same simulation set, which only differs in its seed.
+     */
+    public SimulationConfiguration withNextRun() {
+        return new SimulationConfiguration(this, this.currentSeed + 1, this.doesUtiliseSingleAgentType, this.selectedSingleAgentType, this.doesUtiliseSocialCapita, this.exchangeType);
+    }
+
+    /**
+     * @param exchangeType The exchange type to use.
+     * @return (SimulationConfiguration) A snapshot that only differs from this one in its exchange type.
+     */
+    public SimulationConfiguration withExchangeType(ExchangeType exchangeType) {
+        return new SimulationConfiguration(this, this.currentSeed, this.doesUtiliseSingleAgentType, this.selectedSingleAgentType, this.doesUtiliseSocialCapita, exchangeType);
+    }
+
+    /* Helpers */
+
+    /**
+     * Maps the demand curve library into memory and checks that its curves fit the number of unique timeslots.
+     *
+     * @return (DemandCurveLibrary) The mapped demand curve library.
+     * @throws UncheckedIOException If the library cannot be read or does not fit the number of unique timeslots.
+     */
+    private DemandCurveLibrary openDemandCurveLibrary() throws UncheckedIOException {
+        try {
+            DemandCurveLibrary library = DemandCurveLibrary.open(Path.of(this.demandCurveLibraryPath));
+
+            if (library.getNumOfTimeSlots() != this.numOfUniqueTimeSlots) {
+                throw new IOException("The demand curve library has " + library.getNumOfTimeSlots() + " timeslots per curve, but the simulation uses " + this.numOfUniqueTimeSlots + ".");
+            }
+
+            return library;
+        } catch (IOException e) {
+            System.err.println("The demand curve library could not be opened: " + e.getMessage());
+
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts a String into a double array.
+     * The String has to be in the following format: 1.0,1.0,0.0,1.0
+     *
+     * @param input The text containing the values of the array.
+     * @return (double[]) The array form of the input text.
+     */
+    private static double[] inputToDoubleArray(String input) {
+        return Arrays.stream(input.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    /**
+     * Converts a String into a two-dimensional double array.
+     * The String has to be in the following format: 1.0,1.0,0.0,1.0||0.0,0.0,1.0,0.0
+     *
+     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ResourceExchangeArena.java">ResourceExchangeArena</a>
+     *
+     * @param input The text containing the values of the array.
+     * @return (double[][]) The array form of the input text.
+     */
+    private static double[][] inputToDouble2DArray(String input) {
+        // Split the input string into sets using "||" as the delimiter
+        String[] sets = input.split("\\|\\|");
+
+        // Initialize a 2D double array to store the result
+        double[][] result = new double[sets.length][];
+
+        for (int i = 0; i < sets.length; i++) {
+            // Split each set by comma and convert it to a double array
+            String[] numberStrings = sets[i].split(",");
+            result[i] = new double[numberStrings.length];
+
+            for (int j = 0; j < numberStrings.length; j++) {
+                // Parse each element into a double
+                result[i][j] = Double.parseDouble(numberStrings[j]);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Converts a String into a double array.
+     * The String has to be in the following format: 1,1,0,1
+     *
+     * @param input The text containing the values of the array.
+     * @return (int[]) The array form of the input text.
+     */
+    private static int[] inputToIntArray(String input) {
+        return Arrays.stream(input.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * Converts a String to an agent strategy type enum.
+     * The String has to be in the following format: social
+     *
+     * @param input The String containing the strategy type.
+     * @return (AgentStrategyType) The enum form of the input text or null if the input format is incorrect.
+     */
+    private static AgentStrategyType inputToStrategyEnum(String input) {
+        return input.equals("social") ? AgentStrategyType.SOCIAL : input.equals("selfish") ? AgentStrategyType.SELFISH : null;
+    }
+
+    /**
+     * Converts a String into a set of output sinks.
+     * The String has to be in the following format: csv,arrow
+     *
+     * @param input The value of the optional output format setting in the configuration file.
+     * @return (EnumSet of OutputFormatType) The output sinks, or only CSV if the setting is missing or left empty.
+     * @throws IllegalArgumentException If the input contains an unknown sink, or combines discarding the data with other sinks.
+     */
+    private static EnumSet<OutputFormatType> inputToOutputFormats(String input) throws IllegalArgumentException {
+        if (input == null || input.isBlank()) {
+            return EnumSet.of(OutputFormatType.CSV);
+        }
+
+        EnumSet<OutputFormatType> outputFormats = EnumSet.noneOf(OutputFormatType.class);
+
+        for (String format : input.split(",")) {
+            outputFormats.add(OutputFormatType.valueOf(format.trim().toUpperCase()));
+        }
+
+        if (outputFormats.contains(OutputFormatType.NONE) && outputFormats.size() > 1) {
+            throw new IllegalArgumentException("The output format 'none' cannot be combined with other output formats: " + input);
+        }
+
+        return outputFormats;
+    }
+
+    /**
+     * Converts a String to an output level enum.
+     * The String has to be in the following format: per-agent
+     *
+     * @param input The value of the optional output level setting in the configuration file.
+     * @return (OutputLevelType) The output level, or the most detailed level if the setting is missing or left empty.
+     * @throws IllegalArgumentException If the input is not an output level.
+     */
+    private static OutputLevelType inputToOutputLevel(String input) throws IllegalArgumentException {
+        if (input == null || input.isBlank()) {
+            return OutputLevelType.PER_ROUND;
+        }
+
+        return OutputLevelType.valueOf(input.trim().toUpperCase().replace('-', '_'));
+    }
+
+    /**
+     * Determines the number of selfish Household agents based on whether a single agent type is used.
+     *
+     * @return (int) The number of selfish Household agents that form the selfish population.
+     */
+    private int calculateSelfishPopulationCount() {
+        if (this.doesUtiliseSingleAgentType) {
+            if (this.selectedSingleAgentType == AgentStrategyType.SOCIAL) {
+                return 0;
+            } else {
+                return this.populationCount;
+            }
+        } else {
+            return this.ratioToSelfishPopulationCount();
+        }
+    }
+
+    /**
+     * Converts a String ratio into the number of selfish Household agents in the simulation set.
+     * The String has to be in the following format: 2:1
+     * Float values are supported: 2.01:1.39472
+     *
+     * @return (int) The number of selfish Household agents that form the selfish population.
+     */
+    private int ratioToSelfishPopulationCount() {
+        // Split the input string by colon
+        String[] ratioParts = this.agentTypeRatioInputString.split(":");
+
+        // Store the ratio of selfish:social agents provided in the input
+        float selfishRatio = Float.parseFloat(ratioParts[0]);
+        float socialRatio = Float.parseFloat(ratioParts[1]);
+
+        // Calculate the amount of
+        float fraction = this.populationCount / (selfishRatio + socialRatio);
+
+        // Multiply the fraction of the population size by the ratio for each agent and round up the results
+        return Math.round(fraction * selfishRatio);
+    }
+
+    /**
+     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java">ResourceExchangeArena</a>
+     *
+     * @param demandCurves The demand curves read from the configuration file.
+     * @return (double[][]) The sorted demand curves using bucket sort.
+     */
+    private double[][] bucketSortDemandCurves(double[][] demandCurves) {
+        double[][] bucketedDemandCurves = new double[demandCurves.length][];
+
+        for (int i = 0; i < demandCurves.length; i++) {
+            bucketedDemandCurves[i] = bucketSortDemandCurve(demandCurves[i], this.numOfUniqueTimeSlots);
+        }
+
+        return bucketedDemandCurves;
+    }
+
+    /**
+     * Bucket sorts a single demand curve. Also used to build demand curve libraries.
+     * The samples of the curve are spread evenly over the day, so the number of samples that make up a bucket is derived from the length of the curve and the number of unique timeslots.
+     * When the samples do not line up with the buckets, a sample is split between the buckets it overlaps in proportion to the overlap.
+     * e.g. the 144 ten minute samples of the provided curves make up 24 hourly, 48 half-hourly or 96 quarter-hourly buckets.
+     *
+     * @param demandCurve A demand curve in the format of the configuration file.
+     * @param numOfUniqueTimeSlots The number of unique timeslots in a day.
+     * @return (double[]) The sorted demand curve using bucket sort.
+     */
+    public static double[] bucketSortDemandCurve(double[] demandCurve, int numOfUniqueTimeSlots) {
+        double[] bucketedDemandCurve = new double[numOfUniqueTimeSlots];
+
+        // Positions in the day are measured so that each sample is numOfUniqueTimeSlots long and each bucket is demandCurve.length long
+        long sampleLength = numOfUniqueTimeSlots;
+        long bucketLength = demandCurve.length;
+
+        for (int i = 0; i < demandCurve.length; i++) {
+            long sampleEnd = (i + 1) * sampleLength;
+
+            for (long position = i * sampleLength; position < sampleEnd; ) {
+                int bucket = (int)(position / bucketLength);
+                long overlapEnd = Math.min(sampleEnd, (bucket + 1) * bucketLength);
+                long overlap = overlapEnd - position;
+
+                if (overlap == sampleLength) {
+                    bucketedDemandCurve[bucket] = bucketedDemandCurve[bucket] + demandCurve[i];
+                } else {
+                    bucketedDemandCurve[bucket] = bucketedDemandCurve[bucket] + demandCurve[i] * overlap / sampleLength;
+                }
+
+                position = overlapEnd;
+            }
+        }
+
+        for (int bucket = 0; bucket < bucketedDemandCurve.length; bucket++) {
+            // Rounding to fix precision errors.
+            bucketedDemandCurve[bucket] = Math.round(bucketedDemandCurve[bucket] * 10.0) / 10.0;
+        }
+
+        return bucketedDemandCurve;
+    }
+
+    /**
+     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java">ResourceExchangeArena</a>
+     *
+     * @return (double[]) The demand values based on the bucket sorted demand curves.
+     * @throws NullPointerException If the demand curves have not been bucket sorted before this is called.
+     */
+    private double[] calculateTotalDemandValues() throws NullPointerException {
+        if (this.bucketedDemandCurves == null) {
+            System.err.println("The demand curves have not been bucketed yet.");
+            throw new NullPointerException();
+        }
+
+        double[] totalDemandValues = new double[this.bucketedDemandCurves.length];
+
+        for (int i = 0; i < this.bucketedDemandCurves.length; i++) {
+            totalDemandValues[i] = calculateTotalDemandValue(this.bucketedDemandCurves[i]);
+        }
+
+        return totalDemandValues;
+    }
+
+    /**
+     * Calculates the total demand value of a single bucketed demand curve. Also used to build demand curve libraries.
+     *
+     * @param bucketedDemandCurve A bucket sorted demand curve.
+     * @return (double) The sum of the demand values of the curve, rounded to one decimal place.
+     */
+    public static double calculateTotalDemandValue(double[] bucketedDemandCurve) {
+        double totalDemand = 0;
+
+        for (double demandValue : bucketedDemandCurve) {
+            totalDemand = totalDemand + demandValue;
+        }
+
+        return Math.round(totalDemand * 10.0) / 10.0;
+    }
+
+    /**
+     * Precompiles a roulette wheel for each bucketed demand curve, so that Household agents do not have to walk their daily demand curve for every timeslot they request.
+     * The weight of each timeslot is its bucketed demand multiplied by 10, as demand values are rounded to one decimal place.
+     *
+     * @return (RouletteWheel[]) The roulette wheels of the demand curves, in the same order as the bucketed demand curves.
+     * @throws NullPointerException If the demand curves have not been bucket sorted before this is called.
+     */
+    private RouletteWheel[] compileDemandWheels() throws NullPointerException {
+        if (this.bucketedDemandCurves == null) {
+            System.err.println("The demand curves have not been bucketed yet.");
+            throw new NullPointerException();
+        }
+
+        RouletteWheel[] demandWheels = new RouletteWheel[this.bucketedDemandCurves.length];
+
+        for (int i = 0; i < this.bucketedDemandCurves.length; i++) {
+            demandWheels[i] = RouletteWheel.compileDemandWheel(DoubleBuffer.wrap(this.bucketedDemandCurves[i]));
+        }
+
+        return demandWheels;
+    }
+
+    /**
+     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java">ResourceExchangeArena</a>
+     *
+     * @param availabilityCurve The availability curve read from the configuration file.
+     * @return (int[])
+     */
+    private int[] bucketSortAvailabilityCurve(int[] availabilityCurve) {
+        // The availability curve is bucketed before the simulations for efficiency, as they will all use the same bucketed values.
+        int[] bucketedAvailabilityCurve = new int[this.numOfUniqueTimeSlots];
+
+        // Positions in the day are measured so that each sample is numOfUniqueTimeSlots long and each bucket is availabilityCurve.length long
+        long sampleLength = this.numOfUniqueTimeSlots;
+        long bucketLength = availabilityCurve.length;
+        long[] cumulativeAvailability = new long[availabilityCurve.length + 1];
+
+        for (int i = 0; i < availabilityCurve.length; i++) {
+            cumulativeAvailability[i + 1] = cumulativeAvailability[i] + availabilityCurve[i];
+        }
+
+        long previousBoundaryEnergy = 0;
+
+        for (int bucket = 0; bucket < bucketedAvailabilityCurve.length; bucket++) {
+            // Energy available before the end of the bucket, where a sample that is split between buckets is split in proportion to the overlap
+            long boundary = (bucket + 1) * bucketLength;
+            int sample = (int)(boundary / sampleLength);
+            long partialOverlap = boundary % sampleLength;
+            long boundaryEnergy = cumulativeAvailability[sample];
+
+            if (partialOverlap > 0) {
+                // Rounding down at each boundary keeps the integer buckets adding up to the total available energy
+                boundaryEnergy = (cumulativeAvailability[sample] * sampleLength + availabilityCurve[sample] * partialOverlap) / sampleLength;
+            }
+
+            bucketedAvailabilityCurve[bucket] = (int)(boundaryEnergy - previousBoundaryEnergy);
+            previousBoundaryEnergy = boundaryEnergy;
+        }
+
+        return bucketedAvailabilityCurve;
+    }
+
+    /**
+     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java">ResourceExchangeArena</a>
+     *
+     * @param availabilityCurve The availability curve read from the configuration file.
+     * @return The total amount of energy to distribute among the Household agents.
+     */
+    private int calculateTotalAvailableEnergy(int[] availabilityCurve) {
+        int totalAvailableEnergy = 0;
+
+        for (int element : availabilityCurve) {
+            totalAvailableEnergy += element;
+        }
+
+        return totalAvailableEnergy;
+    }
+
+    /**
+     * @param input The value of an optional setting in the configuration file.
+     * @param defaultValue The value to use if the setting is missing or left empty.
+     * @return (int) The value of the setting.
+     */
+    private static int inputToOptionalInt(String input, int defaultValue) {
+        if (input == null || input.isBlank()) {
+            return defaultValue;
+        }
+
+        return Integer.parseInt(input.trim());
+    }
+
+    /**
+     * Scrambles a seed with the finaliser of the SplitMix64 generator, so that neighbouring seeds result in unrelated streams.
+     *
+     * @see <a href="https://doi.org/10.1145/2714064.2660195">Steele, Lea, Flood: Fast splittable pseudorandom number generators</a>
+     *
+     * @param seed The value to scramble.
+     * @return (long) The scrambled value.
+     */
+    private static long mixSeed(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Precompiles the roulette wheel that the Advertising agent uses to generate the daily timeslots.
+     *
+     * @return (RouletteWheel) The roulette wheel of the bucketed availability curve.
+     */
+    private RouletteWheel compileAvailabilityWheel() {
+        // If the wheel calculator starts at 0, there will be 25 potential time slots in a day instead of 24
+        return new RouletteWheel(this.bucketedAvailabilityCurve, 1);
+    }
+
+    /**
+     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ResourceExchangeArena.java">ResourceExchangeArena</a>
+     *
+     * @return The number of agents selected for social learning.
+     */
+    private int calculateNumberOfAgentsToEvolve() {
+        return (int)Math.round(((double)this.populationCount / 100.0) * this.evolutionPercentage);
+    }
+}
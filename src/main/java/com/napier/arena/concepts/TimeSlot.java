@@ -5,24 +5,48 @@ import java.util.Objects;
 
 /**
  * Represents an immutable timeslot asset.
+ * A timeslot holds a number of units of energy at the same time of the day, so that any amount of energy is allocated, advertised and traded as a single object.
  *
  * @author László Tárkányi
  */
 public class TimeSlot implements Serializable {
+    public static final double ENERGY_PER_UNIT_KWH = 1.0;
+
     private final int startHour;
-    private final double energyAvailableKwh = 1.0;
+    private final int units;
 
     public TimeSlot(int startHour) {
+        this(startHour, 1);
+    }
+
+    /**
+     * @param startHour The timeslot of the day that the energy is available in, starting from 1.
+     * @param units The number of units of energy in the timeslot.
+     */
+    public TimeSlot(int startHour, int units) {
         this.startHour = startHour;
+        this.units = units;
     }
 
     public int getStartHour() {
         return startHour;
     }
 
+    public int getUnits() {
+        return units;
+    }
+
+    public double getEnergyAvailableKwh() {
+        return this.units * ENERGY_PER_UNIT_KWH;
+    }
+
     @Override
     public String toString() {
-        return Integer.toString(this.startHour);
+        if (this.units == 1) {
+            return Integer.toString(this.startHour);
+        }
+
+        return this.startHour + "x" + this.units;
     }
 
     @Override
@@ -33,11 +57,11 @@ public class TimeSlot implements Serializable {
 
         TimeSlot that = (TimeSlot) object;
 
-        return this.startHour == that.startHour;
+        return this.startHour == that.startHour && this.units == that.units;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(startHour);
+        return Objects.hash(startHour, units);
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,23 @@
 package com.napier.arena.concepts;
 
-import jade.core.AID;
-
 import java.io.Serializable;
 
 /**
  * A wrapper for an exchange of timeslots between two Household agents.
+ * The Household agents are referred to by their household index, which is resolved to an AID only when a message is sent.
  *
  * @author László Tárkányi
  *
- * @param requesterAgent The Household agent that requested the exchange.
- * @param receiverAgent The Household agent that received a request for the exchange.
+ * @param requesterIndex The household index of the Household agent that requested the exchange.
+ * @param receiverIndex The household index of the Household agent that received a request for the exchange.
  * @param timeSlotOffered The timeslot provided by the agent that requested the exchange.
  * @param timeSlotRequested The timeslot desired by the agent that requested the exchange.
  */
 public record TradeOffer (
-        AID requesterAgent,
-        AID receiverAgent,
+        int requesterIndex,
+        int receiverIndex,
         TimeSlot timeSlotOffered,
         TimeSlot timeSlotRequested
 ) implements Serializable {
     // no-op
-}
\ No newline at end of file
+}
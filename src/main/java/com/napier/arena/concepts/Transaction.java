@@ -1,22 +1,20 @@
 package com.napier.arena.concepts;
 
-import jade.core.AID;
-
 /**
  * A wrapper that contains details about the transfer of ownership over timeslots.
  *
  * @author László Tárkányi
  *
- * @param requester
- * @param receiver
+ * @param requester The household index of the Household agent that requested the exchange.
+ * @param receiver The household index of the Household agent that received the request.
  * @param requested
  * @param received
  * @param doesReceiverGainSocialCapita
  * @param doesRequesterLoseSocialCapita
  */
 public record Transaction (
-        AID requester,
-        AID receiver,
+        int requester,
+        int receiver,
         TimeSlot requested,
         TimeSlot received,
         boolean doesReceiverGainSocialCapita,
@@ -1,16 +1,14 @@
 package com.napier.arena.concepts.dataholders;
 
-import com.napier.arena.concepts.AgentContact;
-import com.napier.arena.types.AgentStrategyType;
+import com.napier.arena.structures.OrderStatistics;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 
 /**
  * Calculates and contains statistical data about a simulation run.
  * This class was converted from the original ArrayList implementation in ResourceExchangeArena.
+ * Instead of sorting all satisfactions, only the positions of the sorted satisfactions that the statistics read are selected.
  *
  * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/CalculateSatisfaction.java">ResourceExchangeArena</a>
  *
@@ -24,71 +22,70 @@ public class AgentStatisticalValuesPerStrategyType implements Serializable {
     private final double min;
     private final double median;
 
-    public AgentStatisticalValuesPerStrategyType(ArrayList<AgentContact> householdAgentContacts, AgentStrategyType agentStrategyType) {
-        ArrayList<Double> agentSatisfactions = new ArrayList<>();
-
-        for (AgentContact agentContact : householdAgentContacts) {
-            if (agentContact.getType() == agentStrategyType) {
-                agentSatisfactions.add(agentContact.getCurrentSatisfaction());
-            }
-        }
-
+    /**
+     * @param agentSatisfactions The satisfactions of the Household agents of a strategy type. The array is reordered in place.
+     */
+    public AgentStatisticalValuesPerStrategyType(double[] agentSatisfactions) {
         /*
         The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
         See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Day.java
         */
 
-        Collections.sort(agentSatisfactions);
+        int size = agentSatisfactions.length;
 
-        int size = agentSatisfactions.size();
-        double uq;
-        double lq;
-        double ninetyfifth;
-        double max = size != 0 ? agentSatisfactions.get(size - 1) : 0;
-        double min = size != 0 ? agentSatisfactions.getFirst() : 0;
-        double median;
+        if (size == 0) {
+            this.upperQuarter = 0;
+            this.lowerQuarter = 0;
+            this.ninetyFifthPercentile = 0;
+            this.max = 0;
+            this.min = 0;
+            this.median = 0;
 
-        double[] satArray = new double [size];
-        int i = 0;
-        for (double a : agentSatisfactions) {
-            satArray[i] = a;
-            i++;
+            return;
         }
 
-        double[] lqSet;
-        double[] uqSet;
-
-        if (size != 0) {
-            if (size % 2 == 1) {
-                median = satArray[size / 2];
-                lqSet = Arrays.copyOfRange(satArray, 0, (size / 2));
-                uqSet = Arrays.copyOfRange(satArray, (size / 2) + 1, size);
-            } else {
-                median = (satArray[size / 2] + satArray[(size / 2) - 1]) / 2;
-                lqSet = Arrays.copyOfRange(satArray, 0, size / 2);
-                uqSet = Arrays.copyOfRange(satArray, (size / 2), satArray.length);
-            }
+        // The lower and upper quartile sets are the halves below and above the median, both of the same length
+        int halfSize = size / 2;
+        int upperSetStart = size % 2 == 1 ? halfSize + 1 : halfSize;
+        int percentileIndex = percentileIndex(size);
+
+        // Put the sorted value into every position that the statistics read
+        selectRanks(agentSatisfactions, new int[] {
+                0,
+                size - 1,
+                halfSize,
+                halfSize - 1,
+                halfSize / 2,
+                halfSize / 2 - 1,
+                upperSetStart + halfSize / 2,
+                upperSetStart + halfSize / 2 - 1,
+                percentileIndex,
+                percentileIndex + 1
+        });
 
-            if (lqSet.length % 2 == 1) {
-                lq = lqSet[lqSet.length / 2];
-                uq = 0!= uqSet.length ? uqSet[uqSet.length / 2] : 0;
-            } else {
-                lq = 0 != lqSet.length ? (lqSet[lqSet.length / 2] + lqSet[(lqSet.length / 2) - 1]) / 2 : 0;
-                uq = 0 != uqSet.length ? (uqSet[uqSet.length / 2] + uqSet[(uqSet.length / 2) - 1]) / 2 : 0;
-            }
+        double median;
+        double lq;
+        double uq;
+
+        if (size % 2 == 1) {
+            median = agentSatisfactions[halfSize];
         } else {
-            median = 0;
-            uq = 0;
-            lq = 0;
+            median = (agentSatisfactions[halfSize] + agentSatisfactions[halfSize - 1]) / 2;
         }
 
-        ninetyfifth = size != 0 ? percentile(satArray) : 0;
+        if (halfSize % 2 == 1) {
+            lq = agentSatisfactions[halfSize / 2];
+            uq = agentSatisfactions[upperSetStart + halfSize / 2];
+        } else {
+            lq = 0 != halfSize ? (agentSatisfactions[halfSize / 2] + agentSatisfactions[(halfSize / 2) - 1]) / 2 : 0;
+            uq = 0 != halfSize ? (agentSatisfactions[upperSetStart + halfSize / 2] + agentSatisfactions[upperSetStart + (halfSize / 2) - 1]) / 2 : 0;
+        }
 
         this.upperQuarter = uq;
         this.lowerQuarter = lq;
-        this.ninetyFifthPercentile = ninetyfifth;
-        this.max = max;
-        this.min = min;
+        this.ninetyFifthPercentile = percentile(agentSatisfactions, percentileIndex);
+        this.max = agentSatisfactions[size - 1];
+        this.min = agentSatisfactions[0];
         this.median = median;
     }
 
@@ -116,21 +113,48 @@ public class AgentStatisticalValuesPerStrategyType implements Serializable {
         return median;
     }
 
+    /**
+     * Selects the given positions of the sorted values in ascending order.
+     * Each selection only reorders the values after the previously selected position, so every selected value stays in place.
+     *
+     * @param values The values to select from.
+     * @param ranks The positions to select. Positions outside the array are ignored.
+     */
+    private static void selectRanks(double[] values, int[] ranks) {
+        Arrays.sort(ranks);
+
+        int from = 0;
+
+        for (int rank : ranks) {
+            if (rank >= from && rank < values.length) {
+                OrderStatistics.select(values, from, values.length - 1, rank);
+                from = rank + 1;
+            }
+        }
+    }
+
+    /**
+     * @param size The number of values.
+     * @return (int) The position of the sorted value below the 95th percentile.
+     */
+    private static int percentileIndex(int size) {
+        // The sorted elements in X are taken as the 100(0.5/n)th, 100(1.5/n)th, ..., 100([n – 0.5]/n)th percentiles.
+        return (int) (95 * size / 100.0 - 0.5);
+    }
+
     /**
      * Use linear interpolation to calculate a percentile from an array of data.
      *
      * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/CalculateSatisfaction.java">ResourceExchangeArena</a>
      *
-     * @param xs Array of values from which the percentile is calculated.
+     * @param xs Array of values from which the percentile is calculated. Only the positions i and i + 1 have to hold their sorted values.
+     * @param i The position of the sorted value below the percentile.
      * @return Double value of the percentile requested.
      */
-    private static double percentile(double[] xs) {
-        // The sorted elements in X are taken as the 100(0.5/n)th, 100(1.5/n)th, ..., 100([n – 0.5]/n)th percentiles.
-        int i = (int) (95 * xs.length / 100.0 - 0.5);
-
+    private static double percentile(double[] xs, int i) {
         // Linear interpolation uses linear polynomials to find yi = f(xi), the values of the underlying function
         // Y = f(X) at the points in the vector or array x. Given the data points (x1, y1) and (x2, y2), where
         // y1 = f(x1) and y2 = f(x2), linear interpolation finds y = f(x) for a given x between x1 and x2 as follows:
         return i != (xs.length - 1) ? xs[i] + (xs[i + 1] - xs[i]) * (95 / 100.0 - (i + 0.5) / xs.length) / ((i + 1.5) / xs.length - (i + 0.5) / xs.length) : xs[i];
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.napier.arena.concepts.dataholders;
+
+import com.napier.arena.types.AgentStrategyType;
+
+/**
+ * A wrapper for the takeover data of a finished simulation run, which the summary of the simulation set is calculated from.
+ *
+ * @author László Tárkányi
+ *
+ * @param simulationRun (int) The number of the finished simulation run in the simulation set.
+ * @param takeoverType (AgentStrategyType) The type of agents that took over the population.
+ * @param takeoverDayData (PopulationEndOfDayDataHolder) The data of the population on the day of the takeover.
+ * @param finalDayType (AgentStrategyType) The type of agents that made up the population on the final day of the simulation run.
+ * @param finalDayData (PopulationEndOfDayDataHolder) The data of the population on the final day of the simulation run.
+ */
+public record CompletedRunDataHolder(
+        int simulationRun,
+        AgentStrategyType takeoverType,
+        PopulationEndOfDayDataHolder takeoverDayData,
+        AgentStrategyType finalDayType,
+        PopulationEndOfDayDataHolder finalDayData
+) {
+    // no-op
+}
@@ -17,8 +17,8 @@ import java.util.ArrayList;
  * @param averageSelfishSatisfaction (double) The average satisfaction of the selfish Household agent population.
  * @param averageSocialSatisfactionStandardDeviation The standard deviation of the average satisfaction of the social population.
  * @param averageSelfishSatisfactionStandardDeviation The standard deviation of the average satisfaction of the selfish population.
- * @param socialStatisticalValues (AgentStatisticalValuesPerStrategyType) The daily statistics of the social population.
- * @param selfishStatisticalValues The daily statistics of the selfish population.
+ * @param socialStatisticalValues (AgentStatisticalValuesPerStrategyType or null) The daily statistics of the social population, or null if the daily data is not written.
+ * @param selfishStatisticalValues The daily statistics of the selfish population, or null if the daily data is not written.
  * @param initialRandomAllocationAverageSatisfaction The overall average satisfaction with the initially allocated timeslots.
  * @param optimumAveragePossibleSatisfaction The highest possible average satisfaction that the population can achieve through exchange based on the initially allocated timeslots.
  */
@@ -0,0 +1,34 @@
+package com.napier.arena.output;
+
+import com.napier.arena.types.AgentStrategyType;
+
+/**
+ * A row of the agent data file.
+ *
+ * @author László Tárkányi
+ *
+ * @param currentSimulationRun (int) The number of a given simulation run in a simulation set.
+ * @param currentDay (int) The number of a given day in a simulation run.
+ * @param agentStrategyType (AgentStrategyType) The strategy enum type of the Household agent.
+ * @param currentSatisfaction (double) The satisfaction of the Household agent.
+ * @param numOfDailyRejectedReceivedExchanges (int) The number of trade offers that the agent received and rejected during a given day.
+ * @param numOfDailyRejectedRequestedExchanges (int) The number of trade offers that the agent requested and got rejected during a given day.
+ * @param numOfDailyAcceptedRequestedExchanges (int) The number of trade offers that the agent requested and got accepted during a given day.
+ * @param numOfDailyAcceptedReceivedExchangesWithSocialCapita (int) The number of trade offers that the agent received and accepted during a given day that involved social capita.
+ * @param numOfDailyAcceptedReceivedExchangesWithoutSocialCapita (int) The number of trade offers that the agent received and accepted during a given day that did not involve social capita.
+ * @param currentSocialCapitaBalance (int) The agent's total social capita at the end of a given day.
+ */
+public record AgentDataRow(
+        int currentSimulationRun,
+        int currentDay,
+        AgentStrategyType agentStrategyType,
+        double currentSatisfaction,
+        int numOfDailyRejectedReceivedExchanges,
+        int numOfDailyRejectedRequestedExchanges,
+        int numOfDailyAcceptedRequestedExchanges,
+        int numOfDailyAcceptedReceivedExchangesWithSocialCapita,
+        int numOfDailyAcceptedReceivedExchangesWithoutSocialCapita,
+        int currentSocialCapitaBalance
+) implements OutputRow {
+    // no-op
+}
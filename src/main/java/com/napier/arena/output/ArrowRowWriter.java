@@ -0,0 +1,358 @@
+package com.napier.arena.output;
+
+import com.napier.arena.types.AgentStrategyType;
+import com.napier.arena.types.OutputLevelType;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes output rows into Apache Arrow IPC files, next to or instead of the .csv data files.
+ * The columns have the same names and order as the columns of the .csv data files, but they are typed, so the files can be memory-mapped by pyarrow or pandas without parsing.
+ * Only the data files of the configured output level are created.
+ * The rows are written in record batches. The agent and exchange data files get a batch for each day, the daily data file gets a batch for each simulation run.
+ * An Arrow file can only be read once it has been closed, as the footer that indexes the batches is written last.
+ *
+ * @see <a href="https://arrow.apache.org/docs/format/Columnar.html#ipc-file-format">Apache Arrow: IPC File Format</a>
+ *
+ * @author László Tárkányi
+ */
+public class ArrowRowWriter implements RowWriter {
+    private static final ArrowType INT = new ArrowType.Int(32, true);
+    private static final ArrowType DOUBLE = new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+    private static final ArrowType FLOAT = new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+    private static final ArrowType STRING = ArrowType.Utf8.INSTANCE;
+
+    private static final Schema AGENT_DATA_SCHEMA = new Schema(List.of(
+            Field.notNullable("Simulation Run", INT),
+            Field.notNullable("Day", INT),
+            Field.notNullable("Agent Type", STRING),
+            Field.notNullable("Satisfaction", DOUBLE),
+            Field.notNullable("Rejected Received Exchanges", INT),
+            Field.notNullable("Accepted Received Exchanges", INT),
+            Field.notNullable("Rejected Requested Exchanges", INT),
+            Field.notNullable("Accepted Requested Exchanges", INT),
+            Field.notNullable("Social Capita Exchanges", INT),
+            Field.notNullable("No Social Capita Exchanges", INT),
+            Field.notNullable("Unspent Social Capita", INT)
+    ));
+
+    private static final Schema DAILY_DATA_SCHEMA = new Schema(List.of(
+            Field.notNullable("Simulation Run", INT),
+            Field.notNullable("Day", INT),
+            Field.notNullable("Social Pop", INT),
+            Field.notNullable("Selfish Pop", INT),
+            Field.notNullable("Social Sat", DOUBLE),
+            Field.notNullable("Selfish Sat", DOUBLE),
+            Field.notNullable("Social SD", DOUBLE),
+            Field.notNullable("Selfish SD", DOUBLE),
+            Field.notNullable("Social Upper Quartile", DOUBLE),
+            Field.notNullable("Selfish Upper Quartile", DOUBLE),
+            Field.notNullable("Social Lower Quartile", DOUBLE),
+            Field.notNullable("Selfish Lower Quartile", DOUBLE),
+            Field.notNullable("Social 95th Percentile", DOUBLE),
+            Field.notNullable("Selfish 95th Percentile", DOUBLE),
+            Field.notNullable("Social Max", DOUBLE),
+            Field.notNullable("Selfish Max", DOUBLE),
+            Field.notNullable("Social Min", DOUBLE),
+            Field.notNullable("Selfish Min", DOUBLE),
+            Field.notNullable("Social Median", DOUBLE),
+            Field.notNullable("Selfish Median", DOUBLE),
+            Field.notNullable("Random Allocation Sat", DOUBLE),
+            Field.notNullable("Optimum Allocation Sat", DOUBLE)
+    ));
+
+    private static final Schema EXCHANGE_DATA_SCHEMA = new Schema(List.of(
+            Field.notNullable("Simulation Run", INT),
+            Field.notNullable("Day", INT),
+            Field.notNullable("Round", INT),
+            Field.notNullable("Agent Type", STRING),
+            Field.notNullable("Satisfaction", DOUBLE),
+            Field.notNullable("Average Household Agent CPU Time", FLOAT),
+            Field.notNullable("Average Requester CPU Time", FLOAT),
+            Field.notNullable("Average Receiver CPU Time", FLOAT),
+            Field.notNullable("Average Non-participant CPU Time", FLOAT)
+    ));
+
+    private final BufferAllocator allocator;
+    private final List<ArrowTable> tables;
+    private final ArrowTable agentDataTable;
+    private final ArrowTable dailyDataTable;
+    private final ArrowTable exchangeDataTable;
+    private final byte[][] strategyTypeNames;
+
+    /**
+     * Creates the Arrow data files, overwriting any existing ones with the same name.
+     *
+     * @param folder The folder to create the agentData.arrow, dailyData.arrow and exchangeData.arrow files in.
+     * @param outputLevel The level of detail of the data files, which determines the files that are created.
+     * @throws IOException If a data file cannot be created.
+     */
+    public ArrowRowWriter(File folder, OutputLevelType outputLevel) throws IOException {
+        this.allocator = new RootAllocator();
+        this.tables = new ArrayList<>(3);
+
+        try {
+            this.agentDataTable = outputLevel.includes(OutputLevelType.PER_AGENT) ? this.openTable(new File(folder, "agentData.arrow"), AGENT_DATA_SCHEMA, true) : null;
+            this.dailyDataTable = outputLevel.includes(OutputLevelType.DAILY) ? this.openTable(new File(folder, "dailyData.arrow"), DAILY_DATA_SCHEMA, false) : null;
+            this.exchangeDataTable = outputLevel.includes(OutputLevelType.PER_ROUND) ? this.openTable(new File(folder, "exchangeData.arrow"), EXCHANGE_DATA_SCHEMA, true) : null;
+        } catch (IOException e) {
+            // Release the files that were already created
+            this.close();
+
+            throw e;
+        }
+
+        // Encode the enum names once, the strategy type column holds the same text as the .csv data files
+        AgentStrategyType[] strategyTypes = AgentStrategyType.values();
+        this.strategyTypeNames = new byte[strategyTypes.length][];
+
+        for (AgentStrategyType strategyType : strategyTypes) {
+            this.strategyTypeNames[strategyType.ordinal()] = String.valueOf(strategyType).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public void write(OutputRow row) throws IOException, IllegalArgumentException {
+        switch (row) {
+            case AgentDataRow agentDataRow when this.agentDataTable != null -> this.write(agentDataRow);
+            case DailyDataRow dailyDataRow when this.dailyDataTable != null -> this.write(dailyDataRow);
+            case ExchangeDataRow exchangeDataRow when this.exchangeDataTable != null -> this.write(exchangeDataRow);
+            default -> throw new IllegalArgumentException("No Arrow data file for rows of type " + row.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Writes the rows of the unfinished batches into the data files.
+     * The files still cannot be read until they are closed, and the following rows of the same day start a new batch.
+     */
+    @Override
+    public void flush() throws IOException {
+        for (ArrowTable table : this.tables) {
+            table.writeBatch();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException closeException = null;
+
+        for (ArrowTable table : this.tables) {
+            try {
+                table.close();
+            } catch (IOException e) {
+                closeException = e;
+            }
+        }
+
+        this.tables.clear();
+        this.allocator.close();
+
+        if (closeException != null) {
+            throw closeException;
+        }
+    }
+
+    /* Helpers */
+
+    private void write(AgentDataRow row) throws IOException {
+        ArrowTable table = this.agentDataTable;
+        int i = table.startRow(row.currentSimulationRun(), row.currentDay());
+
+        table.setInt(0, i, row.currentSimulationRun());
+        table.setInt(1, i, row.currentDay());
+        table.setString(2, i, this.strategyTypeNames[row.agentStrategyType().ordinal()]);
+        table.setDouble(3, i, row.currentSatisfaction());
+        table.setInt(4, i, row.numOfDailyRejectedReceivedExchanges());
+        table.setInt(5, i, row.numOfDailyAcceptedReceivedExchangesWithSocialCapita() + row.numOfDailyAcceptedReceivedExchangesWithoutSocialCapita());
+        table.setInt(6, i, row.numOfDailyRejectedRequestedExchanges());
+        table.setInt(7, i, row.numOfDailyAcceptedRequestedExchanges());
+        table.setInt(8, i, row.numOfDailyAcceptedReceivedExchangesWithSocialCapita());
+        table.setInt(9, i, row.numOfDailyAcceptedReceivedExchangesWithoutSocialCapita());
+        table.setInt(10, i, row.currentSocialCapitaBalance());
+    }
+
+    private void write(DailyDataRow row) throws IOException {
+        ArrowTable table = this.dailyDataTable;
+        int i = table.startRow(row.currentSimulationRun(), row.currentDay());
+
+        table.setInt(0, i, row.currentSimulationRun());
+        table.setInt(1, i, row.currentDay());
+        table.setInt(2, i, row.socialPopulationCount());
+        table.setInt(3, i, row.selfishPopulationCount());
+        table.setDouble(4, i, row.averageSocialSatisfaction());
+        table.setDouble(5, i, row.averageSelfishSatisfaction());
+        table.setDouble(6, i, row.averageSocialSatisfactionStandardDeviation());
+        table.setDouble(7, i, row.averageSelfishSatisfactionStandardDeviation());
+        table.setDouble(8, i, row.socialStatisticalValues().getUpperQuarter());
+        table.setDouble(9, i, row.selfishStatisticalValues().getUpperQuarter());
+        table.setDouble(10, i, row.socialStatisticalValues().getLowerQuarter());
+        table.setDouble(11, i, row.selfishStatisticalValues().getLowerQuarter());
+        table.setDouble(12, i, row.socialStatisticalValues().getNinetyFifthPercentile());
+        table.setDouble(13, i, row.selfishStatisticalValues().getNinetyFifthPercentile());
+        table.setDouble(14, i, row.socialStatisticalValues().getMax());
+        table.setDouble(15, i, row.selfishStatisticalValues().getMax());
+        table.setDouble(16, i, row.socialStatisticalValues().getMin());
+        table.setDouble(17, i, row.selfishStatisticalValues().getMin());
+        table.setDouble(18, i, row.socialStatisticalValues().getMedian());
+        table.setDouble(19, i, row.selfishStatisticalValues().getMedian());
+        table.setDouble(20, i, row.initialRandomAllocationAverageSatisfaction());
+        table.setDouble(21, i, row.optimumAveragePossibleSatisfaction());
+    }
+
+    private void write(ExchangeDataRow row) throws IOException {
+        ArrowTable table = this.exchangeDataTable;
+        int i = table.startRow(row.currentSimulationRun(), row.currentDay());
+
+        table.setInt(0, i, row.currentSimulationRun());
+        table.setInt(1, i, row.currentDay());
+        table.setInt(2, i, row.currentExchangeRound());
+        table.setString(3, i, this.strategyTypeNames[row.agentStrategyType().ordinal()]);
+        table.setDouble(4, i, row.averageSatisfactionForType());
+        table.setFloat(5, i, row.averagePerformanceForType());
+        table.setFloat(6, i, row.averageRequesterPerformanceByType());
+        table.setFloat(7, i, row.averageReceiverPerformanceByType());
+        table.setFloat(8, i, row.averageNoTradePerformanceByType());
+    }
+
+    /**
+     * @param file The data file to create.
+     * @param schema The columns of the data file.
+     * @param isBatchedPerDay Whether the rows are batched per day or per simulation run.
+     * @return (ArrowTable) The opened data file.
+     * @throws IOException If the data file cannot be created.
+     */
+    private ArrowTable openTable(File file, Schema schema, boolean isBatchedPerDay) throws IOException {
+        ArrowTable table = new ArrowTable(file, schema, this.allocator, isBatchedPerDay);
+        this.tables.add(table);
+
+        return table;
+    }
+
+    /**
+     * A single Arrow data file and the column vectors of the batch that is being filled.
+     */
+    private static class ArrowTable {
+        private final FileChannel channel;
+        private final VectorSchemaRoot root;
+        private final ArrowFileWriter writer;
+        private final FieldVector[] columns;
+        private final boolean isBatchedPerDay;
+        private int numOfBatchRows;
+        private int batchSimulationRun;
+        private int batchDay;
+
+        private ArrowTable(File file, Schema schema, BufferAllocator allocator, boolean isBatchedPerDay) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.root = VectorSchemaRoot.create(schema, allocator);
+            this.writer = new ArrowFileWriter(this.root, new DictionaryProvider.MapDictionaryProvider(), this.channel);
+            this.isBatchedPerDay = isBatchedPerDay;
+            this.numOfBatchRows = 0;
+
+            // The vectors of the root are reused for every batch
+            this.columns = new FieldVector[schema.getFields().size()];
+
+            for (int i = 0; i < this.columns.length; i++) {
+                this.columns[i] = this.root.getVector(i);
+            }
+
+            try {
+                this.writer.start();
+            } catch (IOException e) {
+                this.root.close();
+                this.channel.close();
+
+                throw e;
+            }
+        }
+
+        /**
+         * Writes the current batch if the row belongs to a new batch.
+         *
+         * @param simulationRun The simulation run of the row.
+         * @param day The day of the row.
+         * @return (int) The position of the row in the current batch.
+         * @throws IOException If the finished batch cannot be written.
+         */
+        private int startRow(int simulationRun, int day) throws IOException {
+            if (this.numOfBatchRows > 0 && (simulationRun != this.batchSimulationRun || (this.isBatchedPerDay && day != this.batchDay))) {
+                this.writeBatch();
+            }
+
+            if (this.numOfBatchRows == 0) {
+                // Release the buffers of the previous batch
+                this.root.allocateNew();
+                this.batchSimulationRun = simulationRun;
+                this.batchDay = day;
+            }
+
+            return this.numOfBatchRows++;
+        }
+
+        private void setInt(int column, int row, int value) {
+            ((IntVector) this.columns[column]).setSafe(row, value);
+        }
+
+        private void setDouble(int column, int row, double value) {
+            ((Float8Vector) this.columns[column]).setSafe(row, value);
+        }
+
+        private void setFloat(int column, int row, float value) {
+            ((Float4Vector) this.columns[column]).setSafe(row, value);
+        }
+
+        private void setString(int column, int row, byte[] value) {
+            ((VarCharVector) this.columns[column]).setSafe(row, value);
+        }
+
+        /**
+         * Writes the rows of the current batch into the file, if there are any.
+         *
+         * @throws IOException If the batch cannot be written.
+         */
+        private void writeBatch() throws IOException {
+            if (this.numOfBatchRows == 0) {
+                return;
+            }
+
+            this.root.setRowCount(this.numOfBatchRows);
+            this.numOfBatchRows = 0;
+            this.writer.writeBatch();
+        }
+
+        /**
+         * Writes the current batch and the footer of the file, then closes it.
+         *
+         * @throws IOException If the file cannot be written.
+         */
+        private void close() throws IOException {
+            try {
+                this.writeBatch();
+                this.writer.end();
+            } finally {
+                this.writer.close();
+                this.root.close();
+                this.channel.close();
+            }
+        }
+    }
+}
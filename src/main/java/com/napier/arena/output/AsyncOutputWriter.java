@@ -0,0 +1,239 @@
+package com.napier.arena.output;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorates a row writer so that it writes the output rows on a dedicated writer thread.
+ * Agents hand their rows to a bounded queue and carry on with the simulation, while the writer thread encodes the rows in batches.
+ * When the queue is full, the agent handing over a row waits for the writer thread instead of dropping the row.
+ *
+ * @author László Tárkányi
+ */
+public class AsyncOutputWriter implements RowWriter {
+    // The most rows the writer thread takes from the queue at once
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final ArrayBlockingQueue<OutputRow> queue;
+    private final RowWriter rowWriter;
+    private final Thread writerThread;
+    private final AtomicLong numOfRowsWritten;
+    private final AtomicLong numOfBlockedAppends;
+    private final AtomicLong numOfDroppedRows;
+    private volatile boolean isClosed;
+
+    /**
+     * Creates the writer and starts its thread.
+     *
+     * @param capacity The number of rows the queue can hold before agents have to wait for the writer thread.
+     * @param rowWriter The writer of the data files. It is only used by the writer thread from now on, so it does not have to be thread-safe.
+     */
+    public AsyncOutputWriter(int capacity, RowWriter rowWriter) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.rowWriter = rowWriter;
+        this.numOfRowsWritten = new AtomicLong();
+        this.numOfBlockedAppends = new AtomicLong();
+        this.numOfDroppedRows = new AtomicLong();
+        this.isClosed = false;
+
+        this.writerThread = new Thread(this::writeRows, "data-output-writer");
+        // Do not keep the application alive if the writer is never closed
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /* Accessors */
+
+    /**
+     * @return (int) The number of rows handed over but not yet written, i.e. how far the writer thread is behind the agents.
+     */
+    public int getLag() {
+        return this.queue.size();
+    }
+
+    public long getNumOfRowsWritten() {
+        return this.numOfRowsWritten.get();
+    }
+
+    /**
+     * @return (long) The number of times an agent had to wait for the writer thread because the queue was full.
+     */
+    public long getNumOfBlockedAppends() {
+        return this.numOfBlockedAppends.get();
+    }
+
+    /**
+     * @return (long) The number of rows that were not written, because the writer was closed or a file could not be written.
+     */
+    public long getNumOfDroppedRows() {
+        return this.numOfDroppedRows.get();
+    }
+
+    /* Mutators */
+
+    /**
+     * Hands a row over to the writer thread.
+     *
+     * @param row The row to write.
+     */
+    @Override
+    public void write(OutputRow row) {
+        if (this.isClosed) {
+            this.numOfDroppedRows.incrementAndGet();
+
+            return;
+        }
+
+        this.enqueue(row);
+    }
+
+    /**
+     * Waits until every row handed over so far is written and the files are flushed.
+     */
+    @Override
+    public void flush() {
+        if (this.isClosed) {
+            return;
+        }
+
+        FlushRequest flushRequest = new FlushRequest(new CountDownLatch(1));
+
+        if (this.enqueue(flushRequest)) {
+            try {
+                flushRequest.done().await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining rows, stops the writer thread and closes the files.
+     */
+    @Override
+    public void close() {
+        if (this.isClosed) {
+            return;
+        }
+
+        this.isClosed = true;
+        this.enqueue(new CloseRequest());
+
+        try {
+            this.writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Rows that were handed over while the writer was closing are never written
+        this.numOfDroppedRows.addAndGet(this.queue.size());
+        this.queue.clear();
+
+        try {
+            this.rowWriter.close();
+        } catch (IOException e) {
+            System.err.println("Error while trying to close the data writers: " + e.getMessage());
+        }
+    }
+
+    /* Helpers */
+
+    /**
+     * Puts a row into the queue, waiting for space if the queue is full.
+     *
+     * @param row The row to put into the queue.
+     * @return (boolean) Whether the row was put into the queue.
+     */
+    private boolean enqueue(OutputRow row) {
+        if (this.queue.offer(row)) {
+            return true;
+        }
+
+        this.numOfBlockedAppends.incrementAndGet();
+
+        try {
+            this.queue.put(row);
+
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.numOfDroppedRows.incrementAndGet();
+
+            return false;
+        }
+    }
+
+    /**
+     * The loop of the writer thread. Takes the rows from the queue in batches until the writer is closed.
+     */
+    private void writeRows() {
+        ArrayList<OutputRow> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        while (true) {
+            try {
+                batch.add(this.queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            this.queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            for (OutputRow row : batch) {
+                if (row instanceof FlushRequest flushRequest) {
+                    this.flushOutputs();
+                    flushRequest.done().countDown();
+                } else if (row instanceof CloseRequest) {
+                    this.flushOutputs();
+
+                    return;
+                } else {
+                    this.writeRow(row);
+                }
+            }
+
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a row with the decorated row writer. The row counts as dropped if it fails to write it.
+     *
+     * @param row The row to write.
+     */
+    private void writeRow(OutputRow row) {
+        try {
+            this.rowWriter.write(row);
+            this.numOfRowsWritten.incrementAndGet();
+        } catch (IOException | IllegalArgumentException e) {
+            this.numOfDroppedRows.incrementAndGet();
+            System.err.println("Error while trying to append data to a data file: " + e.getMessage());
+        }
+    }
+
+    private void flushOutputs() {
+        try {
+            this.rowWriter.flush();
+        } catch (IOException e) {
+            System.err.println("Error while trying to flush the data writers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Asks the writer thread to flush the files, and signals back once it has.
+     *
+     * @param done (CountDownLatch) Counted down by the writer thread after the flush.
+     */
+    private record FlushRequest(CountDownLatch done) implements OutputRow {
+        // no-op
+    }
+
+    /**
+     * Asks the writer thread to flush the files and stop.
+     */
+    private record CloseRequest() implements OutputRow {
+        // no-op
+    }
+}
@@ -0,0 +1,105 @@
+package com.napier.arena.output;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes every output row into each of a list of row writers, so the same data can be written into more than one sink.
+ * A failing row writer does not stop the rows from being written into the others.
+ *
+ * @author László Tárkányi
+ */
+public class ChainedRowWriter implements RowWriter {
+    private final List<RowWriter> rowWriters;
+
+    /**
+     * @param rowWriters The row writers to write the rows into, in the order they are written.
+     */
+    public ChainedRowWriter(List<RowWriter> rowWriters) {
+        this.rowWriters = List.copyOf(rowWriters);
+    }
+
+    /**
+     * @param row The row to write into each of the row writers.
+     * @throws IOException If any of the row writers cannot write the row, after it has been written into the others.
+     * @throws IllegalArgumentException If any of the row writers has no data file for the type of the row, after it has been written into the others.
+     */
+    @Override
+    public void write(OutputRow row) throws IOException, IllegalArgumentException {
+        Exception firstException = null;
+
+        for (RowWriter rowWriter : this.rowWriters) {
+            try {
+                rowWriter.write(row);
+            } catch (IOException | IllegalArgumentException e) {
+                firstException = this.collectException(firstException, e);
+            }
+        }
+
+        this.rethrow(firstException);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        Exception firstException = null;
+
+        for (RowWriter rowWriter : this.rowWriters) {
+            try {
+                rowWriter.flush();
+            } catch (IOException e) {
+                firstException = this.collectException(firstException, e);
+            }
+        }
+
+        this.rethrow(firstException);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Exception firstException = null;
+
+        // Every row writer is closed, even if an earlier one fails to close its files
+        for (RowWriter rowWriter : this.rowWriters) {
+            try {
+                rowWriter.close();
+            } catch (IOException e) {
+                firstException = this.collectException(firstException, e);
+            }
+        }
+
+        this.rethrow(firstException);
+    }
+
+    /* Helpers */
+
+    /**
+     * Keeps the first exception of a chained operation, and attaches the later ones to it.
+     *
+     * @param firstException The first exception of the operation so far, or null if there was none.
+     * @param exception The exception that has just occurred.
+     * @return (Exception) The first exception of the operation.
+     */
+    private Exception collectException(Exception firstException, Exception exception) {
+        if (firstException == null) {
+            return exception;
+        }
+
+        firstException.addSuppressed(exception);
+
+        return firstException;
+    }
+
+    /**
+     * @param exception The first exception of a chained operation, or null if there was none.
+     * @throws IOException If the exception is an IOException.
+     * @throws IllegalArgumentException If the exception is an IllegalArgumentException.
+     */
+    private void rethrow(Exception exception) throws IOException, IllegalArgumentException {
+        switch (exception) {
+            case null -> {}
+            case IOException ioException -> throw ioException;
+            case IllegalArgumentException illegalArgumentException -> throw illegalArgumentException;
+            default -> throw new IllegalStateException(exception);
+        }
+    }
+}
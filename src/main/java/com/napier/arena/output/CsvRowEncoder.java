@@ -0,0 +1,273 @@
+package com.napier.arena.output;
+
+import com.napier.arena.types.AgentStrategyType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes output rows as lines of the .csv data files.
+ * Each line is formatted into a reusable byte buffer without creating a String per field.
+ * The fields are formatted exactly like String.valueOf formats them, so the files stay byte-identical for the scripts that read them.
+ * An encoder is not thread-safe, it should only be used by the writer thread.
+ *
+ * @author László Tárkányi
+ */
+public class CsvRowEncoder {
+    // Double.toString and Float.toString only use plain notation in this range
+    private static final double PLAIN_NOTATION_LIMIT = 1e7;
+
+    private final byte[][] strategyTypeNames;
+    private final StringBuilder decimalBuffer;
+    private byte[] line;
+    private int lineLength;
+
+    public CsvRowEncoder() {
+        // Encode the enum names once, String.valueOf(enum) returns the same text for every row
+        AgentStrategyType[] strategyTypes = AgentStrategyType.values();
+        this.strategyTypeNames = new byte[strategyTypes.length][];
+
+        for (AgentStrategyType strategyType : strategyTypes) {
+            this.strategyTypeNames[strategyType.ordinal()] = String.valueOf(strategyType).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        this.decimalBuffer = new StringBuilder(32);
+        this.line = new byte[256];
+        this.lineLength = 0;
+    }
+
+    /**
+     * Appends an agent data row to the agent data file.
+     *
+     * @param row The row to encode.
+     * @param output The destination of the encoded line.
+     * @throws IOException If the destination cannot be written.
+     */
+    public void encode(AgentDataRow row, OutputStream output) throws IOException {
+        /*
+        The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
+        See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Day.java
+        */
+
+        this.lineLength = 0;
+        this.appendInt(row.currentSimulationRun()).appendSeparator();
+        this.appendInt(row.currentDay()).appendSeparator();
+        this.appendStrategyType(row.agentStrategyType()).appendSeparator();
+        this.appendDouble(row.currentSatisfaction()).appendSeparator();
+        this.appendInt(row.numOfDailyRejectedReceivedExchanges()).appendSeparator();
+        this.appendInt(row.numOfDailyAcceptedReceivedExchangesWithSocialCapita() + row.numOfDailyAcceptedReceivedExchangesWithoutSocialCapita()).appendSeparator();
+        this.appendInt(row.numOfDailyRejectedRequestedExchanges()).appendSeparator();
+        this.appendInt(row.numOfDailyAcceptedRequestedExchanges()).appendSeparator();
+        this.appendInt(row.numOfDailyAcceptedReceivedExchangesWithSocialCapita()).appendSeparator();
+        this.appendInt(row.numOfDailyAcceptedReceivedExchangesWithoutSocialCapita()).appendSeparator();
+        this.appendInt(row.currentSocialCapitaBalance()).endLine(output);
+    }
+
+    /**
+     * Appends a daily data row to the daily data file.
+     *
+     * @param row The row to encode.
+     * @param output The destination of the encoded line.
+     * @throws IOException If the destination cannot be written.
+     */
+    public void encode(DailyDataRow row, OutputStream output) throws IOException {
+        /*
+        The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
+        See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Day.java
+        */
+
+        this.lineLength = 0;
+        this.appendInt(row.currentSimulationRun()).appendSeparator();
+        this.appendInt(row.currentDay()).appendSeparator();
+        this.appendInt(row.socialPopulationCount()).appendSeparator();
+        this.appendInt(row.selfishPopulationCount()).appendSeparator();
+        this.appendDouble(row.averageSocialSatisfaction()).appendSeparator();
+        this.appendDouble(row.averageSelfishSatisfaction()).appendSeparator();
+        this.appendDouble(row.averageSocialSatisfactionStandardDeviation()).appendSeparator();
+        this.appendDouble(row.averageSelfishSatisfactionStandardDeviation()).appendSeparator();
+        this.appendDouble(row.socialStatisticalValues().getUpperQuarter()).appendSeparator();
+        this.appendDouble(row.selfishStatisticalValues().getUpperQuarter()).appendSeparator();
+        this.appendDouble(row.socialStatisticalValues().getLowerQuarter()).appendSeparator();
+        this.appendDouble(row.selfishStatisticalValues().getLowerQuarter()).appendSeparator();
+        this.appendDouble(row.socialStatisticalValues().getNinetyFifthPercentile()).appendSeparator();
+        this.appendDouble(row.selfishStatisticalValues().getNinetyFifthPercentile()).appendSeparator();
+        this.appendDouble(row.socialStatisticalValues().getMax()).appendSeparator();
+        this.appendDouble(row.selfishStatisticalValues().getMax()).appendSeparator();
+        this.appendDouble(row.socialStatisticalValues().getMin()).appendSeparator();
+        this.appendDouble(row.selfishStatisticalValues().getMin()).appendSeparator();
+        this.appendDouble(row.socialStatisticalValues().getMedian()).appendSeparator();
+        this.appendDouble(row.selfishStatisticalValues().getMedian()).appendSeparator();
+        this.appendDouble(row.initialRandomAllocationAverageSatisfaction()).appendSeparator();
+        this.appendDouble(row.optimumAveragePossibleSatisfaction()).endLine(output);
+    }
+
+    /**
+     * Appends an exchange data row to the exchange data file.
+     *
+     * @param row The row to encode.
+     * @param output The destination of the encoded line.
+     * @throws IOException If the destination cannot be written.
+     */
+    public void encode(ExchangeDataRow row, OutputStream output) throws IOException {
+        /*
+        The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
+        See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Exchange.java
+        */
+
+        this.lineLength = 0;
+        this.appendInt(row.currentSimulationRun()).appendSeparator();
+        this.appendInt(row.currentDay()).appendSeparator();
+        this.appendInt(row.currentExchangeRound()).appendSeparator();
+        this.appendStrategyType(row.agentStrategyType()).appendSeparator();
+        this.appendDouble(row.averageSatisfactionForType()).appendSeparator();
+        this.appendFloat(row.averagePerformanceForType()).appendSeparator();
+        this.appendFloat(row.averageRequesterPerformanceByType()).appendSeparator();
+        this.appendFloat(row.averageReceiverPerformanceByType()).appendSeparator();
+        this.appendFloat(row.averageNoTradePerformanceByType()).endLine(output);
+    }
+
+    /* Helpers */
+
+    private CsvRowEncoder appendSeparator() {
+        this.ensureCapacity(1);
+        this.line[this.lineLength++] = ',';
+
+        return this;
+    }
+
+    private void endLine(OutputStream output) throws IOException {
+        this.ensureCapacity(1);
+        this.line[this.lineLength++] = '\n';
+
+        output.write(this.line, 0, this.lineLength);
+    }
+
+    private CsvRowEncoder appendInt(int value) {
+        return this.appendLong(value);
+    }
+
+    /**
+     * Writes the decimal digits of a whole number, the same as Long.toString.
+     *
+     * @param value The number to write.
+     * @return (CsvRowEncoder) This encoder, to append the next field.
+     */
+    private CsvRowEncoder appendLong(long value) {
+        // 19 digits and a sign
+        this.ensureCapacity(20);
+
+        if (value == Long.MIN_VALUE) {
+            return this.appendDecimalBuffer(this.decimalBuffer.append(value));
+        }
+
+        if (value < 0) {
+            this.line[this.lineLength++] = '-';
+            value = -value;
+        }
+
+        // Write the digits from the last one, then reverse them in place
+        int start = this.lineLength;
+
+        do {
+            this.line[this.lineLength++] = (byte)('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+
+        for (int i = start, j = this.lineLength - 1; i < j; i++, j--) {
+            byte swapped = this.line[i];
+            this.line[i] = this.line[j];
+            this.line[j] = swapped;
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes a double the same as Double.toString, which gives the shortest decimal that rounds back to the same double.
+     * Whole numbers are written directly, every other value is formatted by the JDK into a reused buffer.
+     *
+     * @param value The number to write.
+     * @return (CsvRowEncoder) This encoder, to append the next field.
+     */
+    private CsvRowEncoder appendDouble(double value) {
+        if (isPlainWholeNumber(value)) {
+            return this.appendPlainWholeNumber(value);
+        }
+
+        return this.appendDecimalBuffer(this.decimalBuffer.append(value));
+    }
+
+    /**
+     * Writes a float the same as Float.toString, which gives the shortest decimal that rounds back to the same float.
+     *
+     * @param value The number to write.
+     * @return (CsvRowEncoder) This encoder, to append the next field.
+     */
+    private CsvRowEncoder appendFloat(float value) {
+        if (isPlainWholeNumber(value)) {
+            return this.appendPlainWholeNumber(value);
+        }
+
+        return this.appendDecimalBuffer(this.decimalBuffer.append(value));
+    }
+
+    private CsvRowEncoder appendStrategyType(AgentStrategyType strategyType) {
+        if (strategyType == null) {
+            return this.appendDecimalBuffer(this.decimalBuffer.append("null"));
+        }
+
+        byte[] name = this.strategyTypeNames[strategyType.ordinal()];
+
+        this.ensureCapacity(name.length);
+        System.arraycopy(name, 0, this.line, this.lineLength, name.length);
+        this.lineLength += name.length;
+
+        return this;
+    }
+
+    /**
+     * @param value The number to check.
+     * @return (boolean) Whether the number is written as its digits followed by ".0", such as 3.0 or -12.0.
+     */
+    private static boolean isPlainWholeNumber(double value) {
+        // Zero is left to the JDK, as it has to keep the sign of -0.0
+        return value != 0 && value == Math.rint(value) && Math.abs(value) < PLAIN_NOTATION_LIMIT;
+    }
+
+    private CsvRowEncoder appendPlainWholeNumber(double value) {
+        this.appendLong((long)value);
+        this.ensureCapacity(2);
+        this.line[this.lineLength++] = '.';
+        this.line[this.lineLength++] = '0';
+
+        return this;
+    }
+
+    /**
+     * Copies the text formatted into the decimal buffer to the line and empties the buffer.
+     *
+     * @param formattedValue The decimal buffer, holding ASCII text only.
+     * @return (CsvRowEncoder) This encoder, to append the next field.
+     */
+    private CsvRowEncoder appendDecimalBuffer(StringBuilder formattedValue) {
+        int length = formattedValue.length();
+
+        this.ensureCapacity(length);
+
+        for (int i = 0; i < length; i++) {
+            this.line[this.lineLength++] = (byte)formattedValue.charAt(i);
+        }
+
+        formattedValue.setLength(0);
+
+        return this;
+    }
+
+    private void ensureCapacity(int numOfBytes) {
+        if (this.lineLength + numOfBytes > this.line.length) {
+            this.line = Arrays.copyOf(this.line, Math.max(this.line.length * 2, this.lineLength + numOfBytes));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.napier.arena.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes output rows as lines of the .csv data files.
+ * Only the data files of the configured output level are written, the others have no output stream.
+ *
+ * @author László Tárkányi
+ */
+public class CsvRowWriter implements RowWriter {
+    private final OutputStream agentDataOutput;
+    private final OutputStream dailyDataOutput;
+    private final OutputStream exchangeDataOutput;
+    private final List<OutputStream> outputs;
+    private final CsvRowEncoder encoder;
+
+    /**
+     * @param agentDataOutput The destination of the agent data rows, or null if they are not written. Should be buffered, it is only flushed on request.
+     * @param dailyDataOutput The destination of the daily data rows, or null if they are not written. Should be buffered, it is only flushed on request.
+     * @param exchangeDataOutput The destination of the exchange data rows, or null if they are not written. Should be buffered, it is only flushed on request.
+     */
+    public CsvRowWriter(OutputStream agentDataOutput, OutputStream dailyDataOutput, OutputStream exchangeDataOutput) {
+        this.agentDataOutput = agentDataOutput;
+        this.dailyDataOutput = dailyDataOutput;
+        this.exchangeDataOutput = exchangeDataOutput;
+        this.outputs = new ArrayList<>(3);
+        this.encoder = new CsvRowEncoder();
+
+        for (OutputStream output : new OutputStream[] { agentDataOutput, dailyDataOutput, exchangeDataOutput }) {
+            if (output != null) {
+                this.outputs.add(output);
+            }
+        }
+    }
+
+    @Override
+    public void write(OutputRow row) throws IOException, IllegalArgumentException {
+        switch (row) {
+            case AgentDataRow agentDataRow when this.agentDataOutput != null -> this.encoder.encode(agentDataRow, this.agentDataOutput);
+            case DailyDataRow dailyDataRow when this.dailyDataOutput != null -> this.encoder.encode(dailyDataRow, this.dailyDataOutput);
+            case ExchangeDataRow exchangeDataRow when this.exchangeDataOutput != null -> this.encoder.encode(exchangeDataRow, this.exchangeDataOutput);
+            default -> throw new IllegalArgumentException("No .csv data file for rows of type " + row.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (OutputStream output : this.outputs) {
+            output.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException firstException = null;
+
+        // Every data file is closed, even if an earlier one fails to close
+        for (OutputStream output : this.outputs) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                if (firstException == null) {
+                    firstException = e;
+                } else {
+                    firstException.addSuppressed(e);
+                }
+            }
+        }
+
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+}
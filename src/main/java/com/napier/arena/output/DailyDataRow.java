@@ -0,0 +1,38 @@
+package com.napier.arena.output;
+
+import com.napier.arena.concepts.dataholders.AgentStatisticalValuesPerStrategyType;
+
+/**
+ * A row of the daily data file.
+ *
+ * @author László Tárkányi
+ *
+ * @param currentSimulationRun (int) The number of a given simulation run in a simulation set.
+ * @param currentDay (int) The number of a given day in a simulation run.
+ * @param socialPopulationCount (int) The number of Household agents with a social strategy type at the end of a given day.
+ * @param selfishPopulationCount (int) The number of Household agents with a selfish strategy type at the end of a given day.
+ * @param averageSocialSatisfaction (double) The average satisfaction of all social Household agents.
+ * @param averageSelfishSatisfaction (double) The average satisfaction of all selfish Household agents.
+ * @param averageSocialSatisfactionStandardDeviation (double) The standard deviation of the average satisfaction of the social Household agent population.
+ * @param averageSelfishSatisfactionStandardDeviation (double) The standard deviation of the average satisfaction of the selfish Household agent population.
+ * @param socialStatisticalValues (AgentStatisticalValuesPerStrategyType) Statistical values of the social Household agent population.
+ * @param selfishStatisticalValues (AgentStatisticalValuesPerStrategyType) Statistical values of the selfish Household agent population.
+ * @param initialRandomAllocationAverageSatisfaction (double) The average satisfaction of the whole agent population regarding the timeslots that were initially allocated to them at the start of the day.
+ * @param optimumAveragePossibleSatisfaction (double) The highest possible average satisfaction the agent population could achieve during a given day, based on the initial timeslot allocations.
+ */
+public record DailyDataRow(
+        int currentSimulationRun,
+        int currentDay,
+        int socialPopulationCount,
+        int selfishPopulationCount,
+        double averageSocialSatisfaction,
+        double averageSelfishSatisfaction,
+        double averageSocialSatisfactionStandardDeviation,
+        double averageSelfishSatisfactionStandardDeviation,
+        AgentStatisticalValuesPerStrategyType socialStatisticalValues,
+        AgentStatisticalValuesPerStrategyType selfishStatisticalValues,
+        double initialRandomAllocationAverageSatisfaction,
+        double optimumAveragePossibleSatisfaction
+) implements OutputRow {
+    // no-op
+}
@@ -0,0 +1,24 @@
+package com.napier.arena.output;
+
+/**
+ * Discards every output row, so that the throughput of the simulation can be measured without the cost of writing the data.
+ * The rows are still created by the agents, only the encoding and the disk I/O are left out.
+ *
+ * @author László Tárkányi
+ */
+public class DiscardRowWriter implements RowWriter {
+    @Override
+    public void write(OutputRow row) {
+        // no-op
+    }
+
+    @Override
+    public void flush() {
+        // no-op
+    }
+
+    @Override
+    public void close() {
+        // no-op
+    }
+}
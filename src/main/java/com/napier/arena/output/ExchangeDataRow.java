@@ -0,0 +1,32 @@
+package com.napier.arena.output;
+
+import com.napier.arena.types.AgentStrategyType;
+
+/**
+ * A row of the exchange data file.
+ *
+ * @author László Tárkányi
+ *
+ * @param currentSimulationRun (int) The number of a given simulation run in a simulation set.
+ * @param currentDay (int) The number of a given day in a simulation run.
+ * @param currentExchangeRound (int) The number of a given exchange round in a day.
+ * @param agentStrategyType (AgentStrategyType) A type of Household agents participating in the exchange round.
+ * @param averageSatisfactionForType (double) The average satisfaction in the given type population of Household agents.
+ * @param averagePerformanceForType (float) The average CPU time spent on the exchange round for a given type of Household agents.
+ * @param averageRequesterPerformanceByType (float) The average CPU time that an agent that requested a trade spent on the exchange round.
+ * @param averageReceiverPerformanceByType (float) The average CPU time that an agent that received a trade offer spent on the exchange round.
+ * @param averageNoTradePerformanceByType (float) The average CPU time that an agent that neither requested nor received a trade offer spent on the exchange round.
+ */
+public record ExchangeDataRow(
+        int currentSimulationRun,
+        int currentDay,
+        int currentExchangeRound,
+        AgentStrategyType agentStrategyType,
+        double averageSatisfactionForType,
+        float averagePerformanceForType,
+        float averageRequesterPerformanceByType,
+        float averageReceiverPerformanceByType,
+        float averageNoTradePerformanceByType
+) implements OutputRow {
+    // no-op
+}
@@ -0,0 +1,68 @@
+package com.napier.arena.output;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the output rows in memory instead of writing them into data files, so that they can be inspected after a simulation set.
+ * The rows are kept until the writer is cleared, so it is only suited to simulation sets whose data fits into the heap.
+ *
+ * @author László Tárkányi
+ */
+public class InMemoryRowWriter implements RowWriter {
+    private final List<OutputRow> rows;
+
+    public InMemoryRowWriter() {
+        this.rows = new ArrayList<>();
+    }
+
+    /* Accessors */
+
+    /**
+     * @return (List of OutputRows) A copy of the rows written so far, in the order they were written.
+     */
+    public synchronized List<OutputRow> getRows() {
+        return List.copyOf(this.rows);
+    }
+
+    /**
+     * @param rowType The type of the rows to find.
+     * @return (List of rows of the given type) A copy of the rows of the given type written so far, in the order they were written.
+     * @param <T> The type of the rows to find.
+     */
+    public synchronized <T extends OutputRow> List<T> getRows(Class<T> rowType) {
+        List<T> rowsOfType = new ArrayList<>();
+
+        for (OutputRow row : this.rows) {
+            if (rowType.isInstance(row)) {
+                rowsOfType.add(rowType.cast(row));
+            }
+        }
+
+        return rowsOfType;
+    }
+
+    /* Mutators */
+
+    @Override
+    public synchronized void write(OutputRow row) {
+        this.rows.add(row);
+    }
+
+    @Override
+    public void flush() {
+        // no-op
+    }
+
+    /**
+     * Keeps the rows written so far, they can still be read after the writer is closed.
+     */
+    @Override
+    public void close() {
+        // no-op
+    }
+
+    public synchronized void clear() {
+        this.rows.clear();
+    }
+}
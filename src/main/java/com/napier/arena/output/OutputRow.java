@@ -0,0 +1,11 @@
+package com.napier.arena.output;
+
+/**
+ * A row of statistical data that is handed to the output writer.
+ * Rows are immutable, so they can be created on an agent thread and encoded on the writer thread.
+ *
+ * @author László Tárkányi
+ */
+public interface OutputRow {
+    // no-op
+}
@@ -0,0 +1,33 @@
+package com.napier.arena.output;
+
+import java.io.IOException;
+
+/**
+ * The sink that the data output writes the output rows into, such as the data files of a single file format.
+ * Row writers can be chained to write the same rows into more than one sink, and decorated to write them on a separate thread.
+ * A row writer decorated by the asynchronous output writer is only used by its writer thread, so it does not have to be thread-safe.
+ *
+ * @author László Tárkányi
+ */
+public interface RowWriter {
+    /**
+     * @param row The row to write into the data file it belongs to.
+     * @throws IOException If the data file cannot be written.
+     * @throws IllegalArgumentException If the writer has no data file for the type of the row.
+     */
+    void write(OutputRow row) throws IOException, IllegalArgumentException;
+
+    /**
+     * Writes everything buffered so far into the data files.
+     *
+     * @throws IOException If a data file cannot be written.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Writes everything buffered so far into the data files and closes them.
+     *
+     * @throws IOException If a data file cannot be written or closed.
+     */
+    void close() throws IOException;
+}
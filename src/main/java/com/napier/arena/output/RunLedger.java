@@ -0,0 +1,116 @@
+package com.napier.arena.output;
+
+import com.napier.arena.concepts.dataholders.CompletedRunDataHolder;
+import com.napier.arena.concepts.dataholders.PopulationEndOfDayDataHolder;
+import com.napier.arena.types.AgentStrategyType;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The record of the simulation runs that were completed in a simulation set, kept in the completedRuns.csv file of its data folder.
+ * Each line holds the takeover data of a run, so the summary of the simulation set can be calculated again when the simulation set is resumed, without simulating the completed runs again.
+ * The values are written with full precision, so a resumed simulation set has the same summary as one that was not interrupted.
+ *
+ * @author László Tárkányi
+ */
+public class RunLedger {
+    public static final String LEDGER_FILE_NAME = "completedRuns.csv";
+
+    private static final String HEADER = "Simulation Run,Takeover Type,Takeover Day,Takeover Satisfaction,Takeover SD,Final Day Type,Final Day,Final Satisfaction,Final SD";
+
+    /**
+     * Replaces the ledger with the given runs, or with an empty one if there are none.
+     *
+     * @param dataFolder The data folder of a simulation set.
+     * @param completedRuns The runs to keep in the ledger, in the order of the simulation runs.
+     * @throws IOException If the ledger cannot be written.
+     */
+    public static void write(File dataFolder, List<CompletedRunDataHolder> completedRuns) throws IOException {
+        try (FileWriter ledgerWriter = new FileWriter(new File(dataFolder, LEDGER_FILE_NAME))) {
+            ledgerWriter.write(HEADER + "\n");
+
+            for (CompletedRunDataHolder completedRun : completedRuns) {
+                ledgerWriter.write(toLine(completedRun));
+            }
+        }
+    }
+
+    /**
+     * Adds a run to the ledger. Should only be called once every result of the run has been written.
+     *
+     * @param dataFolder The data folder of a simulation set.
+     * @param completedRun The takeover data of the completed run.
+     * @throws IOException If the ledger cannot be written.
+     */
+    public static void append(File dataFolder, CompletedRunDataHolder completedRun) throws IOException {
+        // The ledger is only open while a line is appended, so it stays readable if the simulation crashes
+        try (FileWriter ledgerWriter = new FileWriter(new File(dataFolder, LEDGER_FILE_NAME), true)) {
+            ledgerWriter.write(toLine(completedRun));
+        }
+    }
+
+    /**
+     * @param dataFolder The data folder of a simulation set.
+     * @return (List of CompletedRunDataHolders) The runs in the ledger in the order of the simulation runs, or an empty list if there is no ledger.
+     * @throws IOException If the ledger cannot be read.
+     * @throws IllegalArgumentException If a line of the ledger is not in the expected format.
+     */
+    public static List<CompletedRunDataHolder> read(File dataFolder) throws IOException, IllegalArgumentException {
+        File ledgerFile = new File(dataFolder, LEDGER_FILE_NAME);
+        List<CompletedRunDataHolder> completedRuns = new ArrayList<>();
+
+        if (!ledgerFile.exists()) {
+            return completedRuns;
+        }
+
+        for (String line : Files.readAllLines(ledgerFile.toPath(), StandardCharsets.US_ASCII)) {
+            if (line.isBlank() || line.equals(HEADER)) {
+                continue;
+            }
+
+            String[] values = line.split(",");
+
+            if (values.length != 9) {
+                throw new IllegalArgumentException("Unexpected line in " + LEDGER_FILE_NAME + ": " + line);
+            }
+
+            int simulationRun = Integer.parseInt(values[0]);
+
+            completedRuns.add(new CompletedRunDataHolder(
+                    simulationRun,
+                    AgentStrategyType.valueOf(values[1]),
+                    new PopulationEndOfDayDataHolder(simulationRun, Integer.parseInt(values[2]), Double.parseDouble(values[3]), Double.parseDouble(values[4])),
+                    AgentStrategyType.valueOf(values[5]),
+                    new PopulationEndOfDayDataHolder(simulationRun, Integer.parseInt(values[6]), Double.parseDouble(values[7]), Double.parseDouble(values[8]))
+            ));
+        }
+
+        completedRuns.sort(Comparator.comparingInt(CompletedRunDataHolder::simulationRun));
+
+        return completedRuns;
+    }
+
+    /* Helpers */
+
+    private static String toLine(CompletedRunDataHolder completedRun) {
+        PopulationEndOfDayDataHolder takeoverDayData = completedRun.takeoverDayData();
+        PopulationEndOfDayDataHolder finalDayData = completedRun.finalDayData();
+
+        return completedRun.simulationRun() + ","
+                + completedRun.takeoverType() + ","
+                + takeoverDayData.day() + ","
+                + takeoverDayData.averageSatisfaction() + ","
+                + takeoverDayData.averageSatisfactionStandardDeviation() + ","
+                + completedRun.finalDayType() + ","
+                + finalDayData.day() + ","
+                + finalDayData.averageSatisfaction() + ","
+                + finalDayData.averageSatisfactionStandardDeviation() + "\n";
+    }
+}
@@ -0,0 +1,199 @@
+package com.napier.arena.output;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The layout of the data files when each simulation run is written into a separate partition folder: data/run=[number]/[data file].
+ * Every partition is written independently, so a crash only loses the data of the unfinished run.
+ * The manifest lists the partitions that were completed, and the .csv data files of those partitions can be merged into the single file layout of unpartitioned data.
+ * Arrow partitions are not merged, pyarrow reads the partition folders as a single dataset with hive partitioning.
+ *
+ * @author László Tárkányi
+ */
+public class RunPartitions {
+    public static final String PARTITION_FOLDER_PREFIX = "run=";
+    public static final String MANIFEST_FILE_NAME = "manifest.txt";
+
+    private static final String[] DATA_FILE_NAMES = { "agentData", "dailyData", "exchangeData" };
+    private static final String[] CSV_FILE_EXTENSIONS = { ".csv", ".csv.gz" };
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Merges the .csv data files of the completed partitions into the single file layout.
+     *
+     * @param args The path of the data folder that contains the partition folders.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: RunPartitions <path of the data folder>");
+
+            return;
+        }
+
+        File dataFolder = new File(args[0]);
+
+        try {
+            List<Integer> completedRuns = readManifest(dataFolder);
+
+            if (completedRuns.isEmpty()) {
+                System.err.println("There are no completed partitions listed in " + new File(dataFolder, MANIFEST_FILE_NAME));
+
+                return;
+            }
+
+            File firstPartitionFolder = getPartitionFolder(dataFolder, completedRuns.getFirst());
+
+            for (String dataFileName : DATA_FILE_NAMES) {
+                for (String fileExtension : CSV_FILE_EXTENSIONS) {
+                    if (new File(firstPartitionFolder, dataFileName + fileExtension).exists()) {
+                        File mergedFile = mergeDataFile(dataFolder, dataFileName + fileExtension);
+                        System.out.println("Merged " + completedRuns.size() + " partitions into " + mergedFile);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error while trying to merge the partitions of the data files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param dataFolder The data folder of a simulation set.
+     * @param simulationRun The number of the simulation run.
+     * @return (File) The folder that the data files of the simulation run are written into.
+     */
+    public static File getPartitionFolder(File dataFolder, int simulationRun) {
+        return new File(dataFolder, PARTITION_FOLDER_PREFIX + simulationRun);
+    }
+
+    /**
+     * Creates an empty manifest, or empties an existing one, so that the partitions of an earlier simulation set in the same folder are not listed.
+     *
+     * @param dataFolder The data folder of a simulation set.
+     * @throws IOException If the manifest cannot be written.
+     */
+    public static void clearManifest(File dataFolder) throws IOException {
+        new FileWriter(new File(dataFolder, MANIFEST_FILE_NAME)).close();
+    }
+
+    /**
+     * Lists a partition in the manifest. Should only be called once every data file of the partition is closed.
+     *
+     * @param dataFolder The data folder of a simulation set.
+     * @param simulationRun The number of the simulation run whose partition is completed.
+     * @throws IOException If the manifest cannot be written.
+     */
+    public static void recordCompletedPartition(File dataFolder, int simulationRun) throws IOException {
+        // The manifest is only open while a line is appended, so it stays readable if the simulation crashes
+        try (FileWriter manifestWriter = new FileWriter(new File(dataFolder, MANIFEST_FILE_NAME), true)) {
+            manifestWriter.write(PARTITION_FOLDER_PREFIX + simulationRun + "\n");
+        }
+    }
+
+    /**
+     * @param dataFolder The data folder of a simulation set.
+     * @return (List of Integers) The numbers of the simulation runs whose partitions are completed, in ascending order, or an empty list if there is no manifest.
+     * @throws IOException If the manifest cannot be read.
+     */
+    public static List<Integer> readManifest(File dataFolder) throws IOException {
+        File manifestFile = new File(dataFolder, MANIFEST_FILE_NAME);
+        TreeSet<Integer> completedRuns = new TreeSet<>();
+
+        if (!manifestFile.exists()) {
+            return new ArrayList<>(completedRuns);
+        }
+
+        for (String line : Files.readAllLines(manifestFile.toPath(), StandardCharsets.US_ASCII)) {
+            if (line.startsWith(PARTITION_FOLDER_PREFIX)) {
+                completedRuns.add(Integer.parseInt(line.substring(PARTITION_FOLDER_PREFIX.length()).trim()));
+            }
+        }
+
+        return new ArrayList<>(completedRuns);
+    }
+
+    /**
+     * Merges a .csv data file of the completed partitions into a single file in the data folder, in the order of the simulation runs.
+     * The merged file is the same as the data file that is written without partitions: the header of the first partition followed by the rows of every partition.
+     * The merged file replaces an existing one only once it is complete.
+     *
+     * @param dataFolder The data folder of a simulation set.
+     * @param fileName The name of the data file in the partition folders, such as dailyData.csv or dailyData.csv.gz.
+     * @return (File) The merged data file.
+     * @throws IOException If a partition is missing the data file, or a file cannot be read or written.
+     */
+    public static File mergeDataFile(File dataFolder, String fileName) throws IOException {
+        boolean isCompressed = fileName.endsWith(".gz");
+        File mergedFile = new File(dataFolder, fileName);
+        File temporaryFile = new File(dataFolder, fileName + ".tmp");
+        boolean isHeaderWritten = false;
+
+        try (OutputStream output = openOutput(temporaryFile, isCompressed)) {
+            for (int simulationRun : readManifest(dataFolder)) {
+                File partitionFile = new File(getPartitionFolder(dataFolder, simulationRun), fileName);
+
+                if (!partitionFile.exists()) {
+                    throw new FileNotFoundException("The completed partition of run " + simulationRun + " has no " + fileName + " file.");
+                }
+
+                try (InputStream input = openInput(partitionFile, isCompressed)) {
+                    // Only the first partition's header is kept
+                    if (isHeaderWritten) {
+                        skipLine(input);
+                    }
+
+                    input.transferTo(output);
+                    isHeaderWritten = true;
+                }
+            }
+        }
+
+        Files.move(temporaryFile.toPath(), mergedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        return mergedFile;
+    }
+
+    /* Helpers */
+
+    private static InputStream openInput(File file, boolean isCompressed) throws IOException {
+        InputStream input = new FileInputStream(file);
+
+        return new BufferedInputStream(isCompressed ? new GZIPInputStream(input, BUFFER_SIZE) : input, BUFFER_SIZE);
+    }
+
+    private static OutputStream openOutput(File file, boolean isCompressed) throws IOException {
+        OutputStream output = new FileOutputStream(file);
+
+        return new BufferedOutputStream(isCompressed ? new GZIPOutputStream(output, BUFFER_SIZE) : output, BUFFER_SIZE);
+    }
+
+    /**
+     * Reads the input up to and including the next line break.
+     *
+     * @param input The input to skip a line of. Should be buffered, it is read a byte at a time.
+     * @throws IOException If the input cannot be read.
+     */
+    private static void skipLine(InputStream input) throws IOException {
+        int nextByte = input.read();
+
+        while (nextByte != -1 && nextByte != '\n') {
+            nextByte = input.read();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.napier.arena.output;
+
+import com.napier.arena.concepts.SimulationConfiguration;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A content-addressed cache of the results of simulation sets.
+ * The results of a simulation set only depend on the result settings of its configuration snapshot, its seed and the code of the application,
+ * so a simulation set whose SHA-256 hash of these matches a cached entry can be restored by copying its results instead of simulating it again.
+ * Each entry is a copy of the results folder of a simulation set, stored in a folder named after the hash.
+ *
+ * @author László Tárkányi
+ */
+public class SimulationSetCache {
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    // The hash of the code of the application is only calculated once per execution, and only if a simulation set is cached
+    private static String codeVersion;
+    private static String codeStamp;
+
+    private final Path cacheFolder;
+
+    /**
+     * @param cacheFolder The folder that contains the cache entries. It is created when the first entry is stored.
+     */
+    public SimulationSetCache(Path cacheFolder) {
+        this.cacheFolder = cacheFolder;
+    }
+
+    /* Accessors */
+
+    /**
+     * Calculates the hash of the code of the application: the jar file it runs from, or every file in its folder of compiled classes.
+     * Any change to the code results in a different hash, so it is part of the keys of everything cached from the results of the code.
+     *
+     * @return (String or null) The hexadecimal hash of the code, or null if the location of the code cannot be read.
+     */
+    public static synchronized String getCodeVersion() {
+        if (codeVersion != null) {
+            return codeVersion;
+        }
+
+        try {
+            Path codePath = getCodePath();
+            MessageDigest messageDigest = createMessageDigest();
+
+            if (Files.isDirectory(codePath)) {
+                // Hash the files in a fixed order, with their relative paths, so that renaming or moving a class changes the hash too
+                List<Path> codeFiles;
+
+                try (Stream<Path> paths = Files.walk(codePath)) {
+                    codeFiles = paths.filter(Files::isRegularFile).sorted().toList();
+                }
+
+                for (Path codeFile : codeFiles) {
+                    messageDigest.update(codePath.relativize(codeFile).toString().replace(File.separatorChar, '/').getBytes(StandardCharsets.UTF_8));
+                    digestFile(messageDigest, codeFile);
+                }
+            } else {
+                digestFile(messageDigest, codePath);
+            }
+
+            codeVersion = HexFormat.of().formatHex(messageDigest.digest());
+        } catch (IOException e) {
+            System.err.println("Nothing will be cached: the application code could not be read: " + e.getMessage());
+        }
+
+        return codeVersion;
+    }
+
+    /**
+     * Describes the code of the application by the size and modification time of the jar file it runs from,
+     * or by the number of files in its folder of compiled classes and the latest modification time among them.
+     * Unlike the code version, none of the files are read, so it is cheap enough to calculate on every launch.
+     * Rebuilding the code changes the description, even if the code itself is the same.
+     *
+     * @return (String) The size and modification time of the code.
+     * @throws IOException If the location or the attributes of the code cannot be read.
+     */
+    public static synchronized String getCodeStamp() throws IOException {
+        if (codeStamp != null) {
+            return codeStamp;
+        }
+
+        Path codePath = getCodePath();
+
+        if (Files.isDirectory(codePath)) {
+            long numOfCodeFiles = 0;
+            long lastModifiedTime = 0;
+
+            try (Stream<Path> paths = Files.walk(codePath)) {
+                for (Path codeFile : paths.filter(Files::isRegularFile).toList()) {
+                    numOfCodeFiles++;
+                    lastModifiedTime = Math.max(lastModifiedTime, Files.getLastModifiedTime(codeFile).toMillis());
+                }
+            }
+
+            codeStamp = numOfCodeFiles + ":" + lastModifiedTime;
+        } else {
+            codeStamp = Files.size(codePath) + ":" + Files.getLastModifiedTime(codePath).toMillis();
+        }
+
+        return codeStamp;
+    }
+
+    /**
+     * Calculates the key of a simulation set from the configuration snapshot it starts with.
+     * Only the settings and values of the snapshot that the results depend on are hashed, so changing how the simulation set is run, such as resuming or visualisation, still finds the cached results.
+     * A demand curve library is not part of the snapshot, so its size and modification time are hashed instead.
+     *
+     * @param config The configuration snapshot of the first run of the simulation set.
+     * @return (String or null) The hexadecimal hash of the inputs of the simulation set, or null if the version of the code cannot be determined.
+     * @throws IOException If the snapshot or the demand curve library cannot be read.
+     */
+    public String calculateKey(SimulationConfiguration config) throws IOException {
+        String codeVersion = getCodeVersion();
+
+        if (codeVersion == null) {
+            return null;
+        }
+
+        MessageDigest messageDigest = createMessageDigest();
+        messageDigest.update(codeVersion.getBytes(StandardCharsets.UTF_8));
+        messageDigest.update(Long.toString(config.getCurrentSeed()).getBytes(StandardCharsets.UTF_8));
+
+        try (DataOutputStream output = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), messageDigest))) {
+            config.writeResultSettings(output);
+        }
+
+        if (config.isDemandCurveLibraryUsed()) {
+            Path demandCurveLibraryPath = Path.of(config.getDemandCurveLibraryPath());
+            messageDigest.update((Files.size(demandCurveLibraryPath) + ":" + Files.getLastModifiedTime(demandCurveLibraryPath).toMillis()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    /**
+     * Replaces the contents of the results folder of a simulation set with its cached results.
+     * The folder is emptied first, so no partitions, completed runs or merged files of an earlier simulation set are left next to the restored results.
+     *
+     * @param key The key of the simulation set.
+     * @param resultsFolder The folder the results of the simulation set are written into.
+     * @return (boolean) Whether the results were found in the cache and restored.
+     * @throws IOException If the cached results cannot be copied.
+     */
+    public boolean restore(String key, Path resultsFolder) throws IOException {
+        Path entryFolder = this.cacheFolder.resolve(key);
+
+        if (!Files.isDirectory(entryFolder)) {
+            return false;
+        }
+
+        if (Files.exists(resultsFolder)) {
+            deleteFolder(resultsFolder);
+        }
+
+        copyFolder(entryFolder, resultsFolder);
+
+        return true;
+    }
+
+    /* Mutators */
+
+    /**
+     * Stores a copy of the results of a finished simulation set in the cache.
+     * The copy is made in a temporary folder first, so that an interrupted copy does not leave an incomplete entry behind.
+     *
+     * @param key The key of the simulation set.
+     * @param resultsFolder The folder the results of the simulation set were written into. Every file in it should be closed.
+     * @throws IOException If the results cannot be copied.
+     */
+    public void store(String key, Path resultsFolder) throws IOException {
+        Path entryFolder = this.cacheFolder.resolve(key);
+
+        if (Files.isDirectory(entryFolder)) {
+            return;
+        }
+
+        Files.createDirectories(this.cacheFolder);
+        Path temporaryFolder = Files.createTempDirectory(this.cacheFolder, key + ".");
+
+        try {
+            copyFolder(resultsFolder, temporaryFolder);
+            Files.move(temporaryFolder, entryFolder, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                deleteFolder(temporaryFolder);
+            } catch (IOException deleteException) {
+                System.err.println("Could not delete the incomplete cache entry " + temporaryFolder + ": " + deleteException.getMessage());
+            }
+
+            throw e;
+        }
+    }
+
+    /* Helpers */
+
+    /**
+     * @return (Path) The jar file the application runs from, or its folder of compiled classes.
+     * @throws IOException If the location of the code is unknown.
+     */
+    private static Path getCodePath() throws IOException {
+        CodeSource codeSource = SimulationSetCache.class.getProtectionDomain().getCodeSource();
+
+        if (codeSource == null) {
+            throw new IOException("the location of the application code is unknown");
+        }
+
+        try {
+            return Path.of(codeSource.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static MessageDigest createMessageDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void digestFile(MessageDigest messageDigest, Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            input.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), messageDigest));
+        }
+    }
+
+    /**
+     * Copies every file and folder of a folder into another one, replacing the files with the same name.
+     *
+     * @param sourceFolder The folder to copy.
+     * @param targetFolder The folder to copy into.
+     * @throws IOException If a file cannot be copied.
+     */
+    private static void copyFolder(Path sourceFolder, Path targetFolder) throws IOException {
+        List<Path> sourcePaths;
+
+        try (Stream<Path> paths = Files.walk(sourceFolder)) {
+            sourcePaths = paths.toList();
+        }
+
+        // Folders are listed before their contents, so they exist by the time their files are copied
+        for (Path sourcePath : sourcePaths) {
+            Path targetPath = targetFolder.resolve(sourceFolder.relativize(sourcePath).toString());
+
+            if (Files.isDirectory(sourcePath)) {
+                Files.createDirectories(targetPath);
+            } else {
+                Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static void deleteFolder(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            // Delete the contents of the folders before the folders themselves
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
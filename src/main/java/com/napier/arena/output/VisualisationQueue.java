@@ -0,0 +1,196 @@
+package com.napier.arena.output;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the visualisation scripts of the finished simulation sets in background processes, so the next simulation set does not wait for the plots.
+ * At most a fixed number of scripts run at the same time, the rest wait in the queue in the order they were submitted.
+ * The visualisations can also be deferred, in which case none of them start until the queue is finished after the final simulation set.
+ * The visualisations are grouped by the results folder they plot, so that a simulation set reusing a results folder can wait for the visualisation of the earlier simulation set first.
+ *
+ * @author László Tárkányi
+ */
+public class VisualisationQueue {
+    private final ExecutorService executor;
+    private final boolean isDeferred;
+    private final Map<String, List<Runnable>> deferredVisualisations;
+    private final Map<String, List<CompletableFuture<Void>>> pendingVisualisations;
+    private final AtomicInteger numOfFailedVisualisations;
+
+    /**
+     * @param maxProcesses The most visualisation scripts that run at the same time.
+     * @param isDeferred Whether the visualisations only start once the queue is finished.
+     */
+    public VisualisationQueue(int maxProcesses, boolean isDeferred) {
+        AtomicInteger numOfThreads = new AtomicInteger();
+
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxProcesses), runnable -> {
+            Thread thread = new Thread(runnable, "visualiser-" + numOfThreads.incrementAndGet());
+            // Do not keep the application alive if the queue is never finished
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.isDeferred = isDeferred;
+        this.deferredVisualisations = new LinkedHashMap<>();
+        this.pendingVisualisations = new LinkedHashMap<>();
+        this.numOfFailedVisualisations = new AtomicInteger();
+    }
+
+    /* Accessors */
+
+    /**
+     * @return (int) The number of visualisation scripts that could not be started or finished with an error.
+     */
+    public int getNumOfFailedVisualisations() {
+        return this.numOfFailedVisualisations.get();
+    }
+
+    /* Mutators */
+
+    /**
+     * Queues a visualisation script. The data files it reads should be written and flushed before it is submitted.
+     *
+     * @param command The executable and the arguments of the script.
+     * @param resultsFolder The results folder the script plots into.
+     * @return (CompletableFuture) Completes once the script has finished, whether it succeeded or not.
+     */
+    public synchronized CompletableFuture<Void> submit(List<String> command, String resultsFolder) {
+        // The command is copied, so the caller can reuse its list for the next simulation set
+        List<String> commandSnapshot = List.copyOf(command);
+        CompletableFuture<Void> visualisation = new CompletableFuture<>();
+
+        Runnable task = () -> {
+            try {
+                this.runScript(commandSnapshot, resultsFolder);
+            } finally {
+                visualisation.complete(null);
+            }
+        };
+
+        this.pendingVisualisations.computeIfAbsent(resultsFolder, folder -> new ArrayList<>()).add(visualisation);
+
+        if (this.isDeferred) {
+            this.deferredVisualisations.computeIfAbsent(resultsFolder, folder -> new ArrayList<>()).add(task);
+        } else {
+            this.executor.execute(task);
+        }
+
+        return visualisation;
+    }
+
+    /**
+     * Runs a task once a visualisation has finished, such as caching the results that include its plots.
+     * The task runs on the thread of the visualisation, or right away if the visualisation has already finished, and the queue is only finished once the task is.
+     *
+     * @param resultsFolder The results folder the task reads, which is waited for together with the visualisation.
+     * @param visualisation The visualisation returned by submit.
+     * @param task The task that needs the output of the visualisation.
+     */
+    public synchronized void runAfter(String resultsFolder, CompletableFuture<Void> visualisation, Runnable task) {
+        this.pendingVisualisations.computeIfAbsent(resultsFolder, folder -> new ArrayList<>()).add(visualisation.thenRun(task));
+    }
+
+    /**
+     * Waits until the visualisations of a results folder, and every task that runs after them, are finished, so that the folder can be written again.
+     * Deferred visualisations of the folder are started right away.
+     *
+     * @param resultsFolder The results folder that is about to be reused.
+     */
+    public void awaitResultsFolder(String resultsFolder) {
+        List<CompletableFuture<Void>> visualisations;
+
+        synchronized (this) {
+            List<Runnable> deferredTasks = this.deferredVisualisations.remove(resultsFolder);
+
+            if (deferredTasks != null) {
+                deferredTasks.forEach(this.executor::execute);
+            }
+
+            visualisations = this.pendingVisualisations.remove(resultsFolder);
+        }
+
+        if (visualisations == null) {
+            return;
+        }
+
+        if (!visualisations.stream().allMatch(CompletableFuture::isDone)) {
+            System.out.println("Waiting for the visualisation of " + resultsFolder + " before its results are overwritten...");
+        }
+
+        await(visualisations);
+    }
+
+    /**
+     * Starts the deferred visualisations and waits until every queued visualisation, and every task that runs after one, is finished.
+     * The queue does not accept visualisations afterwards.
+     */
+    public void finish() {
+        List<CompletableFuture<Void>> visualisations = new ArrayList<>();
+
+        synchronized (this) {
+            for (List<Runnable> deferredTasks : this.deferredVisualisations.values()) {
+                deferredTasks.forEach(this.executor::execute);
+            }
+
+            this.deferredVisualisations.clear();
+            this.pendingVisualisations.values().forEach(visualisations::addAll);
+            this.pendingVisualisations.clear();
+            this.executor.shutdown();
+        }
+
+        if (!visualisations.isEmpty()) {
+            System.out.println("Waiting for " + visualisations.stream().filter(visualisation -> !visualisation.isDone()).count() + " of " + visualisations.size() + " visualisations to complete...");
+        }
+
+        await(visualisations);
+    }
+
+    /* Helpers */
+
+    private static void await(List<CompletableFuture<Void>> visualisations) {
+        // Wait for every visualisation, even if a task that ran after one of them failed
+        CompletableFuture.allOf(visualisations.toArray(new CompletableFuture[0]))
+                .exceptionally(e -> {
+                    System.err.println("A task that followed a visualisation did not complete: " + e.getMessage());
+
+                    return null;
+                })
+                .join();
+    }
+
+    private void runScript(List<String> command, String name) {
+        System.out.println("Starting typical run visualisation: " + name);
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+
+        // IO from the Python is shared with the same terminal as the Java code.
+        processBuilder.inheritIO();
+        processBuilder.redirectErrorStream(true);
+
+        try {
+            int exitCode = processBuilder.start().waitFor();
+
+            if (exitCode == 0) {
+                System.out.println("Visualisation complete: " + name);
+            } else {
+                this.numOfFailedVisualisations.incrementAndGet();
+                System.err.println("The visualisation script exited with code " + exitCode + ": " + name);
+            }
+        } catch (IOException e) {
+            this.numOfFailedVisualisations.incrementAndGet();
+            System.err.println("A problem occurred while trying to run the data visualisation scripts: " + e.getMessage());
+        } catch (InterruptedException e) {
+            this.numOfFailedVisualisations.incrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,33 +1,76 @@
 package com.napier.arena.singletons;
 
+import com.napier.arena.concepts.SimulationConfiguration;
 import com.napier.arena.concepts.dataholders.AgentStatisticalValuesPerStrategyType;
+import com.napier.arena.concepts.dataholders.CompletedRunDataHolder;
+import com.napier.arena.output.AgentDataRow;
+import com.napier.arena.output.ArrowRowWriter;
+import com.napier.arena.output.AsyncOutputWriter;
+import com.napier.arena.output.ChainedRowWriter;
+import com.napier.arena.output.CsvRowWriter;
+import com.napier.arena.output.DailyDataRow;
+import com.napier.arena.output.DiscardRowWriter;
+import com.napier.arena.output.ExchangeDataRow;
+import com.napier.arena.output.InMemoryRowWriter;
+import com.napier.arena.output.OutputRow;
+import com.napier.arena.output.RowWriter;
+import com.napier.arena.output.RunLedger;
+import com.napier.arena.output.RunPartitions;
+import com.napier.arena.output.SimulationSetCache;
+import com.napier.arena.output.VisualisationQueue;
 import com.napier.arena.types.AgentStrategyType;
+import com.napier.arena.types.OutputFormatType;
+import com.napier.arena.types.OutputLevelType;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * A singleton class responsible for writing statistical data into files.
+ * The rows of the data files are handed to a sink: an asynchronous writer of the data files, so the agents do not wait for the disk, an in-memory list of rows, or a sink that discards them.
+ * The data files are written in each of the configured output formats: .csv files, Arrow IPC files or both.
+ * The sinks can be chained, and discarding the rows allows measuring the throughput of the simulation without disk I/O.
+ * The .csv files can be GZIP-compressed, which happens on the thread of the asynchronous writer as the rows are written.
+ * The visualisation scripts run in background processes, so the next simulation set does not wait for the plots of the previous one.
  *
  * @author László Tárkányi
  */
 public class DataOutputSingleton {
+    private static final int OUTPUT_QUEUE_CAPACITY = 8192;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
     private static DataOutputSingleton instance;
     private String simulationDataOutputParentFolderPath;
     private String simulationDataOutputFolderPath;
+    private String dataFilesFolderPath;
     private FileWriter simulationDataTXTWriter;
-    private FileWriter agentDataCSVWriter;
-    private FileWriter dailyDataCSVWriter;
-    private FileWriter exchangeDataCSVWriter;
+    private OutputStream agentDataCSVOutput;
+    private OutputStream dailyDataCSVOutput;
+    private OutputStream exchangeDataCSVOutput;
+    private RowWriter outputSink;
+    private AsyncOutputWriter outputWriter;
+    private InMemoryRowWriter inMemoryOutput;
+    private SimulationSetCache simulationSetCache;
+    private String simulationSetCacheKey;
+    private VisualisationQueue visualisationQueue;
+    private CompletableFuture<Void> simulationSetVisualisation;
     private File dailyDataFile;
 
     // Singleton
-    private final SimulationConfigurationSingleton config;
+    private final SimulationConfigurationSingleton configInstance;
 
     public static DataOutputSingleton getInstance() {
         if (instance == null) {
@@ -38,22 +81,297 @@ public class DataOutputSingleton {
     }
 
     public DataOutputSingleton() {
-        this.config = SimulationConfigurationSingleton.getInstance();
+        this.configInstance = SimulationConfigurationSingleton.getInstance();
     }
 
     /**
      * Creates the output files and initialises the file writers.
+     * Only the data files of the configured output level are created.
+     * If the output is partitioned by run, the data files of the first run to simulate are created in its partition folder.
+     * If the simulation is resumed, the runs that were completed in the results folder before are kept, and the simulation set continues after them.
      *
      * @param doesUtiliseSocialCapita True if the simulation is currently configured to use social capita.
      * @param doesUtiliseSingleAgentType True if the simulation is currently configured to only use one of the 2 agent strategies.
      * @param selectedSingleAgentType The only agent type used currently in the simulation if it only uses one of the 2 agent strategies.
+     * @return (ArrayList of CompletedRunDataHolders) The runs that are not simulated again, in the order of the simulation runs. Empty unless the simulation is resumed.
      */
-    public void prepareSimulationDataOutput(boolean doesUtiliseSocialCapita, boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType) {
+    public ArrayList<CompletedRunDataHolder> prepareSimulationDataOutput(boolean doesUtiliseSocialCapita, boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType) {
+        // Finish writing the files of the previous simulation set
+        this.closeOutputSink();
+        this.closeSimulationDataTXTWriter();
+
+        this.dailyDataFile = null;
+        this.inMemoryOutput = null;
         this.createSimulationResultsFolderTree(doesUtiliseSocialCapita, doesUtiliseSingleAgentType, selectedSingleAgentType);
-        this.createAgentDataOutputFile();
-        this.createExchangeDataOutputFile();
-        this.createDailyDataOutputFile();
         this.createSimulationDataOutputFile(doesUtiliseSocialCapita, doesUtiliseSingleAgentType, selectedSingleAgentType);
+
+        SimulationConfiguration config = this.configInstance.getConfiguration();
+        ArrayList<CompletedRunDataHolder> completedRuns = this.findCompletedRuns();
+
+        if (this.simulationDataOutputFolderPath != null) {
+            File dataFolder = new File(this.simulationDataOutputFolderPath);
+
+            try {
+                // Only the runs of the current simulation set are listed, the later runs of an interrupted simulation set are simulated again
+                RunLedger.write(dataFolder, completedRuns);
+
+                if (config.isOutputPartitionedByRun()) {
+                    RunPartitions.clearManifest(dataFolder);
+
+                    for (CompletedRunDataHolder completedRun : completedRuns) {
+                        RunPartitions.recordCompletedPartition(dataFolder, completedRun.simulationRun());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Could not write the list of the completed runs: " + e.getMessage());
+            }
+        }
+
+        if (!completedRuns.isEmpty()) {
+            System.out.println("Resuming the simulation set after " + completedRuns.size() + " completed runs.");
+        }
+
+        if (config.isOutputPartitionedByRun()) {
+            // There is nothing to write if every run was completed before
+            if (completedRuns.size() < config.getNumOfSimulationRuns()) {
+                this.startSimulationRun(completedRuns.size() + 1);
+            } else if (config.getOutputFormats().contains(OutputFormatType.CSV) && config.getOutputLevel().includes(OutputLevelType.DAILY)) {
+                // The daily data of the completed runs is merged for the visualisation scripts
+                this.dailyDataFile = new File(RunPartitions.getPartitionFolder(new File(this.simulationDataOutputFolderPath), completedRuns.size()), "dailyData" + this.getCSVFileExtension());
+            }
+        } else {
+            this.openDataFiles(this.simulationDataOutputFolderPath);
+        }
+
+        return completedRuns;
+    }
+
+    /**
+     * Restores the results of a simulation set from the result cache, if the same simulation set has been simulated before with the same code.
+     * Should be called at the start of each simulation set, before its data output is prepared. The key of the simulation set is kept to cache its results once it finishes.
+     * Results that are kept in memory or discarded are never cached.
+     *
+     * @param doesUtiliseSocialCapita True if the simulation is currently configured to use social capita.
+     * @param doesUtiliseSingleAgentType True if the simulation is currently configured to only use one of the 2 agent strategies.
+     * @param selectedSingleAgentType The only agent type used currently in the simulation if it only uses one of the 2 agent strategies.
+     * @return (boolean) Whether the results were restored, in which case the simulation set does not have to be simulated.
+     */
+    public boolean restoreCachedSimulationSet(boolean doesUtiliseSocialCapita, boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType) {
+        SimulationConfiguration config = this.configInstance.getConfiguration();
+        this.simulationSetCacheKey = null;
+
+        if (!config.isResultCacheUsed() || config.getOutputFormats().contains(OutputFormatType.MEMORY) || config.getOutputFormats().contains(OutputFormatType.NONE)) {
+            return false;
+        }
+
+        if (this.simulationSetCache == null) {
+            this.simulationSetCache = new SimulationSetCache(Path.of(config.getResultCacheFolderPath()));
+        }
+
+        try {
+            this.simulationSetCacheKey = this.simulationSetCache.calculateKey(config);
+
+            if (this.simulationSetCacheKey == null) {
+                return false;
+            }
+
+            // Finish writing the files of the previous simulation set
+            this.closeOutputSink();
+            this.closeSimulationDataTXTWriter();
+            this.createSimulationResultsFolderTree(doesUtiliseSocialCapita, doesUtiliseSingleAgentType, selectedSingleAgentType);
+
+            if (this.simulationSetCache.restore(this.simulationSetCacheKey, Path.of(this.simulationDataOutputParentFolderPath))) {
+                System.out.println("Restored the results of the simulation set from the result cache: " + this.simulationSetCacheKey);
+                this.simulationSetCacheKey = null;
+
+                return true;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not restore the results of the simulation set from the result cache: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Stores the results of the finished simulation set in the result cache, if its key was calculated when it started.
+     * Closes the data files of the simulation set, so it should only be called once every result of the simulation set has been written.
+     * If the simulation set is being visualised, the results are stored in the background once the visualisation script has finished.
+     */
+    public void cacheSimulationSet() {
+        CompletableFuture<Void> visualisation = this.simulationSetVisualisation;
+        this.simulationSetVisualisation = null;
+
+        if (this.simulationSetCacheKey == null || this.simulationDataOutputParentFolderPath == null) {
+            return;
+        }
+
+        // The files are copied into the cache, so everything has to be written first
+        boolean isComplete = this.closeOutputSink();
+        this.flushAllDataWriters();
+
+        if (isComplete) {
+            // The fields are reused by the next simulation set before a deferred store runs
+            SimulationSetCache simulationSetCache = this.simulationSetCache;
+            String simulationSetCacheKey = this.simulationSetCacheKey;
+            Path resultsFolder = Path.of(this.simulationDataOutputParentFolderPath);
+
+            Runnable store = () -> {
+                try {
+                    simulationSetCache.store(simulationSetCacheKey, resultsFolder);
+                } catch (IOException e) {
+                    System.err.println("Could not store the results of the simulation set in the result cache: " + e.getMessage());
+                }
+            };
+
+            if (visualisation != null) {
+                // The plots are part of the results, so they are only stored once the script has finished
+                this.visualisationQueue.runAfter(this.simulationDataOutputParentFolderPath, visualisation, store);
+            } else {
+                store.run();
+            }
+        } else {
+            System.err.println("The results of the simulation set are incomplete and are not stored in the result cache.");
+        }
+
+        this.simulationSetCacheKey = null;
+    }
+
+    /**
+     * Creates the data files of a simulation run in its own partition folder, if the output is partitioned by run.
+     *
+     * @param simulationRun The number of the simulation run that is starting.
+     */
+    public void startSimulationRun(int simulationRun) {
+        if (!this.configInstance.getConfiguration().isOutputPartitionedByRun() || this.simulationDataOutputFolderPath == null) {
+            return;
+        }
+
+        File partitionFolder = RunPartitions.getPartitionFolder(new File(this.simulationDataOutputFolderPath), simulationRun);
+
+        try {
+            Files.createDirectories(partitionFolder.toPath());
+            this.openDataFiles(partitionFolder.getPath());
+        } catch (IOException e) {
+            System.err.println("Error while trying to create the partition folder of simulation run " + simulationRun + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records a finished simulation run as completed, so that a resumed simulation set continues after it.
+     * If the output is partitioned by run, the data files of the run are closed and its partition is listed in the manifest first.
+     * A run is only recorded if every row of the run has been written.
+     *
+     * @param completedRun The takeover data of the simulation run that has finished.
+     */
+    public void finishSimulationRun(CompletedRunDataHolder completedRun) {
+        if (this.simulationDataOutputFolderPath == null) {
+            return;
+        }
+
+        File dataFolder = new File(this.simulationDataOutputFolderPath);
+        int simulationRun = completedRun.simulationRun();
+        boolean isComplete = true;
+
+        if (this.configInstance.getConfiguration().isOutputPartitionedByRun()) {
+            isComplete = this.closeOutputSink();
+
+            if (isComplete) {
+                try {
+                    RunPartitions.recordCompletedPartition(dataFolder, simulationRun);
+                } catch (IOException e) {
+                    isComplete = false;
+                    System.err.println("Could not list the partition of simulation run " + simulationRun + " in the manifest: " + e.getMessage());
+                }
+            } else {
+                System.err.println("The partition of simulation run " + simulationRun + " is incomplete and is not listed in the manifest.");
+            }
+        }
+
+        // A run without a takeover cannot be summarised, so it is simulated again when the simulation set is resumed
+        if (isComplete && completedRun.takeoverDayData() != null && completedRun.finalDayData() != null) {
+            try {
+                RunLedger.append(dataFolder, completedRun);
+            } catch (IOException e) {
+                System.err.println("Could not record simulation run " + simulationRun + " as completed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Finds the runs of the current simulation set that were completed in its results folder before, if the simulation is resumed.
+     * Only the runs before the first missing one are kept. Their data files can only be told apart from those of an interrupted run if the output is partitioned by run.
+     *
+     * @return (ArrayList of CompletedRunDataHolders) The completed runs in the order of the simulation runs, or an empty list if the simulation set starts from the first run.
+     */
+    private ArrayList<CompletedRunDataHolder> findCompletedRuns() {
+        SimulationConfiguration config = this.configInstance.getConfiguration();
+        ArrayList<CompletedRunDataHolder> completedRuns = new ArrayList<>();
+
+        if (!config.isSimulationResumed() || this.simulationDataOutputFolderPath == null) {
+            return completedRuns;
+        }
+
+        boolean isDataFileWritten = config.getOutputLevel() != OutputLevelType.SUMMARY
+                && (config.getOutputFormats().contains(OutputFormatType.CSV) || config.getOutputFormats().contains(OutputFormatType.ARROW));
+
+        if (isDataFileWritten && !config.isOutputPartitionedByRun()) {
+            System.err.println("The simulation set cannot be resumed as its data files are not partitioned by run, it starts from the first run.");
+
+            return completedRuns;
+        }
+
+        File dataFolder = new File(this.simulationDataOutputFolderPath);
+
+        try {
+            List<Integer> completedPartitions = RunPartitions.readManifest(dataFolder);
+
+            for (CompletedRunDataHolder recordedRun : RunLedger.read(dataFolder)) {
+                int nextSimulationRun = completedRuns.size() + 1;
+
+                // Stop at the first missing run, or once the simulation set has enough runs
+                if (recordedRun.simulationRun() != nextSimulationRun || nextSimulationRun > config.getNumOfSimulationRuns() || (isDataFileWritten && !completedPartitions.contains(nextSimulationRun))) {
+                    break;
+                }
+
+                completedRuns.add(recordedRun);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("The completed runs could not be read, the simulation set starts from the first run: " + e.getMessage());
+            completedRuns.clear();
+        }
+
+        return completedRuns;
+    }
+
+    /* Accessors */
+
+    /**
+     * @return (int) The number of rows handed to the output writer that have not been written yet.
+     */
+    public int getOutputWriterLag() {
+        return this.outputWriter != null ? this.outputWriter.getLag() : 0;
+    }
+
+    /**
+     * @return (long) The number of times an agent had to wait for the output writer because its queue was full.
+     */
+    public long getNumOfBlockedOutputAppends() {
+        return this.outputWriter != null ? this.outputWriter.getNumOfBlockedAppends() : 0;
+    }
+
+    /**
+     * @return (long) The number of rows that the output writer could not write.
+     */
+    public long getNumOfDroppedOutputRows() {
+        return this.outputWriter != null ? this.outputWriter.getNumOfDroppedRows() : 0;
+    }
+
+    /**
+     * @return (InMemoryRowWriter) The rows of the current or last simulation set kept in memory, or null if the rows are not kept in memory.
+     */
+    public InMemoryRowWriter getInMemoryOutput() {
+        return this.inMemoryOutput;
     }
 
     /**
@@ -64,13 +382,15 @@ public class DataOutputSingleton {
      * @param selectedSingleAgentType The only agent type used currently in the simulation if it only uses one of the 2 agent strategies.
      */
     private void createSimulationResultsFolderTree(boolean doesUtiliseSocialCapita, boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType) {
+        SimulationConfiguration config = this.configInstance.getConfiguration();
+
         /*
         The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
         See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ResourceExchangeArena.java
         */
 
         // Create a directory to store the data output by all simulations being run.
-        this.simulationDataOutputParentFolderPath = this.config.getResultsFolderPath() + "/" + this.config.getStartingSeed() + "/useSC_" + doesUtiliseSocialCapita + "_AType_";
+        this.simulationDataOutputParentFolderPath = config.getResultsFolderPath() + "/" + config.getStartingSeed() + "/useSC_" + doesUtiliseSocialCapita + "_AType_";
 
         // Append the agent types used to the folder path
         if (!doesUtiliseSingleAgentType) {
@@ -80,7 +400,12 @@ public class DataOutputSingleton {
         }
 
         // Append the exchange type to the folder path
-        this.simulationDataOutputParentFolderPath += "_EType_" + this.config.getExchangeType();
+        this.simulationDataOutputParentFolderPath += "_EType_" + config.getExchangeType();
+
+        // Simulation sets with the same settings share the folder, so the visualisation and caching of an earlier one have to read it before it is overwritten
+        if (this.visualisationQueue != null) {
+            this.visualisationQueue.awaitResultsFolder(this.simulationDataOutputParentFolderPath);
+        }
 
         // Add subdirectory path
         this.simulationDataOutputFolderPath = this.simulationDataOutputParentFolderPath + "/data";
@@ -102,16 +427,17 @@ public class DataOutputSingleton {
      * Creates a new file or overwrites an existing one with the same name and writes the first row as a data index.
      */
     private void createAgentDataOutputFile() {
-        if (this.simulationDataOutputFolderPath != null) {
+        if (this.dataFilesFolderPath != null) {
             /*
             The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
             See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java
             */
 
-            File agentDataFile = new File(this.simulationDataOutputFolderPath, "agentData.csv");
+            File agentDataFile = new File(this.dataFilesFolderPath, "agentData" + this.getCSVFileExtension());
 
             try {
-                this.agentDataCSVWriter = new FileWriter(agentDataFile);
+                this.agentDataCSVOutput = this.openCSVOutput(agentDataFile);
+                Writer agentDataCSVWriter = new OutputStreamWriter(this.agentDataCSVOutput, StandardCharsets.US_ASCII);
 
                 // Write first row of the .csv file
                 agentDataCSVWriter.append("Simulation Run,");
@@ -126,6 +452,7 @@ public class DataOutputSingleton {
                 agentDataCSVWriter.append("No Social Capita Exchanges,");
                 agentDataCSVWriter.append("Unspent Social Capita");
                 agentDataCSVWriter.append("\n");
+                agentDataCSVWriter.flush();
             } catch (IOException e) {
                 System.err.println("Could not write in agent data output file.");
             }
@@ -138,16 +465,17 @@ public class DataOutputSingleton {
      * Creates a new file or overwrites an existing one with the same name and writes the first row as a data index.
      */
     private void createDailyDataOutputFile() {
-        if (this.simulationDataOutputFolderPath != null) {
+        if (this.dataFilesFolderPath != null) {
             /*
             The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
             See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java
             */
 
-            this.dailyDataFile = new File(this.simulationDataOutputFolderPath, "dailyData.csv");
+            this.dailyDataFile = new File(this.dataFilesFolderPath, "dailyData" + this.getCSVFileExtension());
 
             try {
-                this.dailyDataCSVWriter = new FileWriter(this.dailyDataFile);
+                this.dailyDataCSVOutput = this.openCSVOutput(this.dailyDataFile);
+                Writer dailyDataCSVWriter = new OutputStreamWriter(this.dailyDataCSVOutput, StandardCharsets.US_ASCII);
 
                 // Write first row of the .csv file
                 dailyDataCSVWriter.append("Simulation Run,");
@@ -172,6 +500,7 @@ public class DataOutputSingleton {
                 dailyDataCSVWriter.append("Selfish Median,");
                 dailyDataCSVWriter.append("Random Allocation Sat,");
                 dailyDataCSVWriter.append("Optimum Allocation Sat").append("\n");
+                dailyDataCSVWriter.flush();
             } catch (IOException e) {
                 System.err.println("Could not write in daily data output file.");
             }
@@ -184,16 +513,17 @@ public class DataOutputSingleton {
      * Creates a new file or overwrites an existing one with the same name and writes the first row as a data index.
      */
     private void createExchangeDataOutputFile() {
-        if (this.simulationDataOutputFolderPath != null) {
+        if (this.dataFilesFolderPath != null) {
             /*
             The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
             See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java
             */
 
-            File exchangeDataFile = new File(this.simulationDataOutputFolderPath, "exchangeData.csv");
+            File exchangeDataFile = new File(this.dataFilesFolderPath, "exchangeData" + this.getCSVFileExtension());
 
             try {
-                this.exchangeDataCSVWriter = new FileWriter(exchangeDataFile);
+                this.exchangeDataCSVOutput = this.openCSVOutput(exchangeDataFile);
+                Writer exchangeDataCSVWriter = new OutputStreamWriter(this.exchangeDataCSVOutput, StandardCharsets.US_ASCII);
 
                 // Write first row of the .csv file
                 exchangeDataCSVWriter.append("Simulation Run,");
@@ -206,6 +536,7 @@ public class DataOutputSingleton {
                 exchangeDataCSVWriter.append("Average Receiver CPU Time,");
                 exchangeDataCSVWriter.append("Average Non-participant CPU Time");
                 exchangeDataCSVWriter.append("\n");
+                exchangeDataCSVWriter.flush();
             } catch (IOException e) {
                 System.err.println("Could not write in exchange data output file.");
             }
@@ -222,6 +553,8 @@ public class DataOutputSingleton {
      * @param selectedSingleAgentType The only agent type used currently in the simulation if it only uses one of the 2 agent strategies.
      */
     private void createSimulationDataOutputFile(boolean doesUtiliseSocialCapita, boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType) {
+        SimulationConfiguration config = this.configInstance.getConfiguration();
+
         if (this.simulationDataOutputParentFolderPath != null) {
             /*
             The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
@@ -235,7 +568,7 @@ public class DataOutputSingleton {
 
                 // Write first row of the .csv file
                 this.simulationDataTXTWriter.append("Simulation Information: \n\n");
-                this.simulationDataTXTWriter.append("Seed: ").append(String.valueOf(this.config.getCurrentSeed())).append("\n");
+                this.simulationDataTXTWriter.append("Seed: ").append(String.valueOf(config.getCurrentSeed())).append("\n");
                 this.simulationDataTXTWriter.append("Single agent type: ").append(String.valueOf(doesUtiliseSingleAgentType)).append("\n");
 
                 if (doesUtiliseSingleAgentType) {
@@ -243,20 +576,20 @@ public class DataOutputSingleton {
                 }
 
                 this.simulationDataTXTWriter.append("Use social capita: ").append(String.valueOf(doesUtiliseSocialCapita)).append("\n");
-                this.simulationDataTXTWriter.append("Simulation runs: ").append(String.valueOf(this.config.getNumOfSimulationRuns())).append("\n");
-                this.simulationDataTXTWriter.append("Days after strategy takeover: ").append(String.valueOf(this.config.getNumOfAdditionalDaysAfterTakeover())).append("\n");
-                this.simulationDataTXTWriter.append("Population size: ").append(String.valueOf(this.config.getPopulationCount())).append("\n");
-                this.simulationDataTXTWriter.append("Unique time-slots: ").append(String.valueOf(this.config.getNumOfUniqueTimeSlots())).append("\n");
-                this.simulationDataTXTWriter.append("Slots per agent: ").append(String.valueOf(this.config.getNumOfSlotsPerAgent())).append("\n");
-                this.simulationDataTXTWriter.append("Number of agents to evolve: ").append(String.valueOf(this.config.getNumOfAgentsToEvolve())).append("\n");
+                this.simulationDataTXTWriter.append("Simulation runs: ").append(String.valueOf(config.getNumOfSimulationRuns())).append("\n");
+                this.simulationDataTXTWriter.append("Days after strategy takeover: ").append(String.valueOf(config.getNumOfAdditionalDaysAfterTakeover())).append("\n");
+                this.simulationDataTXTWriter.append("Population size: ").append(String.valueOf(config.getPopulationCount())).append("\n");
+                this.simulationDataTXTWriter.append("Unique time-slots: ").append(String.valueOf(config.getNumOfUniqueTimeSlots())).append("\n");
+                this.simulationDataTXTWriter.append("Slots per agent: ").append(String.valueOf(config.getNumOfSlotsPerAgent())).append("\n");
+                this.simulationDataTXTWriter.append("Number of agents to evolve: ").append(String.valueOf(config.getNumOfAgentsToEvolve())).append("\n");
                 this.simulationDataTXTWriter.append("Starting ratio of agent types (")
                         .append(this.getAgentStrategyTypeCapString(AgentStrategyType.SELFISH))
                         .append(":")
                         .append(this.getAgentStrategyTypeCapString(AgentStrategyType.SOCIAL))
                         .append("): ")
-                        .append(String.valueOf(this.config.getSelfishPopulationCount()))
+                        .append(String.valueOf(config.getSelfishPopulationCount()))
                         .append(":")
-                        .append(String.valueOf(this.config.getPopulationCount() - this.config.getSelfishPopulationCount()));
+                        .append(String.valueOf(config.getPopulationCount() - config.getSelfishPopulationCount()));
                 this.simulationDataTXTWriter.append("\n\n");
             } catch (IOException e) {
                 System.err.println("Could not write in exchange data output file.");
@@ -267,7 +600,7 @@ public class DataOutputSingleton {
     }
 
     /**
-     * Append a record to the agent data file.
+     * Append a record to the agent data file. The record is written asynchronously.
      *
      * @param currentSimulationRun The number of a given simulation run in a simulation set.
      * @param currentDay The number of a given day in a simulation run.
@@ -292,34 +625,22 @@ public class DataOutputSingleton {
             int numOfDailyAcceptedReceivedExchangesWithoutSocialCapita,
             int currentSocialCapitaBalance
     ) {
-        if (agentDataCSVWriter != null) {
-            try {
-                /*
-                The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
-                See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Day.java
-                */
-
-                this.agentDataCSVWriter.append(String.valueOf(currentSimulationRun)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(currentDay)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(agentStrategyType)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(currentSatisfaction)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(numOfDailyRejectedReceivedExchanges)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(numOfDailyAcceptedReceivedExchangesWithSocialCapita + numOfDailyAcceptedReceivedExchangesWithoutSocialCapita)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(numOfDailyRejectedRequestedExchanges)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(numOfDailyAcceptedRequestedExchanges)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(numOfDailyAcceptedReceivedExchangesWithSocialCapita)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(numOfDailyAcceptedReceivedExchangesWithoutSocialCapita)).append(",");
-                this.agentDataCSVWriter.append(String.valueOf(currentSocialCapitaBalance)).append("\n");
-            } catch (IOException e) {
-                System.err.println("Error while trying to append data to the agent data file.");
-            }
-        } else {
-            System.err.println("Tried to write data output file but the FileWriter was null.");
-        }
+        this.appendRow(new AgentDataRow(
+                currentSimulationRun,
+                currentDay,
+                agentStrategyType,
+                currentSatisfaction,
+                numOfDailyRejectedReceivedExchanges,
+                numOfDailyRejectedRequestedExchanges,
+                numOfDailyAcceptedRequestedExchanges,
+                numOfDailyAcceptedReceivedExchangesWithSocialCapita,
+                numOfDailyAcceptedReceivedExchangesWithoutSocialCapita,
+                currentSocialCapitaBalance
+        ));
     }
 
     /**
-     * Append a record to the daily data file.
+     * Append a record to the daily data file. The record is written asynchronously.
      *
      * @param currentSimulationRun The number of a given simulation run in a simulation set.
      * @param currentDay The number of a given day in a simulation run.
@@ -348,45 +669,24 @@ public class DataOutputSingleton {
             double initialRandomAllocationAverageSatisfaction,
             double optimumAveragePossibleSatisfaction
     ) {
-        if (this.dailyDataCSVWriter != null) {
-            try {
-                /*
-                The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
-                See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Day.java
-                */
-
-                this.dailyDataCSVWriter.append(String.valueOf(currentSimulationRun)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(currentDay)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(socialPopulationCount)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(selfishPopulationCount)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(averageSocialSatisfaction)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(averageSelfishSatisfaction)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(averageSocialSatisfactionStandardDeviation)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(averageSelfishSatisfactionStandardDeviation)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(socialStatisticalValues.getUpperQuarter())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(selfishStatisticalValues.getUpperQuarter())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(socialStatisticalValues.getLowerQuarter())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(selfishStatisticalValues.getLowerQuarter())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(socialStatisticalValues.getNinetyFifthPercentile())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(selfishStatisticalValues.getNinetyFifthPercentile())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(socialStatisticalValues.getMax())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(selfishStatisticalValues.getMax())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(socialStatisticalValues.getMin())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(selfishStatisticalValues.getMin())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(socialStatisticalValues.getMedian())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(selfishStatisticalValues.getMedian())).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(initialRandomAllocationAverageSatisfaction)).append(",");
-                this.dailyDataCSVWriter.append(String.valueOf(optimumAveragePossibleSatisfaction)).append("\n");
-            } catch (IOException e) {
-                System.err.println("Error while trying to append data to the day data file.");
-            }
-        } else {
-            System.err.println("Tried to write data output file but the FileWriter was null.");
-        }
+        this.appendRow(new DailyDataRow(
+                currentSimulationRun,
+                currentDay,
+                socialPopulationCount,
+                selfishPopulationCount,
+                averageSocialSatisfaction,
+                averageSelfishSatisfaction,
+                averageSocialSatisfactionStandardDeviation,
+                averageSelfishSatisfactionStandardDeviation,
+                socialStatisticalValues,
+                selfishStatisticalValues,
+                initialRandomAllocationAverageSatisfaction,
+                optimumAveragePossibleSatisfaction
+        ));
     }
 
     /**
-     * Append a record to the exchange data file.
+     * Append a record to the exchange data file. The record is written asynchronously.
      *
      * @param currentSimulationRun The number of a given simulation run in a simulation set.
      * @param currentDay The number of a given day in a simulation run.
@@ -409,28 +709,17 @@ public class DataOutputSingleton {
             float averageReceiverPerformanceByType,
             float averageNoTradePerformanceByType
     ) {
-        if (this.exchangeDataCSVWriter != null) {
-            try {
-                /*
-                The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
-                See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Exchange.java
-                */
-
-                this.exchangeDataCSVWriter.append(String.valueOf(currentSimulationRun)).append(",");
-                this.exchangeDataCSVWriter.append(String.valueOf(currentDay)).append(",");
-                this.exchangeDataCSVWriter.append(String.valueOf(currentExchangeRound)).append(",");
-                this.exchangeDataCSVWriter.append(String.valueOf(agentStrategyType)).append(",");
-                this.exchangeDataCSVWriter.append(String.valueOf(averageSatisfactionForType)).append(",");
-                this.exchangeDataCSVWriter.append(String.valueOf(averagePerformanceForType)).append(",");
-                this.exchangeDataCSVWriter.append(String.valueOf(averageRequesterPerformanceByType)).append(",");
-                this.exchangeDataCSVWriter.append(String.valueOf(averageReceiverPerformanceByType)).append(",");
-                this.exchangeDataCSVWriter.append(String.valueOf(averageNoTradePerformanceByType)).append("\n");
-            } catch (IOException e) {
-                System.err.println("Error while trying to append data to the exchange data file.");
-            }
-        } else {
-            System.err.println("Tried to write data output file but the FileWriter was null.");
-        }
+        this.appendRow(new ExchangeDataRow(
+                currentSimulationRun,
+                currentDay,
+                currentExchangeRound,
+                agentStrategyType,
+                averageSatisfactionForType,
+                averagePerformanceForType,
+                averageRequesterPerformanceByType,
+                averageReceiverPerformanceByType,
+                averageNoTradePerformanceByType
+        ));
     }
 
     /**
@@ -489,15 +778,23 @@ public class DataOutputSingleton {
 
     /**
      * Flush the data of all file writers.
+     * Waits until every record appended so far has been written.
      */
     public void flushAllDataWriters() {
-        try {
-            this.simulationDataTXTWriter.flush();
-            this.agentDataCSVWriter.flush();
-            this.dailyDataCSVWriter.flush();
-            this.exchangeDataCSVWriter.flush();
-        } catch (IOException e) {
-            System.err.println("Error while trying to flush the data writers.");
+        if (this.outputSink != null) {
+            try {
+                this.outputSink.flush();
+            } catch (IOException e) {
+                System.err.println("Error while trying to flush the data writers: " + e.getMessage());
+            }
+        }
+
+        if (this.simulationDataTXTWriter != null) {
+            try {
+                this.simulationDataTXTWriter.flush();
+            } catch (IOException e) {
+                System.err.println("Error while trying to flush the data writers.");
+            }
         }
     }
 
@@ -505,18 +802,250 @@ public class DataOutputSingleton {
      * Close all file writers.
      */
     public void closeAllDataWriters() {
+        this.closeOutputSink();
+        this.closeSimulationDataTXTWriter();
+    }
+
+    /**
+     * Starts the deferred visualisations and waits until every queued visualisation, and the results cached after it, is finished.
+     * Should be called before the application exits, as the visualisations run on background threads.
+     */
+    public void awaitVisualisations() {
+        if (this.visualisationQueue == null) {
+            return;
+        }
+
+        this.visualisationQueue.finish();
+
+        if (this.visualisationQueue.getNumOfFailedVisualisations() > 0) {
+            System.err.println(this.visualisationQueue.getNumOfFailedVisualisations() + " of the visualisation scripts did not complete.");
+        }
+
+        this.visualisationQueue = null;
+    }
+
+    private void closeSimulationDataTXTWriter() {
+        if (this.simulationDataTXTWriter != null) {
+            try {
+                this.simulationDataTXTWriter.close();
+            } catch (IOException e) {
+                System.err.println("Error while trying to close the data writers.");
+            }
+
+            this.simulationDataTXTWriter = null;
+        }
+    }
+
+    /**
+     * Creates the data files of the configured output level in a folder and starts writing the data rows into them.
+     *
+     * @param folderPath The folder to create the data files in.
+     */
+    private void openDataFiles(String folderPath) {
+        SimulationConfiguration config = this.configInstance.getConfiguration();
+        this.dataFilesFolderPath = folderPath;
+
+        if (config.getOutputFormats().contains(OutputFormatType.CSV)) {
+            if (config.getOutputLevel().includes(OutputLevelType.PER_AGENT)) {
+                this.createAgentDataOutputFile();
+            }
+
+            if (config.getOutputLevel().includes(OutputLevelType.PER_ROUND)) {
+                this.createExchangeDataOutputFile();
+            }
+
+            if (config.getOutputLevel().includes(OutputLevelType.DAILY)) {
+                this.createDailyDataOutputFile();
+            }
+        }
+
+        this.startOutputSink();
+    }
+
+    /**
+     * Starts the sink of the data rows, which writes them into each of the configured output formats.
+     * The data files are written by an asynchronous writer, while the rows kept in memory or discarded are handed over directly.
+     * There is no sink if the output level only includes the summary of the simulation set.
+     */
+    private void startOutputSink() {
+        SimulationConfiguration config = this.configInstance.getConfiguration();
+        OutputLevelType outputLevel = config.getOutputLevel();
+
+        if (outputLevel == OutputLevelType.SUMMARY) {
+            return;
+        }
+
+        List<RowWriter> fileWriters = new ArrayList<>(2);
+        boolean isFileOutputCreated = true;
+
+        if (config.getOutputFormats().contains(OutputFormatType.CSV)) {
+            // Only the files of the output level are expected to exist
+            boolean isAgentDataCreated = this.agentDataCSVOutput != null || !outputLevel.includes(OutputLevelType.PER_AGENT);
+            boolean isDailyDataCreated = this.dailyDataCSVOutput != null || !outputLevel.includes(OutputLevelType.DAILY);
+            boolean isExchangeDataCreated = this.exchangeDataCSVOutput != null || !outputLevel.includes(OutputLevelType.PER_ROUND);
+
+            if (isAgentDataCreated && isDailyDataCreated && isExchangeDataCreated) {
+                fileWriters.add(new CsvRowWriter(this.agentDataCSVOutput, this.dailyDataCSVOutput, this.exchangeDataCSVOutput));
+            } else {
+                isFileOutputCreated = false;
+                System.err.println("The .csv data files could not all be created.");
+            }
+        }
+
+        if (config.getOutputFormats().contains(OutputFormatType.ARROW) && this.dataFilesFolderPath == null) {
+            isFileOutputCreated = false;
+        } else if (config.getOutputFormats().contains(OutputFormatType.ARROW)) {
+            try {
+                fileWriters.add(new ArrowRowWriter(new File(this.dataFilesFolderPath), outputLevel));
+
+                // The visualisation scripts read the Arrow file if there is no .csv file
+                if (!config.getOutputFormats().contains(OutputFormatType.CSV) && outputLevel.includes(OutputLevelType.DAILY)) {
+                    this.dailyDataFile = new File(this.dataFilesFolderPath, "dailyData.arrow");
+                }
+            } catch (IOException e) {
+                isFileOutputCreated = false;
+                System.err.println("The Arrow data files could not be created: " + e.getMessage());
+            }
+        }
+
+        if (!isFileOutputCreated) {
+            // The data files are written in every configured format or in none of them, so the writers that were already opened are closed first
+            if (!fileWriters.isEmpty()) {
+                try {
+                    this.chainRowWriters(fileWriters).close();
+                } catch (IOException e) {
+                    System.err.println("Error while trying to close the data writers: " + e.getMessage());
+                }
+
+                fileWriters.clear();
+            }
+
+            this.discardDataFiles();
+            System.err.println("The data files will not be written as not all of them could be created.");
+        }
+
+        List<RowWriter> sinks = new ArrayList<>(3);
+
+        if (!fileWriters.isEmpty()) {
+            this.outputWriter = new AsyncOutputWriter(OUTPUT_QUEUE_CAPACITY, this.chainRowWriters(fileWriters));
+            sinks.add(this.outputWriter);
+        }
+
+        if (config.getOutputFormats().contains(OutputFormatType.MEMORY)) {
+            // The rows of every run of the simulation set are kept together, even if the data files are partitioned by run
+            if (this.inMemoryOutput == null) {
+                this.inMemoryOutput = new InMemoryRowWriter();
+            }
+
+            sinks.add(this.inMemoryOutput);
+        }
+
+        if (config.getOutputFormats().contains(OutputFormatType.NONE)) {
+            sinks.add(new DiscardRowWriter());
+        }
+
+        if (!sinks.isEmpty()) {
+            this.outputSink = this.chainRowWriters(sinks);
+        } else {
+            System.err.println("The data writer was not started as not all data output files could be created.");
+        }
+    }
+
+    /**
+     * Writes the remaining records into the sink and closes the data files.
+     * The rows kept in memory can still be read until the next simulation set starts.
+     *
+     * @return (boolean) Whether every record was written and the data files were closed without errors.
+     */
+    private boolean closeOutputSink() {
+        boolean isComplete = true;
+
+        if (this.outputSink != null) {
+            try {
+                this.outputSink.close();
+            } catch (IOException e) {
+                isComplete = false;
+                System.err.println("Error while trying to close the data writers: " + e.getMessage());
+            }
+
+            this.outputSink = null;
+        }
+
+        if (this.outputWriter != null) {
+            if (this.outputWriter.getNumOfDroppedRows() > 0) {
+                isComplete = false;
+                System.err.println(this.outputWriter.getNumOfDroppedRows() + " records could not be written to the data files.");
+            }
+
+            this.outputWriter = null;
+        }
+
+        this.agentDataCSVOutput = null;
+        this.dailyDataCSVOutput = null;
+        this.exchangeDataCSVOutput = null;
+
+        return isComplete;
+    }
+
+    /**
+     * Hands a record over to the sink of the data rows.
+     *
+     * @param row The record to write.
+     */
+    private void appendRow(OutputRow row) {
+        if (this.outputSink != null) {
+            try {
+                this.outputSink.write(row);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error while trying to append data to the data output: " + e.getMessage());
+            }
+        } else {
+            System.err.println("Tried to write data output file but the data writer was not started.");
+        }
+    }
+
+    /**
+     * Closes the .csv data files that could be created and deletes the data files of every format, so that no partial data is left behind if the rest of them could not be created.
+     */
+    private void discardDataFiles() {
         try {
-            this.simulationDataTXTWriter.close();
-            this.agentDataCSVWriter.close();
-            this.dailyDataCSVWriter.close();
-            this.exchangeDataCSVWriter.close();
+            // Closes every stream that was opened, even if an earlier one fails to close, the ones that were already closed by their writer are left as they are
+            new CsvRowWriter(this.agentDataCSVOutput, this.dailyDataCSVOutput, this.exchangeDataCSVOutput).close();
         } catch (IOException e) {
-            System.err.println("Error while trying to close the data writers.");
+            System.err.println("Error while trying to close the .csv data files: " + e.getMessage());
+        }
+
+        this.agentDataCSVOutput = null;
+        this.dailyDataCSVOutput = null;
+        this.exchangeDataCSVOutput = null;
+
+        if (this.dataFilesFolderPath != null) {
+            for (String fileName : new String[] { "agentData", "dailyData", "exchangeData" }) {
+                for (String fileExtension : new String[] { this.getCSVFileExtension(), ".arrow" }) {
+                    try {
+                        Files.deleteIfExists(Path.of(this.dataFilesFolderPath, fileName + fileExtension));
+                    } catch (IOException e) {
+                        System.err.println("Could not delete the partial " + fileName + fileExtension + " data file: " + e.getMessage());
+                    }
+                }
+            }
         }
+
+        // There is no daily data to visualise
+        this.dailyDataFile = null;
     }
 
     /**
-     * Begins python code that visualises the gathered data from the current environment being simulated.
+     * @param rowWriters The row writers to write the same rows into. Should not be empty.
+     * @return (RowWriter) The only row writer, or a chain of the row writers if there are more of them.
+     */
+    private RowWriter chainRowWriters(List<RowWriter> rowWriters) {
+        return rowWriters.size() == 1 ? rowWriters.getFirst() : new ChainedRowWriter(rowWriters);
+    }
+
+    /**
+     * Queues the python code that visualises the gathered data from the current environment being simulated.
+     * The script runs in a background process once every data row it reads is written, so the simulation can carry on with the next simulation set.
      *
      * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/SimulationVisualiserInitiator.java">ResourceExchangeArena</a>
      *
@@ -529,34 +1058,78 @@ public class DataOutputSingleton {
             double typicalSocial,
             double typicalSelfish
     ) throws IOException {
-        System.out.println("Starting typical run visualisation...");
+        SimulationConfiguration config = this.configInstance.getConfiguration();
+        this.simulationSetVisualisation = null;
+
+        if (this.dailyDataFile == null) {
+            System.err.println("The simulation is not visualised as the daily data is not written into a data file.");
+
+            return;
+        }
+
+        if (config.isOutputPartitionedByRun()) {
+            if (this.dailyDataFile.getName().endsWith(".arrow")) {
+                System.err.println("The simulation is not visualised as the partitions of the Arrow daily data file are not merged.");
+
+                return;
+            }
+
+            // The scripts read a single daily data file, merged from the completed partitions
+            this.dailyDataFile = RunPartitions.mergeDataFile(new File(this.simulationDataOutputFolderPath), this.dailyDataFile.getName());
+        }
+
+        // The scripts read the data files, so every record has to be written first
+        if (!this.dailyDataFile.getName().endsWith(".csv")) {
+            // Arrow and compressed files can only be read once they are closed, and the simulation set has no more records to write
+            this.closeOutputSink();
+        }
+
+        this.flushAllDataWriters();
+
+        System.out.println("Queueing typical run visualisation...");
 
         // Pass average satisfaction levels data to python to be visualised.
         List<String> satisfactionPythonArgs = new ArrayList<>();
 
-        String satisfactionPythonPath = this.config.getPythonScriptsPath() + "TypicalRun.py";
+        String satisfactionPythonPath = config.getPythonScriptsPath() + "TypicalRun.py";
 
-        satisfactionPythonArgs.add(this.config.getPythonExePath());
+        satisfactionPythonArgs.add(config.getPythonExePath());
         satisfactionPythonArgs.add(satisfactionPythonPath);
         satisfactionPythonArgs.add(this.simulationDataOutputFolderPath);
         satisfactionPythonArgs.add(this.dailyDataFile.getAbsolutePath());
         satisfactionPythonArgs.add(Double.toString(typicalSocial));
         satisfactionPythonArgs.add(Double.toString(typicalSelfish));
 
-        ProcessBuilder satisfactionBuilder = new ProcessBuilder(satisfactionPythonArgs);
+        if (this.visualisationQueue == null) {
+            this.visualisationQueue = new VisualisationQueue(config.getMaxNumOfVisualisationProcesses(), config.isVisualisationDeferred());
+        }
+
+        this.simulationSetVisualisation = this.visualisationQueue.submit(satisfactionPythonArgs, this.simulationDataOutputParentFolderPath);
+    }
 
-        // IO from the Python is shared with the same terminal as the Java code.
-        satisfactionBuilder.inheritIO();
-        satisfactionBuilder.redirectErrorStream(true);
+    /**
+     * @return (String) The extension of the .csv data files, depending on whether they are compressed.
+     */
+    private String getCSVFileExtension() {
+        return this.configInstance.getConfiguration().isOutputCompressed() ? ".csv.gz" : ".csv";
+    }
 
-        Process satisfactionProcess = satisfactionBuilder.start();
-        try {
-            satisfactionProcess.waitFor();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+    /**
+     * Opens a buffered stream to a .csv data file, creating the file or overwriting an existing one.
+     * If the output is compressed, the buffer collects the lines before they are handed to the compressor in large blocks.
+     *
+     * @param file The .csv data file to open.
+     * @return (OutputStream) The stream to write the lines of the file into.
+     * @throws IOException If the file cannot be created.
+     */
+    private OutputStream openCSVOutput(File file) throws IOException {
+        OutputStream fileOutput = new FileOutputStream(file);
+
+        if (this.configInstance.getConfiguration().isOutputCompressed()) {
+            fileOutput = new GZIPOutputStream(fileOutput, OUTPUT_BUFFER_SIZE);
         }
 
-        System.out.println("Visualisation complete.");
+        return new BufferedOutputStream(fileOutput, OUTPUT_BUFFER_SIZE);
     }
 
     /**
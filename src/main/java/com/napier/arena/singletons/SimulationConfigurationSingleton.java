@@ -1,294 +1,145 @@
 package com.napier.arena.singletons;
 
+import com.napier.arena.concepts.SimulationConfiguration;
+import com.napier.arena.output.SimulationSetCache;
 import com.napier.arena.types.AgentStrategyType;
 import com.napier.arena.types.ExchangeType;
 import com.napier.arena.Main;
 
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
-import java.util.Random;
-import java.util.ArrayList;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Properties;
-import java.util.Collections;
+import java.util.random.RandomGenerator;
 
 /**
- * A singleton class that imports and contains user defined settings from a configuration file
- * and uses them to calibrate the rules of a simulation set.
+ * A singleton class that imports user defined settings from a configuration file
+ * and publishes the configuration snapshot of the current simulation set and run.
+ * Agents receive the current snapshot when they are created and whenever a new simulation run starts,
+ * and read the settings from their own snapshot afterwards.
+ * The parsed and bucketed form of the configuration file is cached on disk, so it is only compiled again when the file changes.
  *
  * @author László Tárkányi
  */
 public class SimulationConfigurationSingleton {
-    private static SimulationConfigurationSingleton instance;
-    private final boolean debugMode;
-    private ExchangeType exchangeType;
-    private static final Random random = new Random();
-
-    /* Configuration Properties */
-    private final long startingSeed; // seed
-    private final String resultsFolderPath; // results.folder
-    private final String pythonExePath; // python.executable
-    private final String pythonScriptsPath; // python.scripts
-    private final int populationCount; // population.size
-    private final int numOfSlotsPerAgent; // agent.time-slots
-    private final int numOfUniqueTimeSlots; // simulation.uniqueTime-slots
-    private final int numOfAdditionalDaysAfterTakeover; // simulation.additionalDays
-    private final int numOfSimulationRuns; // simulation.runs
-    private boolean doesUtiliseSingleAgentType; // agent.singleType
-    private AgentStrategyType selectedSingleAgentType; // agent.selectedSingleType
-    private boolean doesUtiliseSocialCapita; // agent.useSocialCapital
-    private final double beta; // agent.beta
-    private final int comparisonLevel; // simulation.comparisonLevel
-    private final double[][] demandCurves; // demand.curves
-    private final int[] availabilityCurve; // availability.curve
-    private final double evolutionPercentage; // agents.evolvePercentage
-    private final String agentTypeRatioInputString; // agent.typeRatio
-    private final double[] satisfactionCurve; // agent.satisfactionCurve
-
-    /* Calculated Values */
-    private long currentSeed;
-    private final double[][] bucketedDemandCurves;
-    private final double[] totalDemandValues;
-    private ArrayList<Integer> demandCurveIndices;
-    private final int[] bucketedAvailabilityCurve;
-    private final int totalAvailableEnergy;
-    private final int numOfAgentsToEvolve;
-    private int selfishPopulationCount;
+    private static final String COMPILED_CONFIGURATION_FOLDER = ".config-cache";
+    private static final String COMPILED_CONFIGURATION_CLASS_FILTER = "com.napier.arena.**;java.lang.*;java.util.*;!*";
+    private static volatile SimulationConfigurationSingleton instance;
+    private volatile SimulationConfiguration currentConfiguration;
+    private volatile int[] dailyDemandCurveAssignment;
 
     public static SimulationConfigurationSingleton getInstance() {
+        // Double-checked locking, so that every agent thread sees the same fully constructed instance
         if (instance == null) {
-            instance = new SimulationConfigurationSingleton();
+            synchronized (SimulationConfigurationSingleton.class) {
+                if (instance == null) {
+                    instance = new SimulationConfigurationSingleton();
+                }
+            }
         }
 
         return instance;
     }
 
     private SimulationConfigurationSingleton() {
-        this.debugMode = Main.isDebugMode();
-        this.exchangeType = Main.getDefaultExchangeType();
+        this.currentConfiguration = this.loadConfiguration(Main.isDebugMode());
 
-        // Retrieve user parameters from the config file
-        Properties properties = new Properties();
-        loadPropertiesFromFile(properties, this.debugMode);
-
-        // Read the configuration variables from the config properties and store them in the attributes
-        this.startingSeed = Long.parseLong(properties.getProperty("seed"));
-        this.resultsFolderPath = properties.getProperty("results.folder");
-        this.pythonExePath = properties.getProperty("python.executable");
-        this.pythonScriptsPath = properties.getProperty("python.scripts");
-        this.populationCount = Integer.parseInt(properties.getProperty("population.size"));
-        this.numOfSlotsPerAgent = Integer.parseInt(properties.getProperty("agent.time-slots"));
-        this.numOfUniqueTimeSlots = Integer.parseInt(properties.getProperty("simulation.uniqueTime-slots"));
-        this.numOfAdditionalDaysAfterTakeover = Integer.parseInt(properties.getProperty("simulation.additionalDays"));
-        this.numOfSimulationRuns = Integer.parseInt(properties.getProperty("simulation.runs"));
-        this.doesUtiliseSingleAgentType = Boolean.parseBoolean(properties.getProperty("agent.singleType"));
-        this.selectedSingleAgentType = inputToStrategyEnum(properties.getProperty("agent.selectedSingleType"));
-        this.doesUtiliseSocialCapita = Boolean.parseBoolean(properties.getProperty("agent.useSocialCapital"));
-        this.beta = Double.parseDouble(properties.getProperty("agent.beta"));
-        this.comparisonLevel = Integer.parseInt(properties.getProperty("simulation.comparisonLevel"));
-        this.demandCurves = inputToDouble2DArray(properties.getProperty("demand.curves"));
-        this.availabilityCurve = inputToIntArray(properties.getProperty("availability.curve"));
-        this.evolutionPercentage = Double.parseDouble(properties.getProperty("agents.evolvePercentage"));
-        this.agentTypeRatioInputString = properties.getProperty("agent.typeRatio");
-        this.satisfactionCurve = inputToDoubleArray(properties.getProperty("agent.satisfactionCurve"));
-
-        // Calculate values based on the configuration properties
-        this.currentSeed = startingSeed;
-        this.bucketedDemandCurves = this.bucketSortDemandCurves();
-        this.totalDemandValues = this.calculateTotalDemandValues();
-        this.demandCurveIndices = this.createDemandCurveIndices();
-        this.bucketedAvailabilityCurve = this.bucketSortAvailabilityCurve();
-        this.totalAvailableEnergy = this.calculateTotalAvailableEnergy();
-        this.numOfAgentsToEvolve = this.calculateNumberOfAgentsToEvolve();
-        this.selfishPopulationCount = ratioToSelfishPopulationCount();
-
-        random.setSeed(this.currentSeed);
+        // Map the demand curve library straight away, so that a missing or mismatched library is reported before any agent starts
+        this.currentConfiguration.getDemandCurveLibrary();
     }
 
     /* Accessors */
 
-    public boolean isDebugMode() {
-        return this.debugMode;
-    }
-
-    public ExchangeType getExchangeType() {
-        return this.exchangeType;
-    }
-
-    public Random getRandom() {
-        return random;
-    }
-
-    public long getStartingSeed() {
-        return this.startingSeed;
-    }
-
-    public String getResultsFolderPath() {
-        return this.resultsFolderPath;
-    }
-
-    public String getPythonExePath() {
-        return pythonExePath;
-    }
-
-    public String getPythonScriptsPath() {
-        return pythonScriptsPath;
-    }
-
-    public int getPopulationCount() {
-        return this.populationCount;
-    }
-
-    public int getNumOfSlotsPerAgent() {
-        return this.numOfSlotsPerAgent;
-    }
-
-    public int getNumOfUniqueTimeSlots() {
-        return this.numOfUniqueTimeSlots;
-    }
-
-    public int getNumOfAdditionalDaysAfterTakeover() {
-        return this.numOfAdditionalDaysAfterTakeover;
-    }
-
-    public int getNumOfSimulationRuns() {
-        return this.numOfSimulationRuns;
-    }
-
-    public boolean doesUtiliseSingleAgentType() {
-        return this.doesUtiliseSingleAgentType;
-    }
-
-    public AgentStrategyType getSelectedSingleAgentType() {
-        return this.selectedSingleAgentType;
-    }
-
-    public boolean doesUtiliseSocialCapita() {
-        return this.doesUtiliseSocialCapita;
-    }
-
-    public double getBeta() {
-        return this.beta;
-    }
-
-    public int getComparisonLevel() {
-        return this.comparisonLevel;
-    }
-
-    public int getNumOfAgentsToEvolve() {
-        return this.numOfAgentsToEvolve;
-    }
-
-    public int getSelfishPopulationCount() {
-        return this.selfishPopulationCount;
-    }
-
-    public double[] getSatisfactionCurve() {
-        return this.satisfactionCurve;
-    }
-
-    public ArrayList<Integer> getDemandCurveIndices() {
-        return this.demandCurveIndices;
-    }
-
-    public long getCurrentSeed() {
-        return this.currentSeed;
-    }
-
-    public double[][] getBucketedDemandCurves() {
-        return this.bucketedDemandCurves;
-    }
-
-    public double[] getTotalDemandValues() {
-        return this.totalDemandValues;
-    }
-
-    public int[] getBucketedAvailabilityCurve() {
-        return this.bucketedAvailabilityCurve;
+    /**
+     * @return (SimulationConfiguration) The configuration snapshot of the current simulation run.
+     */
+    public SimulationConfiguration getConfiguration() {
+        return this.currentConfiguration;
     }
 
-    public int getTotalAvailableEnergy() {
-        return this.totalAvailableEnergy;
+    /**
+     * Gets the demand curve of a Household agent for the current day.
+     * Every Household agent reads its own entry, so the daily assignment can be read concurrently without any coordination.
+     *
+     * @param householdNumber The number of the Household agent in its nickname.
+     * @return (int) The index of the bucketed demand curve that the Household agent uses on the current day, in the demand curve library if one is used.
+     */
+    public int getDailyDemandCurveIndex(int householdNumber) {
+        return this.dailyDemandCurveAssignment[householdNumber - 1];
     }
 
     /* Mutators */
 
-    public void incrementRandomSeed() {
-        this.currentSeed++;
-        random.setSeed(this.currentSeed);
+    /**
+     * Publishes the configuration snapshot of the next simulation run in the current simulation set.
+     *
+     * @return (SimulationConfiguration) The published snapshot.
+     */
+    public synchronized SimulationConfiguration incrementRandomSeed() {
+        this.currentConfiguration = this.currentConfiguration.withNextRun();
+
+        return this.currentConfiguration;
     }
 
     /**
-     * Restore the seed of the random object to the seed defined in the configuration file.
+     * Publishes a configuration snapshot that uses a different exchange type.
+     *
+     * @param exchangeType The exchange type to use.
+     * @return (SimulationConfiguration) The published snapshot.
      */
-    private void resetRandomSeed() {
-        this.currentSeed = this.startingSeed;
-        random.setSeed(this.currentSeed);
-    }
+    public synchronized SimulationConfiguration setExchangeType(ExchangeType exchangeType) {
+        this.currentConfiguration = this.currentConfiguration.withExchangeType(exchangeType);
 
-    public void setExchangeType(ExchangeType exchangeType) {
-        this.exchangeType = exchangeType;
+        return this.currentConfiguration;
     }
 
     /**
-     * At the start of a simulation set, this overwrites some of the user defined configuration settings.
+     * At the start of a simulation set, this publishes a snapshot that overwrites some of the user defined configuration settings.
      *
      * @param doesUtiliseSingleAgentType Whether the Household agents in the next simulation set should be allowed to choose between 1 or 2 strategy types.
      * @param selectedSingleAgentType The strategy type that the Household agents can use, if they can only use one. (If they can be either selfish or social, call getSelectedSingleAgentType().)
      * @param doesUtiliseSocialCapita Whether social capita should be used in the exchanges of the next simulation set.
+     * @param exchangeType The exchange type used in the next simulation set.
+     * @return (SimulationConfiguration) The published snapshot.
      */
-    public void modifyConfiguration(boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType, boolean doesUtiliseSocialCapita, ExchangeType exchangeType) {
-        this.resetRandomSeed();
-        this.setSingleAgentTypeUsed(doesUtiliseSingleAgentType, selectedSingleAgentType);
-        this.setDoesUtiliseSocialCapita(doesUtiliseSocialCapita);
-        this.setExchangeType(exchangeType);
-    }
-
-    private void setSingleAgentTypeUsed(boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType) {
-        this.doesUtiliseSingleAgentType = doesUtiliseSingleAgentType;
-        this.selectedSingleAgentType = selectedSingleAgentType;
-
-        if (this.doesUtiliseSingleAgentType) {
-            if (this.selectedSingleAgentType == AgentStrategyType.SOCIAL) {
-                this.selfishPopulationCount = 0;
-            } else {
-                this.selfishPopulationCount = this.populationCount;
-            }
-        } else {
-            this.selfishPopulationCount = this.ratioToSelfishPopulationCount();
-        }
-    }
+    public synchronized SimulationConfiguration modifyConfiguration(boolean doesUtiliseSingleAgentType, AgentStrategyType selectedSingleAgentType, boolean doesUtiliseSocialCapita, ExchangeType exchangeType) {
+        this.currentConfiguration = this.currentConfiguration.withSimulationSet(doesUtiliseSingleAgentType, selectedSingleAgentType, doesUtiliseSocialCapita, exchangeType);
 
-    private void setDoesUtiliseSocialCapita(boolean doesUtiliseSocialCapital) {
-        this.doesUtiliseSocialCapita = doesUtiliseSocialCapital;
+        return this.currentConfiguration;
     }
 
     /**
-     * Gets and removes the first index of the demand curve array that determines the daily demand of a Household agent.
+     * Assigns a demand curve to each Household agent for the next day.
+     * Should only be called by the Ticker agent before it announces the start of the day.
      *
-     * @return (Integer) The element at the first position of the shuffled array containing indices.
+     * @param random The random number stream of the agent that shuffles the assignment.
      */
-    public Integer popFirstDemandCurveIndex() {
-        return this.demandCurveIndices.removeFirst();
-    }
-
-    /**
-     * Resets the array that stores daily demand curves.
-     */
-    public void recreateDemandCurveIndices() {
-        this.demandCurveIndices = this.createDemandCurveIndices();
+    public void assignDailyDemandCurves(RandomGenerator random) {
+        this.dailyDemandCurveAssignment = this.createDemandCurveAssignment(random);
     }
 
     /* Helpers */
 
     /**
-     * Reads the configuration file and loads the user settings into a Properties object.
+     * Creates the configuration snapshot of the configuration file.
+     * If the file has been compiled before, the compiled snapshot is read from the cache instead of parsing the file.
      *
-     * @param properties The object that stores the settings from the configuration file.
      * @param isDebug Whether the application is running in Debug Mode or not. If Debug Mode is on, the debug.config.properties file is used.
+     * @return (SimulationConfiguration) The initial configuration snapshot.
      */
-    private void loadPropertiesFromFile(Properties properties, boolean isDebug) {
+    private SimulationConfiguration loadConfiguration(boolean isDebug) {
         String configFilename;
 
         // Choose the configuration file based on execution mode
@@ -298,242 +149,166 @@ public class SimulationConfigurationSingleton {
             configFilename = "config.properties";
         }
 
-        // Load the properties from the configuration file
-        try (InputStream input = new FileInputStream(configFilename)) {
-            properties.load(input);
+        byte[] configFileContents = new byte[0];
+
+        try {
+            configFileContents = Files.readAllBytes(Path.of(configFilename));
         } catch (IOException e) {
             System.err.println(e.getMessage());
         }
-    }
 
-    /**
-     * Converts a String into a double array.
-     * The String has to be in the following format: 1.0,1.0,0.0,1.0
-     *
-     * @param input The text containing the values of the array.
-     * @return (double[]) The array form of the input text.
-     */
-    private double[] inputToDoubleArray(String input) {
-        return Arrays.stream(input.split(",")).mapToDouble(Double::parseDouble).toArray();
-    }
+        // Use the compiled snapshot if the configuration file has not changed since it was compiled
+        Path compiledConfigurationPath = this.getCompiledConfigurationPath(configFilename, configFileContents, isDebug);
 
-    /**
-     * Converts a String into a two-dimensional double array.
-     * The String has to be in the following format: 1.0,1.0,0.0,1.0||0.0,0.0,1.0,0.0
-     *
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ResourceExchangeArena.java">ResourceExchangeArena</a>
-     *
-     * @param input The text containing the values of the array.
-     * @return (double[][]) The array form of the input text.
-     */
-    private double[][] inputToDouble2DArray(String input) {
-        // Split the input string into sets using "||" as the delimiter
-        String[] sets = input.split("\\|\\|");
+        if (compiledConfigurationPath != null) {
+            SimulationConfiguration compiledConfiguration = this.readCompiledConfiguration(compiledConfigurationPath);
 
-        // Initialize a 2D double array to store the result
-        double[][] result = new double[sets.length][];
+            if (compiledConfiguration != null) {
+                return compiledConfiguration.withExchangeType(Main.getDefaultExchangeType());
+            }
+        }
 
-        for (int i = 0; i < sets.length; i++) {
-            // Split each set by comma and convert it to a double array
-            String[] numberStrings = sets[i].split(",");
-            result[i] = new double[numberStrings.length];
+        // Load the properties from the contents of the configuration file
+        Properties properties = new Properties();
 
-            for (int j = 0; j < numberStrings.length; j++) {
-                // Parse each element into a double
-                result[i][j] = Double.parseDouble(numberStrings[j]);
-            }
+        try (InputStream input = new ByteArrayInputStream(configFileContents)) {
+            properties.load(input);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
         }
 
-        return result;
-    }
+        SimulationConfiguration configuration = new SimulationConfiguration(properties, isDebug, Main.getDefaultExchangeType());
 
-    /**
-     * Converts a String into a double array.
-     * The String has to be in the following format: 1,1,0,1
-     *
-     * @param input The text containing the values of the array.
-     * @return (int[]) The array form of the input text.
-     */
-    private int[] inputToIntArray(String input) {
-        return Arrays.stream(input.split(",")).mapToInt(Integer::parseInt).toArray();
-    }
+        if (compiledConfigurationPath != null) {
+            this.writeCompiledConfiguration(compiledConfigurationPath, configFilename, configuration);
+        }
 
-    /**
-     * Converts a String to an agent strategy type enum.
-     * The String has to be in the following format: social
-     *
-     * @param input The String containing the strategy type.
-     * @return (AgentStrategyType) The enum form of the input text or null if the input format is incorrect.
-     */
-    private AgentStrategyType inputToStrategyEnum(String input) {
-        return input.equals("social") ? AgentStrategyType.SOCIAL : input.equals("selfish") ? AgentStrategyType.SELFISH : null;
+        return configuration;
     }
 
     /**
-     * Converts a String ratio into the number of selfish Household agents in the simulation set.
-     * The String has to be in the following format: 2:1
-     * Float values are supported: 2.01:1.39472
+     * Finds the location of the compiled form of a configuration file in the cache.
+     * The name of the compiled file contains the SHA-256 hash of the configuration file and of the size and modification time of the application code, so any change to either results in a new entry.
+     * The code is part of the hash as the calculated values of the snapshot depend on it, while the serialization only rejects snapshots of a class with different fields.
+     * Only the attributes of the code are hashed rather than its contents, so that launching the application does not read the whole of its code.
      *
-     * @return (int) The number of selfish Household agents that form the selfish population.
+     * @param configFilename The name of the configuration file.
+     * @param configFileContents The contents of the configuration file.
+     * @param isDebug Whether the application is running in Debug Mode or not.
+     * @return (Path or null) The location of the compiled configuration, or null if the hash cannot be calculated.
      */
-    private int ratioToSelfishPopulationCount() {
-        // Split the input string by colon
-        String[] ratioParts = this.agentTypeRatioInputString.split(":");
+    private Path getCompiledConfigurationPath(String configFilename, byte[] configFileContents, boolean isDebug) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(configFileContents);
+            messageDigest.update(Boolean.toString(isDebug).getBytes(StandardCharsets.UTF_8));
+            messageDigest.update(SimulationSetCache.getCodeStamp().getBytes(StandardCharsets.UTF_8));
 
-        // Store the ratio of selfish:social agents provided in the input
-        float selfishRatio = Float.parseFloat(ratioParts[0]);
-        float socialRatio = Float.parseFloat(ratioParts[1]);
+            String configHash = HexFormat.of().formatHex(messageDigest.digest());
 
-        // Calculate the amount of
-        float fraction = this.populationCount / (selfishRatio + socialRatio);
+            return Path.of(COMPILED_CONFIGURATION_FOLDER, configFilename + "." + configHash + ".bin");
+        } catch (IOException | NoSuchAlgorithmException e) {
+            System.err.println("The configuration file will not be cached: " + e.getMessage());
 
-        // Multiply the fraction of the population size by the ratio for each agent and round up the results
-        return Math.round(fraction * selfishRatio);
+            return null;
+        }
     }
 
     /**
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java">ResourceExchangeArena</a>
+     * Reads a previously compiled configuration snapshot.
+     * Snapshots compiled by a different version of the application are never read, as the version of the code is part of their location.
      *
-     * @return (double[][]) The sorted demand curves using bucket sort.
+     * @param compiledConfigurationPath The location of the compiled configuration.
+     * @return (SimulationConfiguration or null) The compiled snapshot, or null if it does not exist or cannot be read.
      */
-    private double[][] bucketSortDemandCurves() {
-        double[][] bucketedDemandCurves = new double[this.demandCurves.length][this.numOfUniqueTimeSlots];
-
-        for (int i = 0; i < this.demandCurves.length; i++) {
-            double[] bucketedDemandCurve = new double[this.numOfUniqueTimeSlots];
-            int bucket = 0;
-            int bucketFill = 0;
-
-            for (int j = 0; j < this.demandCurves[i].length; j++) {
-                bucketedDemandCurve[bucket] = bucketedDemandCurve[bucket] + this.demandCurves[i][j];
-                bucketFill++;
-
-                if (bucketFill == 6) {
-                    // Rounding to fix precision errors.
-                    bucketedDemandCurve[bucket] = Math.round(bucketedDemandCurve[bucket] * 10.0) / 10.0;
-                    bucketFill = 0;
-                    bucket++;
-                }
-            }
+    private SimulationConfiguration readCompiledConfiguration(Path compiledConfigurationPath) {
+        if (!Files.isRegularFile(compiledConfigurationPath)) {
+            return null;
+        }
 
-            bucketedDemandCurves[i] = bucketedDemandCurve;
+        try (ObjectInputStream input = new ObjectInputStream(Files.newInputStream(compiledConfigurationPath))) {
+            // Only allow the classes that make up a configuration snapshot to be read
+            input.setObjectInputFilter(ObjectInputFilter.Config.createFilter(COMPILED_CONFIGURATION_CLASS_FILTER));
+
+            if (input.readObject() instanceof SimulationConfiguration compiledConfiguration) {
+                return compiledConfiguration;
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("The compiled configuration could not be read, the configuration file will be compiled again: " + e.getMessage());
         }
 
-        return bucketedDemandCurves;
+        return null;
     }
 
     /**
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java">ResourceExchangeArena</a>
+     * Stores a compiled configuration snapshot in the cache.
+     * The snapshot is written to a temporary file first, so that an interrupted write does not leave a corrupt entry behind.
      *
-     * @return (double[]) The demand values based on the bucket sorted demand curves.
-     * @throws NullPointerException If the demand curves have not been bucket sorted before this is called and the demand curves have not been read.
+     * @param compiledConfigurationPath The location of the compiled configuration.
+     * @param configFilename The name of the configuration file.
+     * @param configuration The snapshot compiled from the configuration file.
      */
-    private double[] calculateTotalDemandValues() throws NullPointerException {
-        double[] totalDemandValues = new double[this.demandCurves.length];
+    private void writeCompiledConfiguration(Path compiledConfigurationPath, String configFilename, SimulationConfiguration configuration) {
+        try {
+            Files.createDirectories(compiledConfigurationPath.getParent());
+            Path temporaryPath = Files.createTempFile(compiledConfigurationPath.getParent(), "config", ".tmp");
+
+            try (OutputStream fileOutput = Files.newOutputStream(temporaryPath);
+                 ObjectOutputStream output = new ObjectOutputStream(fileOutput)) {
+                output.writeObject(configuration);
+            }
 
-        if (this.bucketedDemandCurves != null) {
-            for (int i = 0; i < this.demandCurves.length; i++) {
-                double totalDemand = 0;
+            Files.move(temporaryPath, compiledConfigurationPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
 
-                for (double demandValue : this.bucketedDemandCurves[i]) {
-                    totalDemand = totalDemand + demandValue;
+            // Remove the entries compiled from earlier versions of the same configuration file
+            try (DirectoryStream<Path> compiledConfigurations = Files.newDirectoryStream(compiledConfigurationPath.getParent(), configFilename + ".*.bin")) {
+                for (Path outdatedConfiguration : compiledConfigurations) {
+                    if (!outdatedConfiguration.equals(compiledConfigurationPath)) {
+                        Files.deleteIfExists(outdatedConfiguration);
+                    }
                 }
-
-                totalDemand = Math.round(totalDemand * 10.0) / 10.0;
-                totalDemandValues[i] = totalDemand;
             }
-        } else {
-            System.err.println("The demand curves have not been bucketed yet.");
-            throw new NullPointerException();
+        } catch (IOException e) {
+            System.err.println("The compiled configuration could not be cached: " + e.getMessage());
         }
-
-        return totalDemandValues;
     }
 
     /**
-     * Generates indices in a list that point to values in the generated daily demand curves array.
+     * Generates indices in an array that point to values in the generated daily demand curves array.
+     * The element at position i belongs to Household-(i + 1).
      * This allows Household agents to have a different demand for timeslots at the start of each day.
      *
-     * @return (ArrayList of Integers) The shuffled indices that point to demand curves.
-     * @throws NullPointerException If the demand curves have not been bucket sorted before this is called.
+     * @param random The random number stream of the agent that shuffles the indices.
+     * @return (int[]) The shuffled indices that point to demand curves.
      */
-    private ArrayList<Integer> createDemandCurveIndices() throws NullPointerException {
-        ArrayList<Integer> unallocatedCurveIndices = new ArrayList<>();
+    private int[] createDemandCurveAssignment(RandomGenerator random) {
+        SimulationConfiguration config = this.currentConfiguration;
+        int[] curveAssignment = new int[config.getPopulationCount()];
         int curveIndex = 0;
 
-        if (this.bucketedDemandCurves != null) {
-            /*
-            The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
-            See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Day.java
-            */
+        /*
+        The following code snippet was derived from ResourceExchangeArena, the original model this project is based on.
+        See more: https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/Day.java
+        */
 
-            for (int i = 0; i < this.populationCount; i++) {
-                unallocatedCurveIndices.add(curveIndex);
-                curveIndex++;
+        for (int i = 0; i < config.getPopulationCount(); i++) {
+            curveAssignment[i] = curveIndex;
+            curveIndex++;
 
-                if (curveIndex >= this.bucketedDemandCurves.length) {
-                    curveIndex = 0;
-                }
+            if (curveIndex >= config.getNumOfDemandCurves()) {
+                curveIndex = 0;
             }
-        } else {
-            System.err.println("The demand curves have not been bucketed yet.");
-            throw new NullPointerException();
         }
 
-        Collections.shuffle(unallocatedCurveIndices, random);
-
-        return unallocatedCurveIndices;
-    }
+        // Fisher-Yates shuffle, drawing the same numbers as Collections.shuffle would
+        for (int i = curveAssignment.length; i > 1; i--) {
+            int swapIndex = random.nextInt(i);
+            int swappedCurveIndex = curveAssignment[i - 1];
 
-    /**
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java">ResourceExchangeArena</a>
-     *
-     * @return (int[])
-     */
-    private int[] bucketSortAvailabilityCurve() {
-        // The availability curve is bucketed before the simulations for efficiency, as they will all use the same bucketed values.
-        int[] bucketedAvailabilityCurve = new int[this.numOfUniqueTimeSlots];
-
-        int bucket = 0;
-        int bucketFill = 0;
-        int bucketValue = 0;
-
-        for (int element : this.availabilityCurve) {
-            bucketValue += element;
-            bucketFill++;
-
-            if (bucketFill == 2) {
-                bucketedAvailabilityCurve[bucket] = bucketValue;
-                bucket++;
-                bucketValue = 0;
-                bucketFill = 0;
-            }
-        }
-
-        return bucketedAvailabilityCurve;
-    }
-
-    /**
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ArenaEnvironment.java">ResourceExchangeArena</a>
-     *
-     * @return The total amount of energy to distribute among the Household agents.
-     */
-    private int calculateTotalAvailableEnergy() {
-        int totalAvailableEnergy = 0;
-
-        for (int element : this.availabilityCurve) {
-            totalAvailableEnergy += element;
+            curveAssignment[i - 1] = curveAssignment[swapIndex];
+            curveAssignment[swapIndex] = swappedCurveIndex;
         }
 
-        return totalAvailableEnergy;
-    }
-
-    /**
-     * @see <a href="https://github.com/NathanABrooks/ResourceExchangeArena/blob/master/src/resource_exchange_arena/ResourceExchangeArena.java">ResourceExchangeArena</a>
-     *
-     * @return The number of agents selected for social learning.
-     */
-    private int calculateNumberOfAgentsToEvolve() {
-        return (int)Math.round(((double)this.populationCount / 100.0) * this.evolutionPercentage);
+        return curveAssignment;
     }
-}
\ No newline at end of file
+}
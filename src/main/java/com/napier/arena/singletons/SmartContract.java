@@ -4,6 +4,7 @@ import com.napier.arena.AgentHelper;
 import com.napier.arena.agents.HouseholdAgent;
 import com.napier.arena.concepts.TradeOffer;
 import com.napier.arena.concepts.Transaction;
+import jade.core.AID;
 import jade.core.behaviours.Behaviour;
 import jade.lang.acl.ACLMessage;
 
@@ -51,8 +52,8 @@ public class SmartContract {
      */
     public void finishSmartContract(TradeOffer finalisedTradeOffer, boolean doesReceiverGainSocialCapita, boolean doesRequesterLoseSocialCapita) {
         this.createNewBlock(new Transaction(
-                finalisedTradeOffer.requesterAgent(),
-                finalisedTradeOffer.receiverAgent(),
+                finalisedTradeOffer.requesterIndex(),
+                finalisedTradeOffer.receiverIndex(),
                 finalisedTradeOffer.timeSlotRequested(),
                 finalisedTradeOffer.timeSlotOffered(),
                 doesReceiverGainSocialCapita,
@@ -70,6 +71,7 @@ public class SmartContract {
     private void finaliseExchange(HouseholdAgent receiverAgentObject, TradeOffer acceptedTradeOffer) {
         // Finalise the exchange
         final boolean doesRequesterLoseSocialCapita = receiverAgentObject.completeReceivedExchange(acceptedTradeOffer);
+        final AID requesterAgent = receiverAgentObject.getHouseholdAgentIdentifier(acceptedTradeOffer.requesterIndex());
 
         // Create a new behaviour that is to be added to the receiving agent's behaviour queue
         Behaviour finaliseTradeSCBehaviour = new Behaviour() {
@@ -88,7 +90,7 @@ public class SmartContract {
                         // Inform the requester that the offer has been accepted and whether it should lose social capita as a result of the trade
                         AgentHelper.sendMessage(
                                 myAgent,
-                                acceptedTradeOffer.requesterAgent(),
+                                requesterAgent,
                                 Boolean.toString(doesRequesterLoseSocialCapita),
                                 acceptedTradeOffer,
                                 ACLMessage.ACCEPT_PROPOSAL
@@ -101,7 +103,7 @@ public class SmartContract {
                     // Step 2: Receive an answer from the requester
                     case 2:
                         // Listen for the reply from the requester agent
-                        ACLMessage incomingSyncMessage = AgentHelper.receiveMessage(myAgent, acceptedTradeOffer.requesterAgent(), ACLMessage.INFORM_IF);
+                        ACLMessage incomingSyncMessage = AgentHelper.receiveMessage(myAgent, requesterAgent, ACLMessage.INFORM_IF);
 
                         if (incomingSyncMessage != null) {
                             // Make sure the incoming object is readable
@@ -142,7 +144,7 @@ public class SmartContract {
 
             @Override
             public int onEnd() {
-                if (SimulationConfigurationSingleton.getInstance().isDebugMode()) {
+                if (SimulationConfigurationSingleton.getInstance().getConfiguration().isDebugMode()) {
                     AgentHelper.printAgentLog(myAgent.getLocalName(), "finished finalising the exchange");
                 }
 
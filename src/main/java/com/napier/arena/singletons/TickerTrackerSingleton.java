@@ -60,6 +60,16 @@ public class TickerTrackerSingleton {
         this.currentSimulationRun++;
     }
 
+    /**
+     * Moves the run tracking past the runs that were completed before.
+     * Used at the start of a simulation set that is resumed.
+     *
+     * @param numOfCompletedRuns The number of runs that are not simulated again.
+     */
+    public void skipSimulationRuns(int numOfCompletedRuns) {
+        this.currentSimulationRun += numOfCompletedRuns;
+    }
+
     public void incrementCurrentDay() {
         this.currentDay++;
     }
@@ -0,0 +1,118 @@
+package com.napier.arena.structures;
+
+/**
+ * A Fenwick tree (binary indexed tree) over non-negative integer weights.
+ * Supports updating a single weight and finding the position of a cumulative weight, both in logarithmic time.
+ *
+ * @see <a href="https://doi.org/10.1002/spe.4380240306">Fenwick: A new data structure for cumulative frequency tables</a>
+ *
+ * @author László Tárkányi
+ */
+public class CumulativeFrequencyTree {
+    // 1-based tree, tree[i] holds the sum of the weights in the range (i - lowestOneBit(i), i]
+    private final int[] tree;
+    private final int highestPowerOfTwo;
+    private int totalWeight;
+
+    /**
+     * Builds the tree in linear time.
+     *
+     * @param weights The non-negative weight of each position.
+     */
+    public CumulativeFrequencyTree(int[] weights) {
+        this.tree = new int[weights.length + 1];
+        this.totalWeight = 0;
+
+        for (int i = 1; i <= weights.length; i++) {
+            this.tree[i] += weights[i - 1];
+            this.totalWeight += weights[i - 1];
+
+            // Push the partial sum up to the parent node
+            int parent = i + Integer.lowestOneBit(i);
+
+            if (parent <= weights.length) {
+                this.tree[parent] += this.tree[i];
+            }
+        }
+
+        this.highestPowerOfTwo = weights.length == 0 ? 0 : Integer.highestOneBit(weights.length);
+    }
+
+    /* Accessors */
+
+    public int size() {
+        return this.tree.length - 1;
+    }
+
+    public int getTotalWeight() {
+        return this.totalWeight;
+    }
+
+    /**
+     * @param index The 0-based position.
+     * @return (int) The current weight of the position.
+     */
+    public int getWeight(int index) {
+        return this.prefixSum(index + 1) - this.prefixSum(index);
+    }
+
+    /**
+     * @param count The number of positions to add up, starting from the first one.
+     * @return (int) The sum of the weights of the first positions.
+     */
+    public int prefixSum(int count) {
+        int sum = 0;
+
+        for (int i = count; i > 0; i -= Integer.lowestOneBit(i)) {
+            sum += this.tree[i];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Finds the position that a cumulative weight falls into.
+     *
+     * @param cumulativeWeight A value between 0 (inclusive) and the total weight (exclusive).
+     * @return (int) The 0-based index of the first position where the sum of the weights up to and including the position exceeds the cumulative weight.
+     */
+    public int findPosition(int cumulativeWeight) {
+        int position = 0;
+        int remaining = cumulativeWeight;
+
+        // Descend the implicit tree from the largest power of two
+        for (int step = this.highestPowerOfTwo; step > 0; step >>= 1) {
+            int next = position + step;
+
+            if (next < this.tree.length && this.tree[next] <= remaining) {
+                position = next;
+                remaining -= this.tree[next];
+            }
+        }
+
+        return position;
+    }
+
+    /* Mutators */
+
+    /**
+     * @param index The 0-based position.
+     * @param delta The amount to change the weight of the position by.
+     */
+    public void addWeight(int index, int delta) {
+        for (int i = index + 1; i < this.tree.length; i += Integer.lowestOneBit(i)) {
+            this.tree[i] += delta;
+        }
+
+        this.totalWeight += delta;
+    }
+
+    /**
+     * Sets the weight of a position to 0, so that it cannot be found anymore.
+     *
+     * @param index The 0-based position.
+     */
+    public void removeWeight(int index) {
+        this.addWeight(index, -this.getWeight(index));
+    }
+}
@@ -0,0 +1,181 @@
+package com.napier.arena.structures;
+
+import com.napier.arena.concepts.SimulationConfiguration;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A read-only library of bucketed demand curves stored in a binary file that is mapped into memory.
+ * The curves are read straight from the mapped file, so the number of curves in the library does not affect the heap.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * int      magic number ("DCL1")
+ * int      number of curves
+ * int      number of timeslots per curve
+ * double[] total demand value of each curve
+ * double[] bucketed demand values, curve after curve
+ * </pre>
+ *
+ * @author László Tárkányi
+ */
+public class DemandCurveLibrary {
+    private static final int MAGIC_NUMBER = 0x44434C31; // "DCL1"
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    private final MappedByteBuffer mappedLibrary;
+    private final int numOfCurves;
+    private final int numOfTimeSlots;
+    private final int curvesOffset;
+
+    private DemandCurveLibrary(MappedByteBuffer mappedLibrary, int numOfCurves, int numOfTimeSlots) {
+        this.mappedLibrary = mappedLibrary;
+        this.numOfCurves = numOfCurves;
+        this.numOfTimeSlots = numOfTimeSlots;
+        this.curvesOffset = HEADER_SIZE + numOfCurves * Double.BYTES;
+    }
+
+    /**
+     * Maps a demand curve library file into memory.
+     *
+     * @param libraryPath The location of the library file.
+     * @return (DemandCurveLibrary) The library backed by the mapped file.
+     * @throws IOException If the file cannot be read or is not a demand curve library.
+     */
+    public static DemandCurveLibrary open(Path libraryPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(libraryPath, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mappedLibrary = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (mappedLibrary.capacity() < HEADER_SIZE || mappedLibrary.getInt(0) != MAGIC_NUMBER) {
+                throw new IOException(libraryPath + " is not a demand curve library.");
+            }
+
+            int numOfCurves = mappedLibrary.getInt(Integer.BYTES);
+            int numOfTimeSlots = mappedLibrary.getInt(2 * Integer.BYTES);
+            long expectedSize = HEADER_SIZE + (long)numOfCurves * Double.BYTES + (long)numOfCurves * numOfTimeSlots * Double.BYTES;
+
+            if (numOfCurves <= 0 || numOfTimeSlots <= 0 || mappedLibrary.capacity() != expectedSize) {
+                throw new IOException(libraryPath + " is truncated or its header is corrupt.");
+            }
+
+            return new DemandCurveLibrary(mappedLibrary, numOfCurves, numOfTimeSlots);
+        }
+    }
+
+    /* Accessors */
+
+    public int getNumOfCurves() {
+        return this.numOfCurves;
+    }
+
+    public int getNumOfTimeSlots() {
+        return this.numOfTimeSlots;
+    }
+
+    /**
+     * @param curveId The position of the curve in the library, starting from 0.
+     * @return (double) The total demand value of the curve.
+     */
+    public double getTotalDemandValue(int curveId) {
+        return this.mappedLibrary.getDouble(HEADER_SIZE + curveId * Double.BYTES);
+    }
+
+    /**
+     * Provides a view of a curve in the mapped file without copying its values.
+     *
+     * @param curveId The position of the curve in the library, starting from 0.
+     * @return (DoubleBuffer) A read-only view of the bucketed demand values of the curve.
+     */
+    public DoubleBuffer getCurve(int curveId) {
+        int curveOffset = this.curvesOffset + curveId * this.numOfTimeSlots * Double.BYTES;
+
+        return this.mappedLibrary.slice(curveOffset, this.numOfTimeSlots * Double.BYTES).asDoubleBuffer().asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes bucketed demand curves into a new library file.
+     *
+     * @param libraryPath The location of the library file. An existing file is overwritten.
+     * @param bucketedDemandCurves The bucketed demand curves. All curves must have the same number of timeslots.
+     * @param totalDemandValues The total demand value of each curve.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path libraryPath, double[][] bucketedDemandCurves, double[] totalDemandValues) throws IOException {
+        int numOfTimeSlots = bucketedDemandCurves[0].length;
+
+        try (OutputStream fileOutput = Files.newOutputStream(libraryPath);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput, 1 << 16))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(bucketedDemandCurves.length);
+            output.writeInt(numOfTimeSlots);
+
+            for (double totalDemandValue : totalDemandValues) {
+                output.writeDouble(totalDemandValue);
+            }
+
+            for (double[] bucketedDemandCurve : bucketedDemandCurves) {
+                if (bucketedDemandCurve.length != numOfTimeSlots) {
+                    throw new IOException("Every curve in a demand curve library must have " + numOfTimeSlots + " timeslots.");
+                }
+
+                for (double demandValue : bucketedDemandCurve) {
+                    output.writeDouble(demandValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a library file from a text file that contains one demand curve per line, in the same format as a single curve of demand.curves.
+     * Usage: DemandCurveLibrary [input text file] [output library file] [number of unique timeslots]
+     *
+     * @param args The input file, the output file and the number of unique timeslots in a day.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: DemandCurveLibrary <input text file> <output library file> <number of unique time-slots>");
+
+            return;
+        }
+
+        int numOfUniqueTimeSlots = Integer.parseInt(args[2]);
+        ArrayList<double[]> bucketedDemandCurves = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    double[] demandCurve = Arrays.stream(line.trim().split(",")).mapToDouble(Double::parseDouble).toArray();
+                    bucketedDemandCurves.add(SimulationConfiguration.bucketSortDemandCurve(demandCurve, numOfUniqueTimeSlots));
+                }
+            }
+
+            double[][] curves = bucketedDemandCurves.toArray(new double[0][]);
+            double[] totalDemandValues = new double[curves.length];
+
+            for (int i = 0; i < curves.length; i++) {
+                totalDemandValues[i] = SimulationConfiguration.calculateTotalDemandValue(curves[i]);
+            }
+
+            write(Path.of(args[1]), curves, totalDemandValues);
+
+            System.out.println("Wrote " + curves.length + " demand curves to " + args[1]);
+        } catch (IOException e) {
+            System.err.println("Could not build the demand curve library: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.napier.arena.structures;
+
+/**
+ * Keeps count of the favours a Household agent has given to and received from other Household agents.
+ * A positive balance means the other agent owes favours to the owner of the ledger, a negative balance means the owner owes favours to the other agent.
+ *
+ * @author László Tárkányi
+ */
+public interface FavoursLedger {
+    /**
+     * @param householdIndex The household index of the other Household agent.
+     * @return (int) The balance of favours with the other agent, 0 if the two agents have not traded with social capita.
+     */
+    int getBalance(int householdIndex);
+
+    /**
+     * Records a favour given to the other Household agent.
+     *
+     * @param householdIndex The household index of the other Household agent.
+     */
+    void increment(int householdIndex);
+
+    /**
+     * Records a favour received from the other Household agent.
+     *
+     * @param householdIndex The household index of the other Household agent.
+     */
+    void decrement(int householdIndex);
+
+    /**
+     * @return (int) The number of Household agents with a balance in the ledger.
+     */
+    int size();
+
+    /**
+     * Forgets all balances, as if no favours have been given or received.
+     */
+    void clear();
+}
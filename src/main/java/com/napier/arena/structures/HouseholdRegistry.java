@@ -0,0 +1,391 @@
+package com.napier.arena.structures;
+
+import com.napier.arena.AgentHelper;
+import com.napier.arena.concepts.AgentContact;
+import com.napier.arena.concepts.dataholders.EndOfDayHouseholdAgentDataHolder;
+import com.napier.arena.concepts.dataholders.EndOfExchangeHouseholdDataHolder;
+import com.napier.arena.types.AgentStrategyType;
+import jade.core.AID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+
+import static java.lang.Math.sqrt;
+
+/**
+ * The state of every Household agent known to the Advertising Board, indexed by household index.
+ * Incoming messages are matched to their sender in constant time, and the sums over the population are calculated in a single pass.
+ *
+ * @author László Tárkányi
+ */
+public class HouseholdRegistry {
+    private final AgentContact[] contacts;
+    private final AID[] agentIdentifiers;
+    private final EndOfExchangeHouseholdDataHolder[] exchangeRoundData;
+    private final EndOfDayHouseholdAgentDataHolder[] endOfDayData;
+    private final boolean[] hasFinishedDay;
+    private int numOfContacts;
+    private int numOfExchangeRoundDataReceived;
+    private int numOfEndOfDayDataReceived;
+
+    /**
+     * @param populationCount The number of Household agents in the simulation.
+     */
+    public HouseholdRegistry(int populationCount) {
+        this.contacts = new AgentContact[populationCount];
+        this.agentIdentifiers = new AID[populationCount];
+        this.exchangeRoundData = new EndOfExchangeHouseholdDataHolder[populationCount];
+        this.endOfDayData = new EndOfDayHouseholdAgentDataHolder[populationCount];
+        this.hasFinishedDay = new boolean[populationCount];
+        this.numOfContacts = 0;
+        this.numOfExchangeRoundDataReceived = 0;
+        this.numOfEndOfDayDataReceived = 0;
+    }
+
+    /* Accessors */
+
+    public int getNumOfContacts() {
+        return this.numOfContacts;
+    }
+
+    /**
+     * @param householdIndex The household index of the Household agent.
+     * @return (AgentContact or null) The contact of the Household agent, or null if it is not registered.
+     */
+    public AgentContact getContact(int householdIndex) {
+        return this.contacts[householdIndex];
+    }
+
+    /**
+     * @param sender The AID of a Household agent that sent a message.
+     * @return (AgentContact or null) The contact of the Household agent, or null if it is not registered.
+     */
+    public AgentContact getContact(AID sender) {
+        int householdIndex = this.findHouseholdIndex(sender);
+
+        return householdIndex == AgentContact.NO_HOUSEHOLD_INDEX ? null : this.contacts[householdIndex];
+    }
+
+    /**
+     * @param householdIndex The household index of the Household agent.
+     * @return (AID or null) The AID to send messages to, or null if the Household agent is not registered.
+     */
+    public AID getAgentIdentifier(int householdIndex) {
+        return this.agentIdentifiers[householdIndex];
+    }
+
+    /**
+     * @return (ArrayList of Agent Identifiers) The AIDs of all registered Household agents, in the order of their household indices.
+     */
+    public ArrayList<AID> getAgentIdentifiers() {
+        ArrayList<AID> registeredAgentIdentifiers = new ArrayList<>(this.numOfContacts);
+
+        for (AID agentIdentifier : this.agentIdentifiers) {
+            if (agentIdentifier != null) {
+                registeredAgentIdentifiers.add(agentIdentifier);
+            }
+        }
+
+        return registeredAgentIdentifiers;
+    }
+
+    /**
+     * @param householdIndex The household index of the Household agent.
+     * @return (EndOfExchangeHouseholdDataHolder or null) The data the Household agent sent at the end of the current exchange round, or null if it has not sent it yet.
+     */
+    public EndOfExchangeHouseholdDataHolder getExchangeRoundData(int householdIndex) {
+        return this.exchangeRoundData[householdIndex];
+    }
+
+    /**
+     * @param householdIndex The household index of the Household agent.
+     * @return (EndOfDayHouseholdAgentDataHolder or null) The data the Household agent sent at the end of the current day, or null if it has not sent any.
+     */
+    public EndOfDayHouseholdAgentDataHolder getEndOfDayData(int householdIndex) {
+        return this.endOfDayData[householdIndex];
+    }
+
+    /**
+     * @return (boolean) Whether every registered Household agent has sent its data at the end of the current exchange round.
+     */
+    public boolean isExchangeRoundDataComplete() {
+        return this.numOfContacts > 0 && this.numOfExchangeRoundDataReceived == this.numOfContacts;
+    }
+
+    /**
+     * @return (boolean) Whether every registered Household agent has finished the current day.
+     */
+    public boolean isEndOfDayDataComplete() {
+        return this.numOfContacts > 0 && this.numOfEndOfDayDataReceived == this.numOfContacts;
+    }
+
+    /**
+     * Collects and adds up the satisfaction and the exchange round data of the Household agents of each strategy type in a single pass.
+     *
+     * @param doesListSatisfactions Whether the satisfaction of each agent is needed, e.g. for calculating the standard deviation and quartiles, or only the sums.
+     * @return (EnumMap of AgentStrategyType and StrategyTypeTotals) The totals of each strategy type.
+     */
+    public EnumMap<AgentStrategyType, StrategyTypeTotals> calculateTotals(boolean doesListSatisfactions) {
+        int numOfTypes = AgentStrategyType.values().length;
+        int[] numOfAgents = new int[numOfTypes];
+        double[][] satisfactions = new double[numOfTypes][doesListSatisfactions ? this.numOfContacts : 0];
+        double[] satisfactionSums = new double[numOfTypes];
+        long[] requesterCPUTimeSums = new long[numOfTypes];
+        long[] receiverCPUTimeSums = new long[numOfTypes];
+        long[] noTradeCPUTimeSums = new long[numOfTypes];
+        int[] numOfRequesters = new int[numOfTypes];
+        int[] numOfReceivers = new int[numOfTypes];
+        int[] numOfNoTraders = new int[numOfTypes];
+
+        for (int i = 0; i < this.contacts.length; i++) {
+            AgentContact contact = this.contacts[i];
+
+            if (contact == null) {
+                continue;
+            }
+
+            int type = contact.getType().ordinal();
+            double satisfaction = contact.getCurrentSatisfaction();
+
+            if (doesListSatisfactions) {
+                satisfactions[type][numOfAgents[type]] = satisfaction;
+            }
+
+            numOfAgents[type]++;
+            satisfactionSums[type] += satisfaction;
+
+            // Sort the CPU time of the exchange round by the role of the agent in the round
+            EndOfExchangeHouseholdDataHolder exchangeData = this.exchangeRoundData[i];
+
+            if (exchangeData != null) {
+                if (exchangeData.isTradeOfferRequester()) {
+                    requesterCPUTimeSums[type] += exchangeData.exchangeRoundHouseholdCPUTime();
+                    numOfRequesters[type]++;
+                } else if (exchangeData.isTradeOfferReceiver()) {
+                    receiverCPUTimeSums[type] += exchangeData.exchangeRoundHouseholdCPUTime();
+                    numOfReceivers[type]++;
+                } else {
+                    noTradeCPUTimeSums[type] += exchangeData.exchangeRoundHouseholdCPUTime();
+                    numOfNoTraders[type]++;
+                }
+            }
+        }
+
+        EnumMap<AgentStrategyType, StrategyTypeTotals> totals = new EnumMap<>(AgentStrategyType.class);
+
+        for (AgentStrategyType agentStrategyType : AgentStrategyType.values()) {
+            int type = agentStrategyType.ordinal();
+
+            totals.put(agentStrategyType, new StrategyTypeTotals(
+                    numOfAgents[type],
+                    doesListSatisfactions ? Arrays.copyOf(satisfactions[type], numOfAgents[type]) : satisfactions[type],
+                    satisfactionSums[type],
+                    requesterCPUTimeSums[type],
+                    receiverCPUTimeSums[type],
+                    noTradeCPUTimeSums[type],
+                    numOfRequesters[type],
+                    numOfReceivers[type],
+                    numOfNoTraders[type]
+            ));
+        }
+
+        return totals;
+    }
+
+    /* Mutators */
+
+    /**
+     * Registers a Household agent at its household index. Contacts without a household index are ignored.
+     *
+     * @param contact The contact of the Household agent.
+     */
+    public void register(AgentContact contact) {
+        int householdIndex = contact.getHouseholdIndex();
+
+        if (householdIndex == AgentContact.NO_HOUSEHOLD_INDEX) {
+            return;
+        }
+
+        if (this.contacts[householdIndex] == null) {
+            this.numOfContacts++;
+        }
+
+        this.contacts[householdIndex] = contact;
+        this.agentIdentifiers[householdIndex] = contact.getAgentIdentifier();
+    }
+
+    /**
+     * Stores the data a Household agent sent at the end of an exchange round and updates its satisfaction.
+     *
+     * @param sender The AID of the Household agent.
+     * @param householdExchangeData The data of the Household agent.
+     * @return (boolean) Whether the sender is a registered Household agent.
+     */
+    public boolean recordExchangeRoundData(AID sender, EndOfExchangeHouseholdDataHolder householdExchangeData) {
+        int householdIndex = this.findHouseholdIndex(sender);
+
+        if (householdIndex == AgentContact.NO_HOUSEHOLD_INDEX) {
+            return false;
+        }
+
+        this.contacts[householdIndex].setCurrentSatisfaction(householdExchangeData.satisfaction());
+
+        if (this.exchangeRoundData[householdIndex] == null) {
+            this.numOfExchangeRoundDataReceived++;
+        }
+
+        this.exchangeRoundData[householdIndex] = householdExchangeData;
+
+        return true;
+    }
+
+    /**
+     * Marks a Household agent as finished with the day and stores the data it sent.
+     *
+     * @param sender The AID of the Household agent.
+     * @param householdEndOfDayData The data of the Household agent, or null if the agent data is not collected.
+     * @return (boolean) Whether the sender is a registered Household agent.
+     */
+    public boolean recordEndOfDayData(AID sender, EndOfDayHouseholdAgentDataHolder householdEndOfDayData) {
+        int householdIndex = this.findHouseholdIndex(sender);
+
+        if (householdIndex == AgentContact.NO_HOUSEHOLD_INDEX) {
+            return false;
+        }
+
+        if (!this.hasFinishedDay[householdIndex]) {
+            this.hasFinishedDay[householdIndex] = true;
+            this.numOfEndOfDayDataReceived++;
+        }
+
+        this.endOfDayData[householdIndex] = householdEndOfDayData;
+
+        return true;
+    }
+
+    /**
+     * Copies the strategy type and satisfaction of a contact that a Household agent sent about itself.
+     *
+     * @param updatedContact The contact sent by the Household agent.
+     * @return (boolean) Whether the contact belongs to a registered Household agent.
+     */
+    public boolean updateContact(AgentContact updatedContact) {
+        int householdIndex = updatedContact.getHouseholdIndex();
+
+        if (householdIndex < 0 || householdIndex >= this.contacts.length || this.contacts[householdIndex] == null) {
+            return false;
+        }
+
+        this.contacts[householdIndex].setType(updatedContact.getType());
+        this.contacts[householdIndex].setCurrentSatisfaction(updatedContact.getCurrentSatisfaction());
+
+        return true;
+    }
+
+    /**
+     * Forgets the data of the previous exchange round.
+     */
+    public void clearExchangeRoundData() {
+        Arrays.fill(this.exchangeRoundData, null);
+        this.numOfExchangeRoundDataReceived = 0;
+    }
+
+    /**
+     * Forgets the data of the previous day.
+     */
+    public void clearEndOfDayData() {
+        Arrays.fill(this.endOfDayData, null);
+        Arrays.fill(this.hasFinishedDay, false);
+        this.numOfEndOfDayDataReceived = 0;
+    }
+
+    /* Helpers */
+
+    /**
+     * @param sender The AID of an agent.
+     * @return (int) The household index of the agent, or NO_HOUSEHOLD_INDEX if it is not a registered Household agent.
+     */
+    private int findHouseholdIndex(AID sender) {
+        int householdIndex;
+
+        try {
+            householdIndex = AgentHelper.getHouseholdAgentIndex(sender.getLocalName());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return AgentContact.NO_HOUSEHOLD_INDEX;
+        }
+
+        if (householdIndex < 0 || householdIndex >= this.contacts.length || this.contacts[householdIndex] == null) {
+            return AgentContact.NO_HOUSEHOLD_INDEX;
+        }
+
+        return householdIndex;
+    }
+
+    /**
+     * The totals of the Household agents of one strategy type.
+     *
+     * @param numOfAgents (int) The number of Household agents of the strategy type.
+     * @param satisfactions (double[]) The satisfaction of each agent, in the order of their household indices. Empty if the satisfactions were not listed.
+     * @param satisfactionSum (double) The sum of the satisfactions of the agents.
+     * @param requesterCPUTimeSum (long) The CPU time of the agents that requested a trade in the exchange round, in nanoseconds.
+     * @param receiverCPUTimeSum (long) The CPU time of the agents that received a trade offer in the exchange round, in nanoseconds.
+     * @param noTradeCPUTimeSum (long) The CPU time of the agents that did not trade in the exchange round, in nanoseconds.
+     * @param numOfRequesters (int) The number of agents that requested a trade in the exchange round.
+     * @param numOfReceivers (int) The number of agents that received a trade offer in the exchange round.
+     * @param numOfNoTraders (int) The number of agents that did not trade in the exchange round.
+     */
+    public record StrategyTypeTotals(
+            int numOfAgents,
+            double[] satisfactions,
+            double satisfactionSum,
+            long requesterCPUTimeSum,
+            long receiverCPUTimeSum,
+            long noTradeCPUTimeSum,
+            int numOfRequesters,
+            int numOfReceivers,
+            int numOfNoTraders
+    ) {
+        /**
+         * @return (double) The average satisfaction of the agents, or 0 if there are none.
+         */
+        public double averageSatisfaction() {
+            return this.numOfAgents == 0 ? 0.0 : this.satisfactionSum / this.numOfAgents;
+        }
+
+        /**
+         * Calculates the standard deviation of the satisfactions of the agents from a given average.
+         * The squared differences are added up in a second pass over the listed satisfactions, which avoids the cancellation of subtracting the large sums of a single pass.
+         *
+         * @param averageOverallSatisfaction The average to measure the deviation from.
+         * @return (double) The standard deviation, or 0 if there are no agents.
+         * @throws IllegalStateException If the satisfactions of the agents were not listed.
+         */
+        public double satisfactionStandardDeviation(double averageOverallSatisfaction) throws IllegalStateException {
+            if (this.numOfAgents == 0) {
+                return 0.0;
+            }
+
+            if (this.satisfactions.length != this.numOfAgents) {
+                throw new IllegalStateException("The standard deviation needs the satisfaction of each agent to be listed.");
+            }
+
+            double sumDiffsSquared = 0.0;
+
+            for (double satisfaction : this.satisfactions) {
+                double diff = satisfaction - averageOverallSatisfaction;
+                diff *= diff;
+                sumDiffsSquared += diff;
+            }
+
+            return sqrt(sumDiffsSquared / (double)this.numOfAgents);
+        }
+
+        /**
+         * @return (long) The CPU time of all agents in the exchange round, in nanoseconds.
+         */
+        public long cpuTimeSum() {
+            return this.requesterCPUTimeSum + this.receiverCPUTimeSum + this.noTradeCPUTimeSum;
+        }
+    }
+}
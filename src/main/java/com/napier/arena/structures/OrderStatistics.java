@@ -0,0 +1,70 @@
+package com.napier.arena.structures;
+
+/**
+ * Finds order statistics of primitive values by selection, without sorting all the values.
+ *
+ * @see <a href="https://doi.org/10.1145/366622.366647">Hoare: Algorithm 65: Find</a>
+ *
+ * @author László Tárkányi
+ */
+public final class OrderStatistics {
+    private OrderStatistics() {
+        // no-op
+    }
+
+    /**
+     * Moves the value that would be at a given position of the sorted range into that position.
+     * Afterwards, no value before the position is greater and no value after the position is smaller than it.
+     *
+     * @param values The values to select from. The range is reordered in place.
+     * @param from The first position of the range, inclusive.
+     * @param to The last position of the range, inclusive.
+     * @param rank The position to select, between from and to.
+     * @return (double) The value at the given position of the sorted range.
+     */
+    public static double select(double[] values, int from, int to, int rank) {
+        while (from < to) {
+            // Median-of-three pivot, so that sorted and reverse sorted values do not hit the quadratic case
+            int middle = (from + to) >>> 1;
+
+            if (values[middle] < values[from]) swap(values, middle, from);
+            if (values[to] < values[from]) swap(values, to, from);
+            if (values[to] < values[middle]) swap(values, to, middle);
+
+            double pivot = values[middle];
+            int left = from;
+            int right = to;
+
+            // Hoare partition: values[from..right] <= pivot <= values[left..to]
+            while (left <= right) {
+                while (values[left] < pivot) left++;
+                while (values[right] > pivot) right--;
+
+                if (left <= right) {
+                    swap(values, left, right);
+                    left++;
+                    right--;
+                }
+            }
+
+            // Continue in the part that contains the rank, every value between the two parts equals the pivot
+            if (rank <= right) {
+                to = right;
+            } else if (rank >= left) {
+                from = left;
+            } else {
+                return values[rank];
+            }
+        }
+
+        return values[rank];
+    }
+
+    /* Helpers */
+
+    private static void swap(double[] values, int i, int j) {
+        double swapped = values[i];
+        values[i] = values[j];
+        values[j] = swapped;
+    }
+}
@@ -0,0 +1,143 @@
+package com.napier.arena.structures;
+
+import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.util.random.RandomGenerator;
+
+/**
+ * A precompiled roulette wheel over a bucketed curve.
+ * The cumulative weights of the curve are calculated once, so that selecting a timeslot is a binary search
+ * instead of a linear walk over the curve.
+ * For any given selector value, the selected timeslot is the same as the one the linear walk would have found.
+ *
+ * @author László Tárkányi
+ */
+public class RouletteWheel implements Serializable {
+    // cumulativeWeights[k] is the value of the wheel calculator after walking past the first k buckets
+    private final int[] cumulativeWeights;
+
+    /**
+     * Compiles the weights of a bucketed curve into a roulette wheel.
+     *
+     * @param weights The integer weight of each timeslot of the curve.
+     * @param startingValue The value that the wheel calculator starts from before walking the curve.
+     */
+    public RouletteWheel(int[] weights, int startingValue) {
+        this.cumulativeWeights = new int[weights.length + 1];
+        this.cumulativeWeights[0] = startingValue;
+
+        for (int i = 0; i < weights.length; i++) {
+            this.cumulativeWeights[i + 1] = this.cumulativeWeights[i] + weights[i];
+        }
+    }
+
+    /**
+     * Compiles a bucketed demand curve into a roulette wheel.
+     * The weight of each timeslot is its bucketed demand multiplied by 10, as demand values are rounded to one decimal place.
+     *
+     * @param bucketedDemandCurve The bucketed demand curve. Its position is not changed.
+     * @return (RouletteWheel) The roulette wheel of the demand curve.
+     */
+    public static RouletteWheel compileDemandWheel(DoubleBuffer bucketedDemandCurve) {
+        int[] weights = new int[bucketedDemandCurve.remaining()];
+
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (int)(bucketedDemandCurve.get(bucketedDemandCurve.position() + i) * 10);
+        }
+
+        // The wheel calculator of the demand curves starts at 0, as the wheel selector is offset by 1
+        return new RouletteWheel(weights, 0);
+    }
+
+    /* Accessors */
+
+    /**
+     * @return (int[]) A new array containing the weight of each timeslot on the wheel.
+     */
+    public int[] getWeights() {
+        int[] weights = new int[this.cumulativeWeights.length - 1];
+
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = this.cumulativeWeights[i + 1] - this.cumulativeWeights[i];
+        }
+
+        return weights;
+    }
+
+    /**
+     * @return (int) The number of timeslots with a positive weight, i.e. the most distinct timeslots that can be selected.
+     */
+    public int getNumOfSelectableTimeSlots() {
+        int numOfSelectableTimeSlots = 0;
+
+        for (int i = 1; i < this.cumulativeWeights.length; i++) {
+            if (this.cumulativeWeights[i] > this.cumulativeWeights[i - 1]) {
+                numOfSelectableTimeSlots++;
+            }
+        }
+
+        return numOfSelectableTimeSlots;
+    }
+
+    public int getNumOfTimeSlots() {
+        return this.cumulativeWeights.length - 1;
+    }
+
+    /**
+     * @return (int) The sum of all weights on the wheel, excluding the starting value.
+     */
+    public int getTotalWeight() {
+        return this.cumulativeWeights[this.cumulativeWeights.length - 1] - this.cumulativeWeights[0];
+    }
+
+    /**
+     * Finds the timeslot that the wheel selector lands on.
+     * Equivalent to adding up the weights of the curve one by one until the sum reaches the selector.
+     *
+     * @param wheelSelector The randomly chosen position on the wheel.
+     * @return (int) The number of buckets walked past before the sum reached the selector, i.e. the start of the selected timeslot.
+     */
+    public int selectTimeSlot(int wheelSelector) {
+        int low = 0;
+        int high = this.cumulativeWeights.length - 1;
+
+        // Find the first position where the cumulative weight is not smaller than the selector
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (this.cumulativeWeights[middle] < wheelSelector) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Selects distinct timeslots, each with a probability proportional to its weight among the timeslots not selected yet.
+     * This is the same distribution as spinning the wheel repeatedly and discarding the duplicates,
+     * but every spin is guaranteed to land on a new timeslot, so the running time does not depend on how concentrated the weights are.
+     * Timeslots are numbered from 1, i.e. the first bucket of the curve is timeslot 1.
+     *
+     * @param numOfTimeSlots The number of distinct timeslots to select. Capped at the number of timeslots with a positive weight.
+     * @param random The source of randomness. One bounded integer is drawn for each selected timeslot.
+     * @return (int[]) The selected timeslots in the order they were selected.
+     */
+    public int[] selectDistinctTimeSlots(int numOfTimeSlots, RandomGenerator random) {
+        CumulativeFrequencyTree remainingWeights = new CumulativeFrequencyTree(this.getWeights());
+        int[] selectedTimeSlots = new int[Math.min(numOfTimeSlots, this.getNumOfSelectableTimeSlots())];
+
+        for (int i = 0; i < selectedTimeSlots.length; i++) {
+            // Spin the wheel made up of the timeslots that have not been selected yet
+            int bucket = remainingWeights.findPosition(random.nextInt(remainingWeights.getTotalWeight()));
+
+            // Take the selected timeslot off the wheel
+            remainingWeights.removeWeight(bucket);
+            selectedTimeSlots[i] = bucket + 1;
+        }
+
+        return selectedTimeSlots;
+    }
+}
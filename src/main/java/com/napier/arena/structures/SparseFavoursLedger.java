@@ -0,0 +1,137 @@
+package com.napier.arena.structures;
+
+import java.util.Arrays;
+
+/**
+ * A favours ledger that only holds the Household agents that have actually been traded with.
+ * The balances are kept in an open-addressing hash table of primitive household indices, so an update does not allocate or hash any strings.
+ *
+ * @author László Tárkányi
+ */
+public class SparseFavoursLedger implements FavoursLedger {
+    // Household indices are never negative, so a negative key marks an empty position
+    private static final int EMPTY_KEY = -1;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] keys;
+    private int[] balances;
+    private int size;
+
+    public SparseFavoursLedger() {
+        this.allocate(INITIAL_CAPACITY);
+    }
+
+    /* Accessors */
+
+    @Override
+    public int getBalance(int householdIndex) {
+        int position = this.findPosition(householdIndex);
+
+        return this.keys[position] == householdIndex ? this.balances[position] : 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /* Mutators */
+
+    @Override
+    public void increment(int householdIndex) {
+        // Find the position first, inserting the key may replace the balances array
+        int position = this.findOrInsertPosition(householdIndex);
+
+        this.balances[position]++;
+    }
+
+    @Override
+    public void decrement(int householdIndex) {
+        int position = this.findOrInsertPosition(householdIndex);
+
+        this.balances[position]--;
+    }
+
+    @Override
+    public void clear() {
+        if (this.keys.length > INITIAL_CAPACITY) {
+            // Give back the memory of a busy day instead of keeping it for the rest of the run
+            this.allocate(INITIAL_CAPACITY);
+        } else {
+            Arrays.fill(this.keys, EMPTY_KEY);
+            Arrays.fill(this.balances, 0);
+        }
+
+        this.size = 0;
+    }
+
+    /* Helpers */
+
+    /**
+     * Linear probing from the hashed position of the key.
+     *
+     * @param householdIndex The key to look for.
+     * @return (int) The position that holds the key, or the empty position where the key would be inserted.
+     */
+    private int findPosition(int householdIndex) {
+        int mask = this.keys.length - 1;
+        // Fibonacci hashing spreads consecutive household indices across the table, using the top bits of the product
+        int position = (householdIndex * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+
+        while (this.keys[position] != EMPTY_KEY && this.keys[position] != householdIndex) {
+            position = (position + 1) & mask;
+        }
+
+        return position;
+    }
+
+    /**
+     * @param householdIndex The key to look for.
+     * @return (int) The position that holds the key, after inserting it with a balance of 0 if it was not in the table.
+     */
+    private int findOrInsertPosition(int householdIndex) {
+        int position = this.findPosition(householdIndex);
+
+        if (this.keys[position] == EMPTY_KEY) {
+            // Keep the table at most half full, so that the probe sequences stay short
+            if ((this.size + 1) * 2 > this.keys.length) {
+                this.grow();
+                position = this.findPosition(householdIndex);
+            }
+
+            this.keys[position] = householdIndex;
+            this.size++;
+        }
+
+        return position;
+    }
+
+    /**
+     * Doubles the capacity of the table and reinserts every balance.
+     */
+    private void grow() {
+        int[] oldKeys = this.keys;
+        int[] oldBalances = this.balances;
+
+        this.allocate(oldKeys.length * 2);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int position = this.findPosition(oldKeys[i]);
+
+                this.keys[position] = oldKeys[i];
+                this.balances[position] = oldBalances[i];
+            }
+        }
+    }
+
+    /**
+     * @param capacity The number of positions in the table, a power of two.
+     */
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.balances = new int[capacity];
+
+        Arrays.fill(this.keys, EMPTY_KEY);
+    }
+}
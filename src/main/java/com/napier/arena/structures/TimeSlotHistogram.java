@@ -0,0 +1,92 @@
+package com.napier.arena.structures;
+
+import com.napier.arena.concepts.TimeSlot;
+
+import java.util.Arrays;
+
+/**
+ * Counts timeslots by their start hour.
+ * All timeslots of a simulation run carry the same number of energy units, so two timeslots with the same start hour are interchangeable.
+ *
+ * @author László Tárkányi
+ */
+public class TimeSlotHistogram {
+    // 1-based, counts[h] holds the number of timeslots that start at hour h
+    private final int[] counts;
+    private int totalCount;
+
+    /**
+     * @param numOfUniqueTimeSlots The number of unique timeslots in a day.
+     */
+    public TimeSlotHistogram(int numOfUniqueTimeSlots) {
+        this.counts = new int[numOfUniqueTimeSlots + 1];
+        this.totalCount = 0;
+    }
+
+    /* Accessors */
+
+    /**
+     * @param startHour The start hour of the timeslots to count.
+     * @return (int) The number of timeslots that start at the given hour.
+     */
+    public int getCount(int startHour) {
+        return this.counts[startHour];
+    }
+
+    public int getTotalCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * Counts the timeslots that could be matched up between two histograms, where each timeslot can only be matched once.
+     *
+     * @param other The histogram to match against. It must count the same number of unique timeslots.
+     * @return (int) The sum of the smaller count of the two histograms at each hour.
+     */
+    public int countMatches(TimeSlotHistogram other) {
+        int matches = 0;
+
+        for (int startHour = 1; startHour < this.counts.length; startHour++) {
+            matches += Math.min(this.counts[startHour], other.counts[startHour]);
+        }
+
+        return matches;
+    }
+
+    /* Mutators */
+
+    /**
+     * @param timeSlots The timeslots to count. Null is ignored.
+     */
+    public void add(TimeSlot[] timeSlots) {
+        if (timeSlots == null) {
+            return;
+        }
+
+        for (TimeSlot timeSlot : timeSlots) {
+            this.counts[timeSlot.getStartHour()]++;
+        }
+
+        this.totalCount += timeSlots.length;
+    }
+
+    /**
+     * @param timeSlots The timeslots that were counted before and should no longer be. Null is ignored.
+     */
+    public void remove(TimeSlot[] timeSlots) {
+        if (timeSlots == null) {
+            return;
+        }
+
+        for (TimeSlot timeSlot : timeSlots) {
+            this.counts[timeSlot.getStartHour()]--;
+        }
+
+        this.totalCount -= timeSlots.length;
+    }
+
+    public void clear() {
+        Arrays.fill(this.counts, 0);
+        this.totalCount = 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.napier.arena.types;
+
+/**
+ * Contains the sinks that the agent, daily and exchange data can be written into.
+ *
+ * @author László Tárkányi
+ */
+public enum OutputFormatType {
+    // .csv data files
+    CSV,
+    // Apache Arrow IPC data files
+    ARROW,
+    // Rows kept in memory, without any data files
+    MEMORY,
+    // Rows discarded, for measuring the throughput of the simulation without the cost of writing the data
+    NONE
+}
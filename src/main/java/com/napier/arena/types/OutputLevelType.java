@@ -0,0 +1,26 @@
+package com.napier.arena.types;
+
+/**
+ * Contains the levels of detail that the simulation data can be written in, from the least to the most detailed.
+ * Each level produces the data files of the levels below it as well.
+ *
+ * @author László Tárkányi
+ */
+public enum OutputLevelType {
+    // Only the simulation summary text file
+    SUMMARY,
+    // The daily data file
+    DAILY,
+    // The agent data file, with a row for each Household agent each day
+    PER_AGENT,
+    // The exchange data file, with rows for each exchange round
+    PER_ROUND;
+
+    /**
+     * @param level The level of detail of some data.
+     * @return (boolean) Whether the data of the given level is produced at this level.
+     */
+    public boolean includes(OutputLevelType level) {
+        return this.compareTo(level) >= 0;
+    }
+}
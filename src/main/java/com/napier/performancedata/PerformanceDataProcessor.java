@@ -1,19 +1,23 @@
 package com.napier.performancedata;
 
+import com.napier.arena.concepts.SimulationConfiguration;
 import com.napier.arena.singletons.SimulationConfigurationSingleton;
 import com.napier.arena.types.AgentStrategyType;
 import com.napier.arena.types.ExchangeType;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
+import java.util.zip.GZIPInputStream;
 
 public class PerformanceDataProcessor {
     public static void main(String[] args) {
-        SimulationConfigurationSingleton config = SimulationConfigurationSingleton.getInstance();
+        SimulationConfiguration config = SimulationConfigurationSingleton.getInstance().getConfiguration();
 
         String simulationDataOutputFolderPath = getSimulationDataOutputFolderPath(
                 config.doesUtiliseSocialCapita(),
@@ -22,8 +26,13 @@ public class PerformanceDataProcessor {
                 config.getExchangeType()
         );
 
+        // Read the compressed file if the simulation was configured to compress its output
         File exchangeDataFile = new File(simulationDataOutputFolderPath, "exchangeData.csv");
 
+        if (!exchangeDataFile.exists()) {
+            exchangeDataFile = new File(simulationDataOutputFolderPath, "exchangeData.csv.gz");
+        }
+
         long averageHouseholdCPUTimeSocialSum = 0L;
         long averageRequesterCPUTimeSocialSum = 0L;
         long averageReceiverCPUTimeSocialSum = 0L;
@@ -42,7 +51,7 @@ public class PerformanceDataProcessor {
         int numOfAverageReceiverCPUTimeSelfishNonNullEntries = 0;
         int numOfAverageNonParticipantCPUTimeSelfishNonNullEntries = 0;
 
-        try (Scanner scanner = new Scanner(exchangeDataFile)) {
+        try (Scanner scanner = new Scanner(openDataFile(exchangeDataFile), StandardCharsets.US_ASCII)) {
             while(scanner.hasNextLine()) {
                 String[] record = scanner.nextLine().split(",");
                 String strategyType = record[3];
@@ -89,7 +98,7 @@ public class PerformanceDataProcessor {
                     }
                 }
             }
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
 
@@ -128,7 +137,7 @@ public class PerformanceDataProcessor {
     }
 
     private static String getSimulationDataOutputFolderPath(boolean doesUtiliseSocialCapita, boolean doesUtiliseSingleAgentType, AgentStrategyType singleAgentTypeUsed, ExchangeType exchangeTypeUsed) {
-        SimulationConfigurationSingleton config = SimulationConfigurationSingleton.getInstance();
+        SimulationConfiguration config = SimulationConfigurationSingleton.getInstance().getConfiguration();
 
         // Create a directory to store the data output by all simulations being run.
         String simulationDataOutputFolderPath = config.getResultsFolderPath() + "/" + config.getStartingSeed() + "/useSC_" + doesUtiliseSocialCapita + "_AType_";
@@ -145,6 +154,21 @@ public class PerformanceDataProcessor {
         return simulationDataOutputFolderPath;
     }
 
+    /**
+     * @param dataFile A .csv data file, or a GZIP-compressed .csv.gz data file.
+     * @return (InputStream) The uncompressed content of the data file.
+     * @throws IOException If the data file cannot be opened.
+     */
+    private static InputStream openDataFile(File dataFile) throws IOException {
+        InputStream input = new FileInputStream(dataFile);
+
+        if (dataFile.getName().endsWith(".gz")) {
+            input = new GZIPInputStream(input, 1 << 16);
+        }
+
+        return input;
+    }
+
     /**
      * Convert the agent strategy type enum into a capitalised string.
      *